@@ -0,0 +1,154 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Buffer that collects rows from multiple producer threads and merges them into a target data frame.
+ * <p>
+ * Each producer thread appends into its own columnar buffer, so producers do not contend with each other.
+ * {@link #drain()} merges all buffered rows into the target data frame by appending whole column blocks
+ * and rebuilds the indices of the target once.
+ * {@link #seal()} additionally rejects further appends and returns a {@link DataFrame#freeze() frozen} snapshot.
+ * </p>
+ * <p>
+ * Rows of one producer keep their order, rows of different producers are not ordered relative to each other.
+ * </p>
+ */
+public class ConcurrentAppendBuffer {
+    private final DefaultDataFrame target;
+    private final DataFrameColumn[] columnTemplates;
+    private final Queue<Buffer> buffers = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<Buffer> localBuffer = ThreadLocal.withInitial(this::registerBuffer);
+    private volatile boolean sealed = false;
+
+    /**
+     * Creates a buffer for a target data frame.
+     * The columns of the buffers are created based on the columns of the target.
+     *
+     * @param target data frame the buffered rows are merged into
+     */
+    public ConcurrentAppendBuffer(DefaultDataFrame target) {
+        this.target = target;
+        this.columnTemplates = new DataFrameColumn[target.getColumns().size()];
+        int i = 0;
+        for (DataFrameColumn column : target.getColumns()) {
+            columnTemplates[i] = column.copyEmpty();
+            columnTemplates[i++].setName(column.getName());
+        }
+    }
+
+    /**
+     * Appends a row to the buffer of the calling thread.
+     * Throws a {@link DataFrameRuntimeException} if the buffer is sealed
+     * or the values do not match the columns of the target data frame.
+     *
+     * @param values row values
+     * @return <tt>self</tt> for method chaining
+     */
+    public ConcurrentAppendBuffer append(Comparable... values) {
+        Buffer buffer = localBuffer.get();
+        synchronized (buffer) {
+            if (sealed) {
+                throw new DataFrameRuntimeException("append buffer is sealed");
+            }
+            buffer.dataFrame.append(values);
+        }
+        return this;
+    }
+
+    /**
+     * Merges all buffered rows into the target data frame and clears the buffers.
+     * Producers can continue appending while and after the buffer is drained.
+     *
+     * @return target data frame
+     */
+    public DefaultDataFrame drain() {
+        List<DataFrame> filled = new ArrayList<>();
+        for (Buffer buffer : buffers) {
+            synchronized (buffer) {
+                if (buffer.dataFrame.size() > 0) {
+                    filled.add(buffer.dataFrame);
+                    buffer.dataFrame = createBufferFrame();
+                }
+            }
+        }
+        synchronized (target) {
+            target.concat(filled);
+        }
+        return target;
+    }
+
+    /**
+     * Rejects all further appends, merges all buffered rows into the target data frame
+     * and returns an immutable snapshot of the target.
+     *
+     * @return frozen snapshot of the target data frame
+     */
+    public DataFrame seal() {
+        sealed = true;
+        drain();
+        synchronized (target) {
+            return target.freeze();
+        }
+    }
+
+    /**
+     * Returns <tt>true</tt> if this buffer is sealed
+     *
+     * @return <tt>true</tt> if no more rows can be appended
+     */
+    public boolean isSealed() {
+        return sealed;
+    }
+
+    private Buffer registerBuffer() {
+        Buffer buffer = new Buffer(createBufferFrame());
+        buffers.add(buffer);
+        return buffer;
+    }
+
+    private DefaultDataFrame createBufferFrame() {
+        DefaultDataFrame dataFrame = new DefaultDataFrame();
+        for (DataFrameColumn template : columnTemplates) {
+            DataFrameColumn bufferColumn = template.copyEmpty();
+            bufferColumn.setName(template.getName());
+            dataFrame.addColumn(bufferColumn);
+        }
+        return dataFrame;
+    }
+
+    private static class Buffer {
+        private DefaultDataFrame dataFrame;
+
+        private Buffer(DefaultDataFrame dataFrame) {
+            this.dataFrame = dataFrame;
+        }
+    }
+}
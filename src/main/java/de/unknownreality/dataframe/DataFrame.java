@@ -3,8 +3,14 @@ package de.unknownreality.dataframe;
 import de.unknownreality.dataframe.column.*;
 import de.unknownreality.dataframe.common.DataContainer;
 import de.unknownreality.dataframe.filter.FilterPredicate;
+import de.unknownreality.dataframe.group.AggregateView;
 import de.unknownreality.dataframe.group.DataGrouping;
 import de.unknownreality.dataframe.group.GroupUtil;
+import de.unknownreality.dataframe.group.GroupingSets;
+import de.unknownreality.dataframe.group.aggr.Accumulator;
+import de.unknownreality.dataframe.group.aggr.AggregateFunction;
+import de.unknownreality.dataframe.hash.Duplicates;
+import de.unknownreality.dataframe.hash.RowHash;
 import de.unknownreality.dataframe.index.Index;
 import de.unknownreality.dataframe.io.*;
 import de.unknownreality.dataframe.join.JoinColumn;
@@ -12,12 +18,18 @@ import de.unknownreality.dataframe.join.JoinUtil;
 import de.unknownreality.dataframe.join.JoinedDataFrame;
 import de.unknownreality.dataframe.sort.SortColumn;
 import de.unknownreality.dataframe.transform.DataFrameTransform;
+import de.unknownreality.dataframe.transform.Melt;
+import de.unknownreality.dataframe.transform.Pivot;
+import de.unknownreality.dataframe.window.DataWindow;
+import de.unknownreality.dataframe.window.Window;
 
 import java.io.*;
 import java.net.URL;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Created by algru on 12.06.2017.
@@ -238,6 +250,62 @@ public interface DataFrame extends DataContainer<DataFrameHeader, DataRow> {
     @SuppressWarnings("unchecked")
     DataFrame append(DataRow row);
 
+    /**
+     * Appends all rows provided as {@link Comparable} arrays.
+     * The rows are appended within a batch ({@link #beginBatch()}), indices are rebuilt once after all rows are appended.
+     * The same rules as in {@link #append(Comparable...)} apply to each row.
+     *
+     * @param rows values for the appended rows
+     * @return <tt>self</tt> for method chaining
+     */
+    DataFrame appendAll(Iterable<Comparable[]> rows);
+
+    /**
+     * Starts a batch. Within a batch, indices are not updated when rows are appended or values are changed.
+     * All indices are rebuilt in one pass when {@link #commitBatch()} is called.
+     * <p>Index lookups within a batch may return outdated results.</p>
+     *
+     * @return <tt>self</tt> for method chaining
+     */
+    DataFrame beginBatch();
+
+    /**
+     * Ends the current batch and rebuilds all indices.
+     * If a unique index is violated by the appended rows, a {@link DataFrameRuntimeException} is thrown.
+     *
+     * @return <tt>self</tt> for method chaining
+     */
+    DataFrame commitBatch();
+
+    /**
+     * Returns <tt>true</tt> if a batch is currently active
+     *
+     * @return <tt>true</tt> if a batch is active
+     * @see #beginBatch()
+     */
+    boolean isBatch();
+
+    /**
+     * Enables or disables lazy index updates.
+     * If enabled, changes of complete index columns (e.g. {@link DataFrameColumn#map(MapFunction)} or
+     * {@link DataFrameColumn#sort()}) only mark the affected indices as dirty.
+     * Dirty indices are rebuilt when they are used by the next {@link #findByIndex(String, Comparable[])} or
+     * {@link #findByPrimaryKey(Comparable[])} call.
+     * <p>If lazy updates are enabled, violations of unique indices are detected during the next lookup.</p>
+     *
+     * @param lazy <tt>true</tt> to enable lazy index updates
+     * @return <tt>self</tt> for method chaining
+     */
+    DataFrame setLazyIndexUpdate(boolean lazy);
+
+    /**
+     * Returns <tt>true</tt> if lazy index updates are enabled
+     *
+     * @return <tt>true</tt> if lazy index updates are enabled
+     * @see #setLazyIndexUpdate(boolean)
+     */
+    boolean isLazyIndexUpdate();
+
     /**
      * Persists the updated values of a data row.
      * <tt>null</tt> values are ignored. Use {@link Values#NA NA} instead-
@@ -314,6 +382,34 @@ public interface DataFrame extends DataContainer<DataFrameHeader, DataRow> {
      */
     DataFrame sort(String name, SortColumn.Direction dir);
 
+    /**
+     * Returns the columns this data frame is known to be sorted by.
+     * The sort order is set by {@link #sort(SortColumn...)} or {@link #setSortOrder(SortColumn...)}
+     * and is cleared whenever values of this data frame are modified.
+     *
+     * @return sort columns or an empty array if the sort order is unknown
+     */
+    SortColumn[] getSortOrder();
+
+    /**
+     * Declares that the rows of this data frame are sorted by one or more {@link SortColumn sort columns},
+     * for example after loading sorted data.
+     * The order is validated in a single pass, a {@link DataFrameRuntimeException} is thrown if the rows are not sorted.
+     *
+     * @param columns sort columns
+     * @return <tt>self</tt> for method chaining
+     */
+    DataFrame setSortOrder(SortColumn... columns);
+
+    /**
+     * Returns <tt>true</tt> if this data frame is known to be sorted by the specified columns in ascending order.
+     * The columns must be a prefix of the {@link #getSortOrder() sort order}.
+     *
+     * @param columns column names
+     * @return <tt>true</tt> if this data frame is sorted by the columns
+     */
+    boolean isSortedBy(String... columns);
+
     /**
      * Shuffles all rows
      *
@@ -321,6 +417,81 @@ public interface DataFrame extends DataContainer<DataFrameHeader, DataRow> {
      */
     DataFrame shuffle();
 
+    /**
+     * Shuffles all rows using a random permutation created from the specified seed.
+     * The same seed always results in the same order.
+     *
+     * @param seed seed of the random permutation
+     * @return <tt>self</tt> for method chaining
+     */
+    DataFrame shuffle(long seed);
+
+    /**
+     * Returns a new data frame containing <tt>n</tt> randomly selected rows.
+     * The order of the selected rows is preserved.
+     * If <tt>n</tt> is larger than the number of rows, all rows are returned.
+     *
+     * @param n number of selected rows
+     * @return new data frame containing the selected rows
+     */
+    DataFrame sample(int n);
+
+    /**
+     * Returns a new data frame containing <tt>n</tt> randomly selected rows.
+     * The same seed always results in the same rows.
+     *
+     * @param n    number of selected rows
+     * @param seed seed used to select the rows
+     * @return new data frame containing the selected rows
+     * @see #sample(int)
+     */
+    DataFrame sample(int n, long seed);
+
+    /**
+     * Returns a new data frame containing a random fraction of the rows.
+     * Each row is selected independently with a probability of <tt>fraction</tt>.
+     * The order of the selected rows is preserved.
+     *
+     * @param fraction probability for each row to be selected
+     * @return new data frame containing the selected rows
+     */
+    DataFrame sample(double fraction);
+
+    /**
+     * Returns a new data frame containing a random fraction of the rows.
+     * The same seed always results in the same rows.
+     *
+     * @param fraction probability for each row to be selected
+     * @param seed     seed used to select the rows
+     * @return new data frame containing the selected rows
+     * @see #sample(double)
+     */
+    DataFrame sample(double fraction, long seed);
+
+    /**
+     * Returns a new data frame containing up to <tt>n</tt> randomly selected rows for each
+     * combination of values in the group columns.
+     * The order of the selected rows is preserved.
+     *
+     * @param groupColumns columns defining the strata
+     * @param n            maximum number of selected rows per stratum
+     * @return new data frame containing the selected rows
+     */
+    DataFrame stratifiedSample(String[] groupColumns, int n);
+
+    /**
+     * Returns a new data frame containing up to <tt>n</tt> randomly selected rows for each
+     * combination of values in the group columns.
+     * The same seed always results in the same rows.
+     *
+     * @param groupColumns columns defining the strata
+     * @param n            maximum number of selected rows per stratum
+     * @param seed         seed used to select the rows
+     * @return new data frame containing the selected rows
+     * @see #stratifiedSample(String[], int)
+     */
+    DataFrame stratifiedSample(String[] groupColumns, int n, long seed);
+
     /**
      * Returns a new data frame with all rows from this data frame where a specified column value equals
      * an input value.
@@ -473,6 +644,17 @@ public interface DataFrame extends DataContainer<DataFrameHeader, DataRow> {
      */
     DataFrame addIndex(Index index);
 
+    /**
+     * Returns the index or primary key that is based on exactly the specified columns, in any order.
+     * The primary key is preferred if both exist.
+     * Returns <tt>null</tt> if no such index exists or if this data frame is in a batch,
+     * because index lookups within a batch may return outdated results.
+     *
+     * @param columnNames index columns
+     * @return index based on the columns or <tt>null</tt>
+     */
+    Index findIndex(String... columnNames);
+
     /**
      * Returns the number of rows in this data frame
      *
@@ -500,6 +682,16 @@ public interface DataFrame extends DataContainer<DataFrameHeader, DataRow> {
      */
     DataFrame createSubset(int from, int to);
 
+    /**
+     * Creates a new data frame containing the rows at the specified row indices.
+     * The values are copied column by column, indices are copied to the new data frame.
+     * A row index can be used more than once.
+     *
+     * @param rowIndices indices of the rows in the new data frame
+     * @return created subset data frame
+     */
+    DataFrame createSubset(int[] rowIndices);
+
     /**
      * Returns a list the list of rows between <tt>from</tt> and <tt>to</tt>.
      *
@@ -693,6 +885,144 @@ public interface DataFrame extends DataContainer<DataFrameHeader, DataRow> {
      */
     DataGrouping groupBy(String... column);
 
+    /**
+     * Partitions and orders the rows of this data frame according to a window specification.
+     * The returned {@link DataWindow data window} is used to add columns computed by window functions.
+     *
+     * @param window window specification
+     * @return {@link DataWindow data window}
+     * @see de.unknownreality.dataframe.window.WindowFunctions
+     */
+    DataWindow window(Window window);
+
+    /**
+     * Creates a wide data frame with one row for each combination of index column values
+     * and one column for each value of the pivot column.
+     * Each combination of index and pivot values must occur at most once.
+     *
+     * @param indexColumns columns identifying the rows of the result
+     * @param pivotColumn  column whose values become the columns of the result
+     * @param valueColumn  column containing the cell values
+     * @return pivoted data frame
+     * @see Pivot#pivot(DataFrame, String[], String, String)
+     */
+    DataFrame pivot(String[] indexColumns, String pivotColumn, String valueColumn);
+
+    /**
+     * Creates a wide data frame with one row for each combination of index column values
+     * and one column for each value of the pivot column.
+     * The rows of each cell are aggregated using an aggregate function.
+     *
+     * @param indexColumns columns identifying the rows of the result
+     * @param pivotColumn  column whose values become the columns of the result
+     * @param valueColumn  column containing the cell values
+     * @param fun          aggregate function applied to each cell
+     * @param <T>          type of the aggregated values
+     * @return pivoted data frame
+     * @see Pivot#pivot(DataFrame, String[], String, String, AggregateFunction)
+     */
+    <T> DataFrame pivot(String[] indexColumns, String pivotColumn, String valueColumn, AggregateFunction<T> fun);
+
+    /**
+     * Creates a long data frame containing the id columns, a <tt>variable</tt> column with the names of the value columns
+     * and a <tt>value</tt> column with the respective values.
+     *
+     * @param idColumns    columns repeated for each value column
+     * @param valueColumns columns melted into the variable and value columns
+     * @return melted data frame
+     * @see Melt#melt(DataFrame, String[], String[])
+     */
+    DataFrame melt(String[] idColumns, String... valueColumns);
+
+    /**
+     * Returns a new data frame containing the first row of each set of duplicate rows.
+     * Rows are duplicates if they have equal values in all specified columns.
+     * If no columns are specified, all columns are compared.
+     *
+     * @param columns columns compared to find duplicates
+     * @return new data frame without duplicate rows
+     * @see Duplicates#findDistinctRows(DataFrame, Duplicates.Keep, String...)
+     */
+    DataFrame distinct(String... columns);
+
+    /**
+     * Returns a new data frame containing one row of each set of duplicate rows.
+     * Rows are duplicates if they have equal values in all specified columns.
+     * If no columns are specified, all columns are compared.
+     *
+     * @param keep    row of each set of duplicates that is kept
+     * @param columns columns compared to find duplicates
+     * @return new data frame without duplicate rows
+     * @see Duplicates#findDistinctRows(DataFrame, Duplicates.Keep, String...)
+     */
+    DataFrame dropDuplicates(Duplicates.Keep keep, String... columns);
+
+    /**
+     * Aggregates all prefixes of the grouping columns in one pass, from all columns down to the grand total.
+     *
+     * @param accumulators accumulators by aggregate column name
+     * @param columns      grouping columns
+     * @return data frame containing the grouping columns, a grouping id column and the aggregate columns
+     * @see GroupingSets#rollup(DataFrame, Map, String...)
+     */
+    DataFrame rollup(Map<String, Accumulator> accumulators, String... columns);
+
+    /**
+     * Aggregates all subsets of the grouping columns in one pass.
+     *
+     * @param accumulators accumulators by aggregate column name
+     * @param columns      grouping columns
+     * @return data frame containing the grouping columns, a grouping id column and the aggregate columns
+     * @see GroupingSets#cube(DataFrame, Map, String...)
+     */
+    DataFrame cube(Map<String, Accumulator> accumulators, String... columns);
+
+    /**
+     * Aggregates multiple sets of grouping columns in one pass.
+     *
+     * @param accumulators accumulators by aggregate column name
+     * @param sets         grouping sets
+     * @return data frame containing the grouping columns, a grouping id column and the aggregate columns
+     * @see GroupingSets#groupingSets(DataFrame, Map, String[]...)
+     */
+    DataFrame groupingSets(Map<String, Accumulator> accumulators, String[]... sets);
+
+    /**
+     * Creates a view of grouped aggregates that is updated incrementally when this data frame changes.
+     * Appended rows are added to the aggregates of their groups, changed rows only cause a recomputation of their groups.
+     * Views of a frozen data frame are not registered at the data frame, because it never changes.
+     *
+     * @param accumulators accumulators by aggregate column name
+     * @param columns      grouping columns
+     * @return aggregate view registered at this data frame
+     * @see AggregateView
+     */
+    AggregateView materialize(Map<String, Accumulator> accumulators, String... columns);
+
+    /**
+     * Returns the first <tt>n</tt> rows of each group according to a sort order.
+     * The groups are found using a hash table and ordered by their first appearance,
+     * the rows are selected in a single pass using a bounded heap per group.
+     *
+     * @param groupColumns grouping columns
+     * @param n            maximal number of rows per group
+     * @param sortColumns  sort order within the groups
+     * @return data frame containing the selected rows
+     * @see DataGrouping#topN(int, SortColumn...)
+     */
+    DataFrame topNPerGroup(String[] groupColumns, int n, SortColumn... sortColumns);
+
+    /**
+     * Computes a 64 bit hash for each row over the specified columns.
+     * If no columns are specified, all columns are used.
+     * The hashes only depend on the column values and are stable across processes.
+     *
+     * @param columns hashed columns
+     * @return column containing the row hashes
+     * @see RowHash
+     */
+    LongColumn hashRows(String... columns);
+
     /**
      * Joins this data frame with another data frame using the <tt>LEFT JOIN</tt> method.
      *
@@ -800,6 +1130,34 @@ public interface DataFrame extends DataContainer<DataFrameHeader, DataRow> {
      */
     DataFrame copy();
 
+    /**
+     * Returns an immutable snapshot of this data frame.
+     * Columns, header and indices of the snapshot reject all modifications with a {@link DataFrameRuntimeException}.
+     * Once it is safely published, e.g. through a {@link VersionedDataFrame}, a volatile field or a concurrent collection,
+     * the snapshot can be read by any number of threads without synchronization, e.g. using {@link #select(FilterPredicate)}, {@link #findByIndex(String, Comparable[])} or {@link #groupBy(String...)}.
+     * If this data frame is already frozen, it is returned.
+     *
+     * @return frozen snapshot of this data frame
+     */
+    DataFrame freeze();
+
+    /**
+     * Returns <tt>true</tt> if this data frame is immutable
+     *
+     * @return <tt>true</tt> if this data frame is frozen
+     * @see #freeze()
+     */
+    boolean isFrozen();
+
+    /**
+     * Returns a counter that changes whenever rows, values or columns of this data frame are modified.
+     * Objects derived from this data frame, e.g. a {@link de.unknownreality.dataframe.join.impl.JoinTable},
+     * compare it to detect that they are outdated.
+     *
+     * @return modification counter
+     */
+    int getModificationCount();
+
     /**
      * Returns <tt>true</tt> if this data frame contains the input column
      *
@@ -848,6 +1206,23 @@ public interface DataFrame extends DataContainer<DataFrameHeader, DataRow> {
      */
     public Iterable<? extends DataRow> rows();
 
+    /**
+     * Returns a sequential stream of the rows of this data frame
+     *
+     * @return stream of rows
+     * @see DataRowSpliterator
+     */
+    Stream<DataRow> stream();
+
+    /**
+     * Returns a parallel stream of the rows of this data frame.
+     * The rows are split into ranges that are processed independently.
+     *
+     * @return parallel stream of rows
+     * @see DataRowSpliterator
+     */
+    Stream<DataRow> parallelStream();
+
 
     /**
      * Creates a new {@link DefaultDataFrame} instance
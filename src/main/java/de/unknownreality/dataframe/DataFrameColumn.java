@@ -26,6 +26,7 @@ package de.unknownreality.dataframe;
 
 import de.unknownreality.dataframe.common.Row;
 import de.unknownreality.dataframe.common.parser.Parser;
+import de.unknownreality.dataframe.hash.RowHash;
 import de.unknownreality.dataframe.transform.ColumnDataFrameTransform;
 import de.unknownreality.dataframe.transform.ColumnTransform;
 import org.slf4j.Logger;
@@ -43,6 +44,7 @@ public abstract class DataFrameColumn<T extends Comparable<T>, C extends DataFra
     private String name;
     private DefaultDataFrame dataFrame;
     private boolean dataFrameAppend = false;
+    private boolean frozen = false;
 
 
     /**
@@ -89,6 +91,7 @@ public abstract class DataFrameColumn<T extends Comparable<T>, C extends DataFra
      * @return <tt>self</tt> for method chaining
      */
     public final C sort(Comparator<T> comparator) {
+        validateModification();
         doSort(comparator);
         notifyDataFrameColumnChanged();
         return getThis();
@@ -108,6 +111,7 @@ public abstract class DataFrameColumn<T extends Comparable<T>, C extends DataFra
      * @return <tt>self</tt> for method chaining
      */
     public final C sort() {
+        validateModification();
         doSort();
         notifyDataFrameColumnChanged();
         return getThis();
@@ -151,6 +155,7 @@ public abstract class DataFrameColumn<T extends Comparable<T>, C extends DataFra
      * @param name new name of this column
      */
     public void setName(String name) {
+        validateModification();
         this.name = name;
     }
 
@@ -188,6 +193,7 @@ public abstract class DataFrameColumn<T extends Comparable<T>, C extends DataFra
      * @return <tt>self</tt> for method chaining
      */
     public final C set(int index, T value) {
+        validateModification();
         doSet(index, value);
         notifyDataFrameValueChanged(index);
         return getThis();
@@ -212,6 +218,7 @@ public abstract class DataFrameColumn<T extends Comparable<T>, C extends DataFra
      * @return <tt>self</tt> for method chaining
      */
     public final C map(MapFunction<T> mapFunction) {
+        validateModification();
         doMap(mapFunction);
         notifyDataFrameColumnChanged();
         return getThis();
@@ -229,11 +236,137 @@ public abstract class DataFrameColumn<T extends Comparable<T>, C extends DataFra
      * @return <tt>self</tt> for method chaining
      */
     public final C reverse() {
+        validateModification();
         doReverse();
         notifyDataFrameColumnChanged();
         return getThis();
     }
 
+    /**
+     * Used by {@link #reorder(int[])} to reorder the values of this column.
+     * The value at position <tt>i</tt> is replaced by the value at position <tt>order[i]</tt>.
+     *
+     * @param order new order of the column values
+     * @see #reorder(int[])
+     */
+    protected void doReorder(int[] order) {
+        C reordered = gather(order);
+        for (int i = 0; i < order.length; i++) {
+            if (reordered.isNA(i)) {
+                doSetNA(i);
+            } else {
+                doSet(i, reordered.get(i));
+            }
+        }
+    }
+
+    /**
+     * Reorders the column values.
+     * The value at position <tt>i</tt> is replaced by the value at position <tt>order[i]</tt>.
+     * <p>Calls{@link #notifyDataFrameColumnChanged()} to ensure data frame index consistency</p>
+     *
+     * @param order new order of the column values, must contain each index of this column exactly once
+     * @return <tt>self</tt> for method chaining
+     */
+    public final C reorder(int[] order) {
+        validateModification();
+        if (order.length != size()) {
+            throw new DataFrameRuntimeException(String.format("order must contain each row index (%d != %d)", order.length, size()));
+        }
+        doReorder(order);
+        notifyDataFrameColumnChanged();
+        return getThis();
+    }
+
+    /**
+     * Creates a new column containing the values at the specified indices of this column.
+     * Negative indices result in {@link Values#NA NA} values.
+     * The created column is not part of a data frame.
+     *
+     * @param indices indices of the values in the new column
+     * @return new column containing the selected values
+     */
+    public C gather(int[] indices) {
+        C column = copyEmpty();
+        for (int index : indices) {
+            if (index < 0 || isNA(index)) {
+                column.doAppendNA();
+            } else {
+                column.doAppend(get(index));
+            }
+        }
+        return column;
+    }
+
+
+    /**
+     * Creates a new column containing the values of this column followed by the values of other columns.
+     * The created column is not part of a data frame.
+     *
+     * @param columns columns appended after this column
+     * @return new column containing all values
+     */
+    @SafeVarargs
+    public final C concat(DataFrameColumn<T, ?>... columns) {
+        return doConcat(columns);
+    }
+
+    /**
+     * Used by {@link #concat(DataFrameColumn[])} to create the concatenated column.
+     *
+     * @param columns columns appended after this column
+     * @return new column containing all values
+     */
+    protected C doConcat(DataFrameColumn<T, ?>[] columns) {
+        C column = copy();
+        for (DataFrameColumn<T, ?> other : columns) {
+            for (int i = 0; i < other.size(); i++) {
+                if (other.isNA(i)) {
+                    column.doAppendNA();
+                } else {
+                    column.doAppend(other.get(i));
+                }
+            }
+        }
+        return column;
+    }
+
+    /**
+     * Mixes the hashes of the values of this column into an accumulator array.
+     * The accumulator must contain at least one entry for each value.
+     *
+     * @param acc hash accumulator
+     * @see RowHash
+     */
+    public void hashInto(long[] acc) {
+        hashInto(acc, 0, size());
+    }
+
+    /**
+     * Mixes the hashes of a range of values of this column into an accumulator array.
+     * The hash of the value at index <tt>from + i</tt> is mixed into <tt>acc[i]</tt>.
+     *
+     * @param acc  hash accumulator
+     * @param from first index (inclusive)
+     * @param to   last index (exclusive)
+     * @see RowHash
+     */
+    public void hashInto(long[] acc, int from, int to) {
+        for (int i = from; i < to; i++) {
+            acc[i - from] = RowHash.combine(acc[i - from], isNA(i) ? RowHash.NA_HASH : hashValue(get(i)));
+        }
+    }
+
+    /**
+     * Returns the hash of a value used by {@link #hashInto(long[])}.
+     * Columns should override this method if the hash code of the value type is not stable across processes.
+     *
+     * @param value value
+     * @return hash of the value
+     */
+    protected long hashValue(T value) {
+        return value.hashCode();
+    }
 
     /**
      * Returns the value at a specified index
@@ -304,6 +437,22 @@ public abstract class DataFrameColumn<T extends Comparable<T>, C extends DataFra
      */
     protected abstract boolean doAppend(T value);
 
+    /**
+     * Appends all values of another column to the end of this column.
+     * Used by the parent data frame for bulk appends, no checks or notifications are performed.
+     *
+     * @param column column containing the appended values
+     */
+    protected void doAppendColumn(DataFrameColumn<T, ?> column) {
+        for (int i = 0; i < column.size(); i++) {
+            if (column.isNA(i)) {
+                doAppendNA();
+            } else {
+                doAppend(column.get(i));
+            }
+        }
+    }
+
     public abstract<H> T getValueFromRow(Row<?,H> row,H headerName);
 
     public abstract T getValueFromRow(Row<?,?> row, int headerIndex);
@@ -473,6 +622,7 @@ public abstract class DataFrameColumn<T extends Comparable<T>, C extends DataFra
      * @return <tt>self</tt> for method chaining
      */
     public final C setNA(int index) {
+        validateModification();
         doSetNA(index);
         notifyDataFrameValueChanged(index);
         return getThis();
@@ -489,11 +639,38 @@ public abstract class DataFrameColumn<T extends Comparable<T>, C extends DataFra
      * @throws DataFrameException Exception thrown if appending is not allowed
      */
     public void validateAppend() throws DataFrameException {
+        validateModification();
         if (!dataFrameAppend && getDataFrame() != null) {
             throw new DataFrameException("doAppend can only be used if the column is not added to a data frame. use dataFrame.append()");
         }
     }
 
+    /**
+     * Throws a {@link DataFrameRuntimeException} if this column is frozen.
+     * Frozen columns are part of a {@link DataFrame#freeze() frozen data frame} and can not be modified.
+     */
+    protected void validateModification() {
+        if (frozen) {
+            throw new DataFrameRuntimeException(String.format("column '%s' is frozen and can not be modified", name));
+        }
+    }
+
+    /**
+     * Returns <tt>true</tt> if this column is part of a {@link DataFrame#freeze() frozen data frame}
+     *
+     * @return <tt>true</tt> if this column is frozen
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Internal method used by the parent data frame to make this column immutable.
+     */
+    protected void freeze() {
+        this.frozen = true;
+    }
+
     /**
      * Notifies the parent {@link DefaultDataFrame data frame} about a value change at a specified index.
      * This tells the data frame to update the indices if required.
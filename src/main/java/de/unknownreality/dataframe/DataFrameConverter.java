@@ -132,18 +132,8 @@ public class DataFrameConverter {
             Comparable[] rowValues = new Comparable[columnCount];
             for (int i = 0; i < columnCount; i++) {
                 ColumnInformation columnInformation = columnsInformation.get(i);
-                Comparable val = null;
-                if (Values.NA.isNA(row.get(columnInformation.getIndex()))) {
-                    rowValues[i] = Values.NA;
-                    continue;
-                }
-                try {
-                    val = columns[i].getValueFromRow(row, columnInformation.getIndex());
-                } catch (Exception e) {
-                    log.warn("error parsing value ({}), NA added", e.getMessage());
-                }
-                if (val == null || Values.NA.isNA(val) ||
-                        val instanceof String && ("".equals(val.toString()) || "null".equals(val.toString()))) {
+                Comparable val = readValue(columns[i], row, columnInformation.getIndex());
+                if (val == Values.NA) {
                     rowValues[i] = Values.NA;
                     continue;
                 }
@@ -171,6 +161,32 @@ public class DataFrameConverter {
         return dataFrame;
     }
 
+    /**
+     * Reads a value from a row using the parser of a column.
+     * Missing values, empty strings, <tt>"null"</tt> and values that can not be parsed are returned as {@link Values#NA NA}.
+     *
+     * @param column column used to parse the value
+     * @param row    row containing the value
+     * @param index  index of the value within the row
+     * @return parsed value or {@link Values#NA NA}
+     */
+    public static Comparable<?> readValue(DataFrameColumn<?, ?> column, Row<?, ?> row, int index) {
+        if (Values.NA.isNA(row.get(index))) {
+            return Values.NA;
+        }
+        Comparable<?> val = null;
+        try {
+            val = column.getValueFromRow(row, index);
+        } catch (Exception e) {
+            log.warn("error parsing value ({}), NA added", e.getMessage());
+        }
+        if (val == null || Values.NA.isNA(val) ||
+                val instanceof String && ("".equals(val.toString()) || "null".equals(val.toString()))) {
+            return Values.NA;
+        }
+        return val;
+    }
+
     private static boolean doSample(int row){
         if (row < 100) {
             return true;
@@ -0,0 +1,99 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over a range of data frame rows.
+ * The range is split in halves, so parallel streams can process the rows of a data frame in independent chunks.
+ * The data frame must not be modified while the spliterator is used.
+ */
+public class DataRowSpliterator implements Spliterator<DataRow> {
+    private static final int MIN_SPLIT_SIZE = 64;
+    private final DataFrame dataFrame;
+    private int index;
+    private final int end;
+
+    /**
+     * Creates a spliterator over all rows of a data frame
+     *
+     * @param dataFrame data frame
+     */
+    public DataRowSpliterator(DataFrame dataFrame) {
+        this(dataFrame, 0, dataFrame.size());
+    }
+
+    /**
+     * Creates a spliterator over a range of rows
+     *
+     * @param dataFrame data frame
+     * @param start     first row (inclusive)
+     * @param end       last row (exclusive)
+     */
+    public DataRowSpliterator(DataFrame dataFrame, int start, int end) {
+        this.dataFrame = dataFrame;
+        this.index = start;
+        this.end = end;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super DataRow> action) {
+        if (index >= end) {
+            return false;
+        }
+        action.accept(dataFrame.getRow(index++));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super DataRow> action) {
+        for (; index < end; index++) {
+            action.accept(dataFrame.getRow(index));
+        }
+    }
+
+    @Override
+    public Spliterator<DataRow> trySplit() {
+        int remaining = end - index;
+        if (remaining < MIN_SPLIT_SIZE * 2) {
+            return null;
+        }
+        int start = index;
+        index = start + remaining / 2;
+        return new DataRowSpliterator(dataFrame, start, index);
+    }
+
+    @Override
+    public long estimateSize() {
+        return end - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | NONNULL;
+    }
+}
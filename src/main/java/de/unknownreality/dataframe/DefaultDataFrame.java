@@ -28,9 +28,16 @@ import de.unknownreality.dataframe.column.*;
 import de.unknownreality.dataframe.common.mapping.DataMapper;
 import de.unknownreality.dataframe.filter.FilterPredicate;
 import de.unknownreality.dataframe.filter.compile.PredicateCompiler;
+import de.unknownreality.dataframe.group.AggregateView;
 import de.unknownreality.dataframe.group.DataGrouping;
 import de.unknownreality.dataframe.group.GroupUtil;
+import de.unknownreality.dataframe.group.GroupingSets;
+import de.unknownreality.dataframe.group.aggr.Accumulator;
+import de.unknownreality.dataframe.group.aggr.AggregateFunction;
 import de.unknownreality.dataframe.group.impl.DefaultGroupUtil;
+import de.unknownreality.dataframe.group.impl.HashGroupUtil;
+import de.unknownreality.dataframe.hash.Duplicates;
+import de.unknownreality.dataframe.hash.RowHash;
 import de.unknownreality.dataframe.index.Index;
 import de.unknownreality.dataframe.index.Indices;
 import de.unknownreality.dataframe.join.JoinColumn;
@@ -38,18 +45,26 @@ import de.unknownreality.dataframe.join.JoinUtil;
 import de.unknownreality.dataframe.join.JoinedDataFrame;
 import de.unknownreality.dataframe.join.impl.DefaultJoinUtil;
 import de.unknownreality.dataframe.sort.RowColumnComparator;
+import de.unknownreality.dataframe.sort.RowIndexComparator;
 import de.unknownreality.dataframe.sort.SortColumn;
 import de.unknownreality.dataframe.transform.DataFrameTransform;
+import de.unknownreality.dataframe.transform.Melt;
+import de.unknownreality.dataframe.transform.Pivot;
+import de.unknownreality.dataframe.window.DataWindow;
+import de.unknownreality.dataframe.window.Window;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Created by Alex on 09.03.2016.
  */
 public class DefaultDataFrame implements DataFrame {
     private static final Logger log = LoggerFactory.getLogger(DefaultDataFrame.class);
+    private static final SortColumn[] NO_SORT_ORDER = new SortColumn[0];
     private int size;
     private final Map<String, DataFrameColumn> columnsMap = new LinkedHashMap<>();
     private final List<DataFrameColumn> columnList = new ArrayList<>();
@@ -57,9 +72,14 @@ public class DefaultDataFrame implements DataFrame {
     private final Indices indices = new Indices(this);
     private JoinUtil joinUtil = new DefaultJoinUtil();
     private GroupUtil groupUtil = new DefaultGroupUtil();
+    private boolean batch = false;
+    private final boolean frozen;
+    private SortColumn[] sortOrder = NO_SORT_ORDER;
+    private int modificationCount = 0;
+    private final List<AggregateView> aggregateViews = new ArrayList<>();
 
     public DefaultDataFrame() {
-
+        this.frozen = false;
     }
 
     /**
@@ -69,9 +89,46 @@ public class DefaultDataFrame implements DataFrame {
      * @param rows   collections of data rows
      */
     public DefaultDataFrame(DataFrameHeader header, Collection<DataRow> rows) {
+        this.frozen = false;
         set(header, rows);
     }
 
+    /**
+     * Creates a copy of a data frame that shares all frozen columns of the source.
+     * Frozen columns are immutable and can therefore be part of multiple data frames,
+     * all other columns are copied. Indices are rebuilt for the new data frame.
+     * <p>
+     * If <tt>freeze</tt> is <tt>true</tt>, columns, header and data frame are made immutable.
+     * Not all fields are final, so the frozen data frame must be shared with other threads
+     * through a safe publication, e.g. a {@link VersionedDataFrame}, a volatile field or a concurrent collection.
+     * </p>
+     *
+     * @param source data frame the copy is created from
+     * @param freeze <tt>true</tt> to create a frozen data frame
+     */
+    private DefaultDataFrame(DefaultDataFrame source, boolean freeze) {
+        for (DataFrameColumn column : source.columnList) {
+            if (column.isFrozen()) {
+                addColumn(column);
+                continue;
+            }
+            DataFrameColumn copy = column.copy();
+            copy.setName(column.getName());
+            addColumn(copy);
+        }
+        source.indices.copyTo(this);
+        this.joinUtil = source.joinUtil;
+        this.groupUtil = source.groupUtil;
+        this.sortOrder = source.sortOrder;
+        if (freeze) {
+            for (DataFrameColumn column : columnList) {
+                column.freeze();
+            }
+            header.freeze();
+        }
+        this.frozen = freeze;
+    }
+
 
 
     @Override
@@ -86,6 +143,7 @@ public class DefaultDataFrame implements DataFrame {
 
     @Override
     public DefaultDataFrame setPrimaryKey(DataFrameColumn... cols) {
+        validateModification();
         this.indices.setPrimaryKey(cols);
         return this;
     }
@@ -93,6 +151,7 @@ public class DefaultDataFrame implements DataFrame {
 
     @Override
     public DefaultDataFrame removePrimaryKey() {
+        validateModification();
         indices.removeIndex(Indices.PRIMARY_KEY_NAME);
         return this;
     }
@@ -100,6 +159,7 @@ public class DefaultDataFrame implements DataFrame {
 
     @Override
     public DefaultDataFrame removeIndex(String name) {
+        validateModification();
         indices.removeIndex(name);
         return this;
     }
@@ -107,12 +167,17 @@ public class DefaultDataFrame implements DataFrame {
 
     @Override
     public DefaultDataFrame renameColumn(String name, String newName) {
+        validateModification();
         DataFrameColumn column = columnsMap.get(name);
         if (column == null) {
             return this;
         }
+        column = copySharedColumn(header.getIndex(name));
         header.rename(name, newName);
         column.setName(newName);
+        clearSortOrder(name);
+        clearSortOrder(newName);
+        invalidateViews();
         columnsMap.remove(name);
         columnsMap.put(newName, column);
         return this;
@@ -126,12 +191,16 @@ public class DefaultDataFrame implements DataFrame {
 
 
     public DefaultDataFrame replaceColumn(DataFrameColumn existing, DataFrameColumn replacement) {
+        validateModification();
         int existingIndex = header.getIndex(existing.getName());
         columnList.set(existingIndex, replacement);
         header.replace(existing, replacement);
         columnsMap.remove(existing.getName());
         columnsMap.put(replacement.getName(), replacement);
         indices.replace(existing, replacement);
+        clearSortOrder(existing.getName());
+        clearSortOrder(replacement.getName());
+        invalidateViews();
         return this;
     }
 
@@ -139,20 +208,24 @@ public class DefaultDataFrame implements DataFrame {
     @Override
     @SuppressWarnings("unchecked")
     public DefaultDataFrame addColumn(DataFrameColumn column) {
+        validateModification();
         if (!columnList.isEmpty() && column.size() != size) {
             throw new DataFrameRuntimeException("column lengths must be equal");
         }
         columnList.add(column);
-        if (column.getDataFrame() != null && column.getDataFrame() != this) {
+        if (column.getDataFrame() != null && column.getDataFrame() != this && !column.isFrozen()) {
             throw new DataFrameRuntimeException("column can not be added to multiple data frames. use column.copy() first");
         }
         if (columnList.size() == 1) {
             this.size = column.size();
         }
-        try {
-            column.setDataFrame(this);
-        } catch (DataFrameException e) {
-            throw new DataFrameRuntimeException("error adding column", e);
+        // frozen columns can be shared and keep the data frame they were frozen in
+        if (!column.isFrozen()) {
+            try {
+                column.setDataFrame(this);
+            } catch (DataFrameException e) {
+                throw new DataFrameRuntimeException("error adding column", e);
+            }
         }
         header.add(column.getName(), column.getClass(), column.getType());
         columnsMap.put(column.getName(), column);
@@ -293,6 +366,7 @@ public class DefaultDataFrame implements DataFrame {
      */
     @Override
     public DefaultDataFrame append(Comparable... values) {
+        validateValueModification();
         if (values.length != columnList.size()) {
             throw new DataFrameRuntimeException("value for each column required");
         }
@@ -319,7 +393,9 @@ public class DefaultDataFrame implements DataFrame {
             i++;
         }
         size++;
-        indices.update(getRow(size - 1));
+        if (!batch) {
+            indices.update(getRow(size - 1));
+        }
         return this;
     }
 
@@ -331,6 +407,7 @@ public class DefaultDataFrame implements DataFrame {
     @Override
     @SuppressWarnings("unchecked")
     public DefaultDataFrame append(DataRow row) {
+        validateValueModification();
         for (String h : header) {
             DataFrameColumn column = columnsMap.get(h);
             column.startDataFrameAppend();
@@ -343,19 +420,102 @@ public class DefaultDataFrame implements DataFrame {
 
         }
         this.size++;
-        indices.update(getRow(size - 1));
+        if (!batch) {
+            indices.update(getRow(size - 1));
+        }
+        return this;
+    }
+
+
+    @Override
+    public DefaultDataFrame appendAll(Iterable<Comparable[]> rows) {
+        validateModification();
+        boolean startedBatch = !batch;
+        if (startedBatch) {
+            beginBatch();
+        }
+        try {
+            for (Comparable[] values : rows) {
+                append(values);
+            }
+        } finally {
+            if (startedBatch) {
+                commitBatch();
+            }
+        }
+        return this;
+    }
+
+
+    @Override
+    public DefaultDataFrame beginBatch() {
+        validateModification();
+        this.batch = true;
+        return this;
+    }
+
+
+    @Override
+    public DefaultDataFrame commitBatch() {
+        return commitBatch(false);
+    }
+
+    /**
+     * Ends the current batch and rebuilds all indices.
+     * If <tt>parallel</tt> is <tt>true</tt>, each index is rebuilt in its own task.
+     *
+     * @param parallel rebuild the indices in parallel
+     * @return <tt>self</tt> for method chaining
+     * @see #commitBatch()
+     */
+    public DefaultDataFrame commitBatch(boolean parallel) {
+        validateModification();
+        this.batch = false;
+        indices.rebuild(parallel);
+        return this;
+    }
+
+
+    @Override
+    public boolean isBatch() {
+        return batch;
+    }
+
+
+    @Override
+    public DefaultDataFrame setLazyIndexUpdate(boolean lazy) {
+        validateModification();
+        indices.setLazy(lazy);
         return this;
     }
 
 
+    @Override
+    public boolean isLazyIndexUpdate() {
+        return indices.isLazy();
+    }
+
+
     @Override
     public DefaultDataFrame update(DataRow dataRow) {
+        validateModification();
+        int row = dataRow.getIndex();
         for (String h : header) {
-            DataFrameColumn column = getColumn(h);
             Comparable newValue = dataRow.get(h);
             if (newValue == null) {
                 continue;
             }
+            int columnIndex = header.getIndex(h);
+            DataFrameColumn column = columnList.get(columnIndex);
+            if (column.isFrozen()) {
+                // shared columns are only copied if their value changes
+                boolean unchanged = newValue == Values.NA ? column.isNA(row)
+                        : !column.isNA(row) && newValue.equals(column.get(row));
+                if (unchanged) {
+                    continue;
+                }
+                column = copySharedColumn(columnIndex);
+            }
             if (newValue == Values.NA) {
                 column.setNA(dataRow.getIndex());
             } else {
@@ -368,13 +528,23 @@ public class DefaultDataFrame implements DataFrame {
 
     @Override
     public DefaultDataFrame set(Collection<DataRow> rows) {
+        validateValueModification();
+        invalidateViews();
         this.size = 0;
         this.indices.clearValues();
         for (DataFrameColumn column : columnsMap.values()) {
             column.clear();
         }
-        for (DataRow row : rows) {
-            append(row);
+        boolean startedBatch = !batch;
+        this.batch = true;
+        try {
+            for (DataRow row : rows) {
+                append(row);
+            }
+        } finally {
+            if (startedBatch) {
+                commitBatch();
+            }
         }
         return this;
     }
@@ -387,6 +557,7 @@ public class DefaultDataFrame implements DataFrame {
 
 
     protected DefaultDataFrame set(DataFrameHeader header, Collection<DataRow> rows, Indices indices) {
+        validateModification();
         this.header = header;
         this.columnsMap.clear();
         this.columnList.clear();
@@ -427,12 +598,17 @@ public class DefaultDataFrame implements DataFrame {
 
     @Override
     public DefaultDataFrame removeColumn(DataFrameColumn column) {
-        try {
-            column.setDataFrame(null);
-        } catch (DataFrameException e) {
-            throw new DataFrameRuntimeException("error removing column", e);
+        validateModification();
+        if (!column.isFrozen()) {
+            try {
+                column.setDataFrame(null);
+            } catch (DataFrameException e) {
+                throw new DataFrameRuntimeException("error removing column", e);
 
+            }
         }
+        clearSortOrder(column.getName());
+        invalidateViews();
         this.header.remove(column.getName());
         this.indices.removeColumn(column);
         this.columnsMap.remove(column.getName());
@@ -442,17 +618,35 @@ public class DefaultDataFrame implements DataFrame {
 
 
 
+    /**
+     * Clears the sort order if it contains the specified column
+     *
+     * @param name name of the column
+     */
+    private void clearSortOrder(String name) {
+        for (SortColumn sortColumn : sortOrder) {
+            if (sortColumn.getName().equals(name)) {
+                sortOrder = NO_SORT_ORDER;
+                return;
+            }
+        }
+    }
+
+
     @Override
     public DefaultDataFrame sort(SortColumn... columns) {
+        validateValueModification();
         List<DataRow> rows = getRows(0, size);
         Collections.sort(rows, new RowColumnComparator(columns));
         set(rows);
+        sortOrder = Arrays.copyOf(columns, columns.length);
         return this;
     }
 
 
     @Override
     public DefaultDataFrame sort(Comparator<DataRow> comp) {
+        validateValueModification();
         List<DataRow> rows = getRows(0, size);
         Collections.sort(rows, comp);
         set(rows);
@@ -468,23 +662,204 @@ public class DefaultDataFrame implements DataFrame {
 
     @Override
     public DefaultDataFrame sort(String name, SortColumn.Direction dir) {
-        List<DataRow> rows = getRows(0, size);
-        Collections.sort(rows, new RowColumnComparator(new SortColumn[]{new SortColumn(name, dir)}));
-        set(rows);
-        return this;
+        return sort(new SortColumn(name, dir));
     }
 
+    @Override
+    public SortColumn[] getSortOrder() {
+        return Arrays.copyOf(sortOrder, sortOrder.length);
+    }
+
+    @Override
+    public DefaultDataFrame setSortOrder(SortColumn... columns) {
+        validateModification();
+        RowIndexComparator comparator = new RowIndexComparator(this, columns);
+        for (int row = 1; row < size; row++) {
+            if (comparator.compare(row - 1, row) > 0) {
+                throw new DataFrameRuntimeException(String.format("data frame is not sorted: row %d is before row %d", row - 1, row));
+            }
+        }
+        sortOrder = Arrays.copyOf(columns, columns.length);
+        return this;
+    }
 
+    @Override
+    public boolean isSortedBy(String... columns) {
+        if (columns.length > sortOrder.length) {
+            return false;
+        }
+        for (int i = 0; i < columns.length; i++) {
+            if (!sortOrder[i].getName().equals(columns[i])
+                    || sortOrder[i].getDirection() != SortColumn.Direction.Ascending) {
+                return false;
+            }
+        }
+        return true;
+    }
 
     @Override
     public DefaultDataFrame shuffle() {
-        List<DataRow> rows = getRows(0, size);
-        Collections.shuffle(rows);
-        set(rows);
+        return shuffle(new Random());
+    }
+
+
+    @Override
+    public DefaultDataFrame shuffle(long seed) {
+        return shuffle(new Random(seed));
+    }
+
+    private DefaultDataFrame shuffle(Random random) {
+        validateValueModification();
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = order[i];
+            order[i] = order[j];
+            order[j] = tmp;
+        }
+        for (DataFrameColumn column : columnList) {
+            column.doReorder(order);
+        }
+        invalidateViews();
+        if (!batch) {
+            indices.reorder();
+        }
         return this;
     }
 
 
+    @Override
+    public DefaultDataFrame sample(int n) {
+        return sample(n, new Random());
+    }
+
+
+    @Override
+    public DefaultDataFrame sample(int n, long seed) {
+        return sample(n, new Random(seed));
+    }
+
+    /**
+     * Selects <tt>n</tt> distinct rows using Floyd's algorithm.
+     */
+    private DefaultDataFrame sample(int n, Random random) {
+        if (n < 0) {
+            throw new DataFrameRuntimeException(String.format("sample size must not be negative: %d", n));
+        }
+        n = Math.min(n, size);
+        BitSet selected = new BitSet(size);
+        for (int j = size - n; j < size; j++) {
+            int t = random.nextInt(j + 1);
+            selected.set(selected.get(t) ? j : t);
+        }
+        return createSubset(selected);
+    }
+
+
+    @Override
+    public DefaultDataFrame sample(double fraction) {
+        return sample(fraction, new Random());
+    }
+
+
+    @Override
+    public DefaultDataFrame sample(double fraction, long seed) {
+        return sample(fraction, new Random(seed));
+    }
+
+    private DefaultDataFrame sample(double fraction, Random random) {
+        if (fraction < 0 || fraction > 1) {
+            throw new DataFrameRuntimeException(String.format("sample fraction must be between 0 and 1: %f", fraction));
+        }
+        BitSet selected = new BitSet(size);
+        for (int i = 0; i < size; i++) {
+            if (random.nextDouble() < fraction) {
+                selected.set(i);
+            }
+        }
+        return createSubset(selected);
+    }
+
+
+    @Override
+    public DefaultDataFrame stratifiedSample(String[] groupColumns, int n) {
+        return stratifiedSample(groupColumns, n, new Random());
+    }
+
+
+    @Override
+    public DefaultDataFrame stratifiedSample(String[] groupColumns, int n, long seed) {
+        return stratifiedSample(groupColumns, n, new Random(seed));
+    }
+
+    /**
+     * Selects up to <tt>n</tt> rows per stratum using one reservoir per stratum.
+     */
+    private DefaultDataFrame stratifiedSample(String[] groupColumns, int n, Random random) {
+        if (n < 0) {
+            throw new DataFrameRuntimeException(String.format("sample size must not be negative: %d", n));
+        }
+        DataFrameColumn[] columns = new DataFrameColumn[groupColumns.length];
+        for (int i = 0; i < groupColumns.length; i++) {
+            columns[i] = getColumn(groupColumns[i], DataFrameColumn.class);
+        }
+        Map<List<Comparable>, Reservoir> reservoirs = new HashMap<>();
+        for (int row = 0; row < size; row++) {
+            Comparable[] key = new Comparable[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                key[i] = columns[i].isNA(row) ? Values.NA : columns[i].get(row);
+            }
+            List<Comparable> stratum = Arrays.asList(key);
+            Reservoir reservoir = reservoirs.get(stratum);
+            if (reservoir == null) {
+                reservoir = new Reservoir(n);
+                reservoirs.put(stratum, reservoir);
+            }
+            reservoir.offer(row, random);
+        }
+        BitSet selected = new BitSet(size);
+        for (Reservoir reservoir : reservoirs.values()) {
+            for (int i = 0; i < Math.min(reservoir.seen, n); i++) {
+                selected.set(reservoir.rows[i]);
+            }
+        }
+        return createSubset(selected);
+    }
+
+    private static class Reservoir {
+        private final int[] rows;
+        private int seen = 0;
+
+        private Reservoir(int n) {
+            this.rows = new int[n];
+        }
+
+        private void offer(int row, Random random) {
+            if (seen < rows.length) {
+                rows[seen] = row;
+            } else {
+                int j = random.nextInt(seen + 1);
+                if (j < rows.length) {
+                    rows[j] = row;
+                }
+            }
+            seen++;
+        }
+    }
+
+    private DefaultDataFrame createSubset(BitSet selectedRows) {
+        int[] rowIndices = new int[selectedRows.cardinality()];
+        int j = 0;
+        for (int i = selectedRows.nextSetBit(0); i >= 0; i = selectedRows.nextSetBit(i + 1)) {
+            rowIndices[j++] = i;
+        }
+        return createSubset(rowIndices);
+    }
+
+
 
     @Override
     public DefaultDataFrame select(String colName, Comparable value) {
@@ -544,6 +919,7 @@ public class DefaultDataFrame implements DataFrame {
 
     @Override
     public DefaultDataFrame filter(FilterPredicate predicate) {
+        validateModification();
         set(selectRows(predicate));
         return this;
     }
@@ -587,9 +963,14 @@ public class DefaultDataFrame implements DataFrame {
 
     @Override
     public DefaultDataFrame reverse() {
+        validateValueModification();
         for (DataFrameColumn col : columnList) {
             col.doReverse();
         }
+        invalidateViews();
+        if (!batch) {
+            indices.reorder();
+        }
         return this;
     }
 
@@ -607,16 +988,34 @@ public class DefaultDataFrame implements DataFrame {
 
     @Override
     public DefaultDataFrame addIndex(String indexName, DataFrameColumn... columns) {
+        validateModification();
         indices.addIndex(indexName, columns);
         return this;
     }
 
     @Override
     public DefaultDataFrame addIndex(Index index) {
+        validateModification();
         indices.addIndex(index);
         return this;
     }
 
+    @Override
+    public Index findIndex(String... columnNames) {
+        if (batch) {
+            return null;
+        }
+        List<DataFrameColumn> columns = new ArrayList<>();
+        for (String columnName : columnNames) {
+            DataFrameColumn column = getColumn(columnName);
+            if (column == null) {
+                return null;
+            }
+            columns.add(column);
+        }
+        return indices.findIndex(columns);
+    }
+
     @Override
     public int size() {
         return size;
@@ -639,6 +1038,17 @@ public class DefaultDataFrame implements DataFrame {
     }
 
 
+    @Override
+    public DefaultDataFrame createSubset(int[] rowIndices) {
+        DefaultDataFrame newFrame = new DefaultDataFrame();
+        for (DataFrameColumn column : columnList) {
+            newFrame.addColumn(column.gather(rowIndices));
+        }
+        indices.copyTo(newFrame);
+        return newFrame;
+    }
+
+
     @Override
     public List<DataRow> getRows(int from, int to) {
         List<DataRow> rows = new ArrayList<>();
@@ -664,24 +1074,37 @@ public class DefaultDataFrame implements DataFrame {
 
     @Override
     public DefaultDataFrame concat(DataFrame other) {
-        if (!header.equals(other.getHeader())) {
-            throw new DataFrameRuntimeException("data frames not compatible");
-        }
-        for (DataRow row : other) {
-            append(row);
-        }
-        return this;
+        return concat(Collections.singletonList(other));
     }
 
 
+    /**
+     * {@inheritDoc}
+     * The columns of the other data frames are appended as blocks and the indices are rebuilt once at the end.
+     */
     @Override
+    @SuppressWarnings("unchecked")
     public DefaultDataFrame concat(Collection<DataFrame> dataFrames) {
+        validateValueModification();
         for (DataFrame dataFrame : dataFrames) {
             if (!header.equals(dataFrame.getHeader())) {
                 throw new DataFrameRuntimeException("data frames not compatible");
             }
-            for (DataRow row : dataFrame) {
-                append(row);
+        }
+        boolean startedBatch = !batch;
+        if (startedBatch) {
+            beginBatch();
+        }
+        try {
+            for (DataFrame dataFrame : dataFrames) {
+                for (DataFrameColumn column : columnList) {
+                    column.doAppendColumn(dataFrame.getColumn(column.getName()));
+                }
+                size += dataFrame.size();
+            }
+        } finally {
+            if (startedBatch) {
+                commitBatch();
             }
         }
         return this;
@@ -811,6 +1234,76 @@ public class DefaultDataFrame implements DataFrame {
         return groupUtil.groupBy(this, column);
     }
 
+    @Override
+    public DataWindow window(Window window) {
+        return new DataWindow(this, window);
+    }
+
+    @Override
+    public DataFrame pivot(String[] indexColumns, String pivotColumn, String valueColumn) {
+        return Pivot.pivot(this, indexColumns, pivotColumn, valueColumn);
+    }
+
+    @Override
+    public <T> DataFrame pivot(String[] indexColumns, String pivotColumn, String valueColumn, AggregateFunction<T> fun) {
+        return Pivot.pivot(this, indexColumns, pivotColumn, valueColumn, fun);
+    }
+
+    @Override
+    public DataFrame melt(String[] idColumns, String... valueColumns) {
+        return Melt.melt(this, idColumns, valueColumns);
+    }
+
+    @Override
+    public DataFrame rollup(Map<String, Accumulator> accumulators, String... columns) {
+        return GroupingSets.rollup(this, accumulators, columns);
+    }
+
+    @Override
+    public DataFrame cube(Map<String, Accumulator> accumulators, String... columns) {
+        return GroupingSets.cube(this, accumulators, columns);
+    }
+
+    @Override
+    public DataFrame groupingSets(Map<String, Accumulator> accumulators, String[]... sets) {
+        return GroupingSets.groupingSets(this, accumulators, sets);
+    }
+
+    @Override
+    public AggregateView materialize(Map<String, Accumulator> accumulators, String... columns) {
+        AggregateView view = new AggregateView(this, accumulators, columns);
+        // frozen data frames never change and may be read by multiple threads, their views are not registered
+        if (!frozen) {
+            aggregateViews.add(view);
+        }
+        return view;
+    }
+
+    @Override
+    public DataFrame topNPerGroup(String[] groupColumns, int n, SortColumn... sortColumns) {
+        return new HashGroupUtil().groupBy(this, groupColumns).topN(n, sortColumns);
+    }
+
+    @Override
+    public DataFrame distinct(String... columns) {
+        return dropDuplicates(Duplicates.Keep.First, columns);
+    }
+
+    @Override
+    public DataFrame dropDuplicates(Duplicates.Keep keep, String... columns) {
+        return createSubset(Duplicates.findDistinctRows(this, keep, columns));
+    }
+
+    @Override
+    public LongColumn hashRows(String... columns) {
+        long[] hashes = RowHash.hashRows(this, columns);
+        Long[] values = new Long[Math.max(hashes.length, BasicColumn.INIT_SIZE)];
+        for (int i = 0; i < hashes.length; i++) {
+            values[i] = hashes[i];
+        }
+        return new LongColumn(null, values, hashes.length);
+    }
+
 
     @Override
     public JoinedDataFrame joinLeft(DataFrame dataFrame, String... joinColumns) {
@@ -883,10 +1376,103 @@ public class DefaultDataFrame implements DataFrame {
         List<DataRow> rows = getRows(0, size);
         DefaultDataFrame copy = new DefaultDataFrame();
         copy.set(header.copy(), rows, indices);
+        copy.sortOrder = sortOrder;
         return copy;
     }
 
 
+    @Override
+    public DefaultDataFrame freeze() {
+        if (frozen) {
+            return this;
+        }
+        return new DefaultDataFrame(this, true);
+    }
+
+    /**
+     * Creates a mutable copy of this data frame that shares the frozen columns of this data frame.
+     * If values are modified by methods of the copy, only the shared columns that are written are replaced by mutable copies.
+     * Columns can be added, removed or replaced without copying the shared columns.
+     * Columns obtained from the copy may still be the shared frozen columns, which can not be modified directly.
+     *
+     * @return mutable copy sharing the frozen columns
+     */
+    protected DefaultDataFrame createWorkingCopy() {
+        return new DefaultDataFrame(this, false);
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    @Override
+    public int getModificationCount() {
+        return modificationCount;
+    }
+
+    private void validateModification() {
+        if (frozen) {
+            throw new DataFrameRuntimeException("data frame is frozen and can not be modified");
+        }
+    }
+
+    /**
+     * Validates that this data frame can be modified and replaces all shared frozen columns by mutable copies.
+     */
+    private void validateValueModification() {
+        validateModification();
+        sortOrder = NO_SORT_ORDER;
+        modificationCount++;
+        for (int i = 0; i < columnList.size(); i++) {
+            copySharedColumn(i);
+        }
+    }
+
+    /**
+     * Replaces a shared frozen column by a mutable copy
+     *
+     * @param index index of the column
+     * @return the mutable column
+     */
+    private DataFrameColumn copySharedColumn(int index) {
+        DataFrameColumn column = columnList.get(index);
+        if (!column.isFrozen()) {
+            return column;
+        }
+        DataFrameColumn copy = column.copy();
+        copy.setName(column.getName());
+        columnList.set(index, copy);
+        columnsMap.put(copy.getName(), copy);
+        try {
+            copy.setDataFrame(this);
+        } catch (DataFrameException e) {
+            throw new DataFrameRuntimeException("error replacing shared column", e);
+        }
+        indices.replace(column, copy);
+        invalidateViews();
+        return copy;
+    }
+
+    /**
+     * Tells all aggregate views to recompute their aggregates, used if rows were reordered or columns replaced
+     */
+    private void invalidateViews() {
+        modificationCount++;
+        if (aggregateViews.isEmpty()) {
+            return;
+        }
+        removeClosedViews();
+        for (AggregateView view : aggregateViews) {
+            view.invalidate();
+        }
+    }
+
+    private void removeClosedViews() {
+        aggregateViews.removeIf(AggregateView::isClosed);
+    }
+
+
     @Override
     public boolean containsColumn(DataFrameColumn column) {
         return this.columnList.contains(column);
@@ -894,14 +1480,24 @@ public class DefaultDataFrame implements DataFrame {
 
 
     protected void notifyColumnValueChanged(DataFrameColumn column, int index, Comparable value) {
-        if (indices.isIndexColumn(column)) {
+        sortOrder = NO_SORT_ORDER;
+        modificationCount++;
+        if (!aggregateViews.isEmpty()) {
+            removeClosedViews();
+            for (AggregateView view : aggregateViews) {
+                view.notifyValueChanged(column, index);
+            }
+        }
+        if (!batch && indices.isIndexColumn(column)) {
             indices.updateValue(column, getRow(index));
         }
     }
 
 
     protected void notifyColumnChanged(DataFrameColumn column) {
-        if (indices.isIndexColumn(column)) {
+        sortOrder = NO_SORT_ORDER;
+        invalidateViews();
+        if (!batch && indices.isIndexColumn(column)) {
             indices.updateColumn(column);
         }
     }
@@ -958,10 +1554,12 @@ public class DefaultDataFrame implements DataFrame {
     }
 
     public void setGroupUtil(GroupUtil groupUtil) {
+        validateModification();
         this.groupUtil = groupUtil;
     }
 
     public void setJoinUtil(JoinUtil joinUtil) {
+        validateModification();
         this.joinUtil = joinUtil;
     }
 
@@ -971,6 +1569,21 @@ public class DefaultDataFrame implements DataFrame {
     }
 
 
+    @Override
+    public Spliterator<DataRow> spliterator() {
+        return new DataRowSpliterator(this);
+    }
+
+    @Override
+    public Stream<DataRow> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    @Override
+    public Stream<DataRow> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
     @Override
     public Iterator<DataRow> iterator() {
         return new Iterator<DataRow>() {
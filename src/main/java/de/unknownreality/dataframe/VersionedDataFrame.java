@@ -0,0 +1,103 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Holder for a data frame that is updated while it is read by other threads.
+ * <p>
+ * Readers obtain the current version with {@link #current()}, which is an immutable {@link DataFrame#freeze() frozen} data frame.
+ * A reader keeps working on the version it obtained, even if a new version is published in the meantime.
+ * </p>
+ * <p>
+ * Writers create a new version with {@link #update(Function)}.
+ * The update function receives a mutable working copy of the current version that shares all columns with it.
+ * Shared columns are only copied if their values are modified by methods of the working copy, e.g.
+ * {@link DataFrame#update(DataRow)} copies only the written columns and {@link DataFrame#append(Comparable[])} copies all columns.
+ * Adding, removing or replacing columns does not copy the unchanged columns.
+ * Columns obtained from the working copy are the shared frozen columns and can not be modified directly,
+ * replace them by modified copies instead.
+ * The resulting data frame is frozen and published atomically. Writers never block readers,
+ * concurrent updates are applied one after another.
+ * </p>
+ */
+public class VersionedDataFrame {
+    private final AtomicReference<DataFrame> current = new AtomicReference<>();
+    private final Object updateLock = new Object();
+    private long version = 0;
+
+    /**
+     * Creates a versioned data frame.
+     * The initial version is a frozen snapshot of the specified data frame.
+     *
+     * @param dataFrame initial data frame
+     */
+    public VersionedDataFrame(DataFrame dataFrame) {
+        this.current.set(dataFrame.freeze());
+    }
+
+    /**
+     * Returns the current version
+     *
+     * @return immutable current data frame
+     */
+    public DataFrame current() {
+        return current.get();
+    }
+
+    /**
+     * Returns the number of updates published so far
+     *
+     * @return number of published updates
+     */
+    public long getVersion() {
+        synchronized (updateLock) {
+            return version;
+        }
+    }
+
+    /**
+     * Builds and publishes a new version.
+     * The update function receives a mutable working copy of the current version
+     * and returns the data frame that becomes the next version.
+     * If the update function throws an exception, the current version is not changed.
+     *
+     * @param update function creating the next version
+     * @return the published version
+     */
+    public DataFrame update(Function<DataFrame, DataFrame> update) {
+        synchronized (updateLock) {
+            DataFrame currentVersion = current.get();
+            DataFrame workingCopy = currentVersion instanceof DefaultDataFrame ?
+                    ((DefaultDataFrame) currentVersion).createWorkingCopy() : currentVersion.copy();
+            DataFrame next = update.apply(workingCopy).freeze();
+            current.set(next);
+            version++;
+            return next;
+        }
+    }
+}
@@ -29,6 +29,7 @@ import de.unknownreality.dataframe.DataFrameColumn;
 import de.unknownreality.dataframe.DataFrameRuntimeException;
 import de.unknownreality.dataframe.MapFunction;
 import de.unknownreality.dataframe.Values;
+import de.unknownreality.dataframe.hash.RowHash;
 
 import java.lang.reflect.Array;
 import java.util.*;
@@ -67,6 +68,7 @@ public abstract class BasicColumn<T extends Comparable<T>, C extends BasicColumn
 
     @Override
     public C setCapacity(int capacity) {
+        validateModification();
         if(capacity < size){
             throw new DataFrameRuntimeException("capacity can not be lower than current size");
         }
@@ -117,6 +119,63 @@ public abstract class BasicColumn<T extends Comparable<T>, C extends BasicColumn
     }
 
 
+    @SuppressWarnings("unchecked")
+    @Override
+    protected void doReorder(int[] order) {
+        T[] reordered = (T[]) Array.newInstance(getType(), values.length);
+        for (int i = 0; i < size; i++) {
+            reordered[i] = values[order[i]];
+        }
+        values = reordered;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public C gather(int[] indices) {
+        T[] gathered = (T[]) Array.newInstance(getType(), Math.max(indices.length, INIT_SIZE));
+        for (int i = 0; i < indices.length; i++) {
+            gathered[i] = indices[i] < 0 ? null : values[indices[i]];
+        }
+        BasicColumn<T, C> column = copyEmpty();
+        column.values = gathered;
+        column.size = indices.length;
+        return column.getThis();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected C doConcat(DataFrameColumn<T, ?>[] columns) {
+        int total = size;
+        for (DataFrameColumn<T, ?> other : columns) {
+            total += other.size();
+        }
+        T[] concatenated = (T[]) Array.newInstance(getType(), Math.max(total, INIT_SIZE));
+        System.arraycopy(values, 0, concatenated, 0, size);
+        int offset = size;
+        for (DataFrameColumn<T, ?> other : columns) {
+            if (other instanceof BasicColumn) {
+                System.arraycopy(((BasicColumn<T, ?>) other).values, 0, concatenated, offset, other.size());
+            } else {
+                for (int i = 0; i < other.size(); i++) {
+                    concatenated[offset + i] = other.isNA(i) ? null : other.get(i);
+                }
+            }
+            offset += other.size();
+        }
+        BasicColumn<T, C> column = copyEmpty();
+        column.values = concatenated;
+        column.size = total;
+        return column.getThis();
+    }
+
+    @Override
+    public void hashInto(long[] acc, int from, int to) {
+        for (int i = from; i < to; i++) {
+            T value = values[i];
+            acc[i - from] = RowHash.combine(acc[i - from], value == null ? RowHash.NA_HASH : hashValue(value));
+        }
+    }
+
     @Override
     public T get(int index) {
         return values[index];
@@ -207,6 +266,20 @@ public abstract class BasicColumn<T extends Comparable<T>, C extends BasicColumn
         return true;
     }
 
+    @Override
+    protected void doAppendColumn(DataFrameColumn<T, ?> column) {
+        if (!(column instanceof BasicColumn)) {
+            super.doAppendColumn(column);
+            return;
+        }
+        int newSize = size + column.size();
+        if (newSize >= values.length - 1) {
+            values = Arrays.copyOf(values, Math.max(newSize + 1, (int) ((double) values.length * GROW_FACTOR)));
+        }
+        System.arraycopy(((BasicColumn<T, ?>) column).values, 0, values, size, column.size());
+        size = newSize;
+    }
+
     @Override
     protected boolean doAppendNA() {
         return doAppend(null);
@@ -242,6 +315,7 @@ public abstract class BasicColumn<T extends Comparable<T>, C extends BasicColumn
     @SuppressWarnings("unchecked")
     @Override
     public void clear() {
+        validateModification();
         values = (T[]) Array.newInstance(getType(), INIT_SIZE);
         size = 0;
     }
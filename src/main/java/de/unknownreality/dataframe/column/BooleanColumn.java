@@ -90,7 +90,7 @@ public class BooleanColumn extends BasicColumn<Boolean, BooleanColumn> {
 
     @Override
     protected BooleanColumn getThis() {
-        return null;
+        return this;
     }
 
     @Override
@@ -56,6 +56,11 @@ public class DoubleColumn extends NumberColumn<Double, DoubleColumn> {
         return Double.class;
     }
 
+    @Override
+    protected long hashValue(Double value) {
+        return Double.doubleToLongBits(value.doubleValue());
+    }
+
 
     @Override
     public Parser<Double> getParser() {
@@ -54,7 +54,7 @@ public class FloatColumn extends NumberColumn<Float, FloatColumn> {
 
     @Override
     protected FloatColumn getThis() {
-        return null;
+        return this;
     }
 
 
@@ -63,6 +63,11 @@ public class FloatColumn extends NumberColumn<Float, FloatColumn> {
         return Float.class;
     }
 
+    @Override
+    protected long hashValue(Float value) {
+        return Double.doubleToLongBits(value.doubleValue());
+    }
+
 
 
     @Override
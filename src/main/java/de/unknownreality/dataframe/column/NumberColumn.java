@@ -31,6 +31,9 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 /**
  * Created by Alex on 11.03.2016.
@@ -60,6 +63,45 @@ public abstract class NumberColumn<T extends Number & Comparable<T>, C extends N
         return super.values[index];
     }
 
+    /**
+     * Returns a stream of the double values of this column.
+     * {@link de.unknownreality.dataframe.Values#NA NA} values are skipped.
+     *
+     * @return stream of double values
+     */
+    public DoubleStream doubleStream() {
+        return validIndices().mapToDouble(i -> values[i].doubleValue());
+    }
+
+    /**
+     * Returns a stream of the long values of this column.
+     * {@link de.unknownreality.dataframe.Values#NA NA} values are skipped.
+     *
+     * @return stream of long values
+     */
+    public LongStream longStream() {
+        return validIndices().mapToLong(i -> values[i].longValue());
+    }
+
+    /**
+     * Returns a stream of the int values of this column.
+     * {@link de.unknownreality.dataframe.Values#NA NA} values are skipped.
+     *
+     * @return stream of int values
+     */
+    public IntStream intStream() {
+        return validIndices().map(i -> values[i].intValue());
+    }
+
+    private IntStream validIndices() {
+        return IntStream.range(0, size()).filter(i -> values[i] != null);
+    }
+
+    @Override
+    protected long hashValue(T value) {
+        return value.longValue();
+    }
+
 
     /**
      * Returns the median of all values in this column
@@ -199,6 +241,7 @@ public abstract class NumberColumn<T extends Number & Comparable<T>, C extends N
      * @return <tt>self</tt> for method chaining
      */
     public C add(NumberColumn column) {
+        validateModification();
         int naCount = 0;
         int size = size();
         for (int i = 0; i < size; i++) {
@@ -245,6 +288,7 @@ public abstract class NumberColumn<T extends Number & Comparable<T>, C extends N
      * @return <tt>self</tt> for method chaining
      */
     public C subtract(NumberColumn column) {
+        validateModification();
         if (column.size() != size()) {
             throw new IllegalArgumentException("'subtract' requires column of same size");
         }
@@ -273,6 +317,7 @@ public abstract class NumberColumn<T extends Number & Comparable<T>, C extends N
      * @return <tt>self</tt> for method chaining
      */
     public C multiply(NumberColumn column) {
+        validateModification();
         if (column.size() != size()) {
             throw new IllegalArgumentException("'multiply' requires column of same size");
         }
@@ -301,6 +346,7 @@ public abstract class NumberColumn<T extends Number & Comparable<T>, C extends N
      * @return <tt>self</tt> for method chaining
      */
     public C divide(NumberColumn column) {
+        validateModification();
         if (column.size() != size()) {
             throw new IllegalArgumentException("'divide' requires column of same size");
         }
@@ -330,6 +376,7 @@ public abstract class NumberColumn<T extends Number & Comparable<T>, C extends N
      * @return <tt>self</tt> for method chaining
      */
     public C add(Number value) {
+        validateModification();
         int naCount = 0;
         int size = size();
         for (int i = 0; i < size; i++) {
@@ -355,6 +402,7 @@ public abstract class NumberColumn<T extends Number & Comparable<T>, C extends N
      * @return <tt>self</tt> for method chaining
      */
     public C subtract(Number value) {
+        validateModification();
         int naCount = 0;
         int size = size();
         for (int i = 0; i < size; i++) {
@@ -381,6 +429,7 @@ public abstract class NumberColumn<T extends Number & Comparable<T>, C extends N
      * @return <tt>self</tt> for method chaining
      */
     public C multiply(Number value) {
+        validateModification();
         int naCount = 0;
         int size = size();
         for (int i = 0; i < size; i++) {
@@ -406,6 +455,7 @@ public abstract class NumberColumn<T extends Number & Comparable<T>, C extends N
      * @return <tt>self</tt> for method chaining
      */
     public C divide(Number value) {
+        validateModification();
         int naCount = 0;
         int size = size();
         for (int i = 0; i < size; i++) {
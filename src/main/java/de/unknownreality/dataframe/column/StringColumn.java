@@ -28,6 +28,7 @@ package de.unknownreality.dataframe.column;
 import de.unknownreality.dataframe.common.Row;
 import de.unknownreality.dataframe.common.parser.Parser;
 import de.unknownreality.dataframe.common.parser.ParserUtil;
+import de.unknownreality.dataframe.hash.RowHash;
 
 /**
  * Created by Alex on 09.03.2016.
@@ -69,6 +70,11 @@ public class StringColumn extends BasicColumn<String, StringColumn> {
         return String.class;
     }
 
+    @Override
+    protected long hashValue(String value) {
+        return RowHash.hashString(value);
+    }
+
     @Override
     public StringColumn copy() {
         String[] copyValues = new String[values.length];
@@ -38,12 +38,36 @@ public abstract class BasicTypeHeader<T> implements Header<T> {
     private final List<T> headers = new ArrayList<>();
     private final Map<T, Class<? extends Comparable>> typesMap = new HashMap<>();
     private final Map<T, Class<? extends DataFrameColumn>> colTypeMap = new HashMap<>();
+    private boolean frozen = false;
 
     @Override
     public int size() {
         return headers.size();
     }
 
+    /**
+     * Makes this header immutable.
+     * All further modifications throw a {@link DataFrameRuntimeException}.
+     */
+    public void freeze() {
+        this.frozen = true;
+    }
+
+    /**
+     * Returns <tt>true</tt> if this header is immutable
+     *
+     * @return <tt>true</tt> if this header is frozen
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    private void validateModification() {
+        if (frozen) {
+            throw new DataFrameRuntimeException("header is frozen and can not be modified");
+        }
+    }
+
     /**
      * Adds a new data frame column to this header
      *
@@ -65,6 +89,7 @@ public abstract class BasicTypeHeader<T> implements Header<T> {
      * @return <tt>self</tt> for method chaining
      */
     public BasicTypeHeader add(T name, Class<? extends DataFrameColumn> colClass, Class<? extends Comparable> type) {
+        validateModification();
         int index = headers.size();
         headers.add(name);
         headerMap.put(name, index);
@@ -82,6 +107,7 @@ public abstract class BasicTypeHeader<T> implements Header<T> {
      * @return <tt>self</tt> for method chaining
      */
     public BasicTypeHeader set(T name, Class<? extends DataFrameColumn> colClass, Class<? extends Comparable> type) {
+        validateModification();
         Integer index = headerMap.get(name);
         if (index == null) {
             add(name, colClass, type);
@@ -101,6 +127,7 @@ public abstract class BasicTypeHeader<T> implements Header<T> {
      * @return <tt>self</tt> for method chaining
      */
     public BasicTypeHeader replace(T existing, T replacement, Class<? extends DataFrameColumn> colClass, Class<? extends Comparable> type) {
+        validateModification();
         Integer index = headerMap.get(existing);
         if (index == null) {
             throw new DataFrameRuntimeException(String.format("header not found: %s",existing));
@@ -122,6 +149,7 @@ public abstract class BasicTypeHeader<T> implements Header<T> {
      * @param name column name
      */
     public void remove(T name) {
+        validateModification();
         boolean fix = false;
         for (T s : headers) {
             if (!fix && s.equals(name)) {
@@ -145,6 +173,7 @@ public abstract class BasicTypeHeader<T> implements Header<T> {
      * @param newName new name
      */
     public void rename(T oldName, T newName) {
+        validateModification();
         for (int i = 0; i < headers.size(); i++) {
             if (headers.get(i).equals(oldName)) {
                 headers.set(i, newName);
@@ -268,6 +297,7 @@ public abstract class BasicTypeHeader<T> implements Header<T> {
      * Clears this header
      */
     public void clear() {
+        validateModification();
         headerMap.clear();
         headers.clear();
         typesMap.clear();
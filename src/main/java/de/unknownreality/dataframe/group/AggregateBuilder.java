@@ -0,0 +1,147 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.group;
+
+import de.unknownreality.dataframe.filter.FilterPredicate;
+import de.unknownreality.dataframe.group.aggr.Accumulator;
+import de.unknownreality.dataframe.group.aggr.Accumulators;
+import de.unknownreality.dataframe.group.aggr.AggregateFunction;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects aggregates that are computed together in a single pass over the groups of a {@link DataGrouping}.
+ * <p>
+ * Aggregates added without a name are named after their column and function, e.g. <tt>a_sum</tt> or <tt>c_p95</tt>.
+ * The aggregate columns are added to the grouping when {@link #apply()} is called.
+ * </p>
+ * <p><code>grouping.agg().count().sum("a").mean("b").p95("c").apply()</code></p>
+ */
+public class AggregateBuilder {
+    private final DataGrouping grouping;
+    private final List<String> names = new ArrayList<>();
+    private final List<Accumulator> accumulators = new ArrayList<>();
+    private final List<AggregateFunction> functions = new ArrayList<>();
+
+    AggregateBuilder(DataGrouping grouping) {
+        this.grouping = grouping;
+    }
+
+    public AggregateBuilder add(String name, Accumulator accumulator) {
+        names.add(name);
+        accumulators.add(accumulator);
+        functions.add(null);
+        return this;
+    }
+
+    public <T extends Comparable<T>> AggregateBuilder add(String name, AggregateFunction<T> fun) {
+        names.add(name);
+        accumulators.add(null);
+        functions.add(fun);
+        return this;
+    }
+
+    public AggregateBuilder count() {
+        return add("count", Accumulators.count());
+    }
+
+    public AggregateBuilder naCount(String colName) {
+        return add(colName + "_na_count", Accumulators.naCount(colName));
+    }
+
+    public AggregateBuilder filterCount(String name, FilterPredicate filterPredicate) {
+        return add(name, Accumulators.filterCount(filterPredicate));
+    }
+
+    public AggregateBuilder filterCount(String name, String predicateString) {
+        return add(name, Accumulators.filterCount(predicateString));
+    }
+
+    public AggregateBuilder sum(String colName) {
+        return add(colName + "_sum", Accumulators.sum(colName));
+    }
+
+    public AggregateBuilder mean(String colName) {
+        return add(colName + "_mean", Accumulators.mean(colName));
+    }
+
+    public AggregateBuilder variance(String colName) {
+        return add(colName + "_variance", Accumulators.variance(colName));
+    }
+
+    public AggregateBuilder min(String colName) {
+        return add(colName + "_min", Accumulators.min(colName));
+    }
+
+    public AggregateBuilder max(String colName) {
+        return add(colName + "_max", Accumulators.max(colName));
+    }
+
+    public AggregateBuilder first(String colName) {
+        return add(colName + "_first", Accumulators.first(colName));
+    }
+
+    public AggregateBuilder last(String colName) {
+        return add(colName + "_last", Accumulators.last(colName));
+    }
+
+    public AggregateBuilder median(String colName) {
+        return add(colName + "_median", Accumulators.median(colName));
+    }
+
+    /**
+     * Adds a quantile named after the column and the percentage, e.g. <tt>c_p95</tt> for the <tt>0.95</tt> quantile
+     *
+     * @param colName  number column
+     * @param quantile quantile between <tt>0</tt> and <tt>1</tt>
+     * @return <tt>self</tt> for method chaining
+     */
+    public AggregateBuilder quantile(String colName, double quantile) {
+        String percent = BigDecimal.valueOf(quantile).movePointRight(2).stripTrailingZeros().toPlainString();
+        return add(colName + "_p" + percent, Accumulators.quantile(colName, quantile));
+    }
+
+    public AggregateBuilder p95(String colName) {
+        return quantile(colName, 0.95);
+    }
+
+    public AggregateBuilder p99(String colName) {
+        return quantile(colName, 0.99);
+    }
+
+    /**
+     * Computes all aggregates and adds them as columns to the grouping
+     *
+     * @return the grouping
+     */
+    public DataGrouping apply() {
+        grouping.addAggregates(names.toArray(new String[0]),
+                accumulators.toArray(new Accumulator[0]),
+                functions.toArray(new AggregateFunction[0]));
+        return grouping;
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.group;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.DataFrameRuntimeException;
+import de.unknownreality.dataframe.DefaultDataFrame;
+import de.unknownreality.dataframe.group.aggr.Accumulator;
+import de.unknownreality.dataframe.hash.RowHash;
+import de.unknownreality.dataframe.hash.RowHashTable;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+
+/**
+ * Grouped aggregates of a data frame that are kept up to date while the data frame changes.
+ * <p>
+ * The view is created using {@link DataFrame#materialize(Map, String...)} and keeps one accumulator state per group.
+ * Appended rows are added to the states of their groups when the result is requested,
+ * so refreshing the aggregates only costs time proportional to the number of new rows.
+ * If values of already aggregated rows are changed, only the states of the affected groups are recomputed.
+ * Sorting, filtering, shuffling or replacing columns of the data frame causes a complete recomputation.
+ * </p>
+ * <p>
+ * Like the data frame, a view is not thread-safe.
+ * A view that is no longer needed should be {@link #close() closed}, so the data frame stops notifying it.
+ * </p>
+ * <p><code>
+ * AggregateView view = df.materialize(accumulators, "status");<br>
+ * df.append(...);<br>
+ * DataFrame totals = view.getResult();
+ * </code></p>
+ */
+public class AggregateView {
+    private static final int EXPECTED_GROUPS = 1024;
+    private final DataFrame source;
+    private final String[] groupColumns;
+    private final String[] names;
+    private final Accumulator[] templates;
+
+    private DataFrameColumn[] keyColumns;
+    private RowHashTable table;
+    private Accumulator[] accumulators;
+    private int[] rowGroups = new int[0];
+    private int[] groupSizes = new int[0];
+    private final BitSet dirtyGroups = new BitSet();
+    private int processedRows = 0;
+    private boolean stale = true;
+    private boolean closed = false;
+
+    /**
+     * Creates a view of grouped aggregates.
+     * Views are usually created using {@link DataFrame#materialize(Map, String...)},
+     * which registers the view at the data frame.
+     *
+     * @param source       aggregated data frame
+     * @param accumulators accumulators by aggregate column name
+     * @param groupColumns grouping columns
+     */
+    public AggregateView(DataFrame source, Map<String, Accumulator> accumulators, String... groupColumns) {
+        if (groupColumns.length == 0) {
+            throw new DataFrameRuntimeException("at least one grouping column is required");
+        }
+        this.source = source;
+        this.groupColumns = groupColumns;
+        this.names = accumulators.keySet().toArray(new String[0]);
+        this.templates = accumulators.values().toArray(new Accumulator[0]);
+        // fails early if a grouping column does not exist
+        RowHash.getKeyColumns(source, groupColumns);
+    }
+
+    /**
+     * Returns a data frame containing the grouping columns and the aggregate columns for the current state of the source.
+     * Groups are ordered by their first appearance, groups without rows are omitted.
+     *
+     * @return aggregated data frame
+     */
+    public DataFrame getResult() {
+        refresh();
+        int groupCount = table.size();
+        int[] groups = new int[groupCount];
+        int[] keyRows = new int[groupCount];
+        int count = 0;
+        for (int group = 0; group < groupCount; group++) {
+            if (groupSizes[group] > 0) {
+                groups[count] = group;
+                keyRows[count++] = table.getKeyRow(group);
+            }
+        }
+        groups = Arrays.copyOf(groups, count);
+        keyRows = Arrays.copyOf(keyRows, count);
+        DataFrame result = new DefaultDataFrame();
+        for (DataFrameColumn column : keyColumns) {
+            result.addColumn(column.gather(keyRows));
+        }
+        for (int a = 0; a < accumulators.length; a++) {
+            DataFrameColumn<?, ?> column = accumulators[a].finish(names[a]);
+            result.addColumn(count == groupCount ? column : column.gather(groups));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of rows of the source that are currently aggregated
+     *
+     * @return number of aggregated rows
+     */
+    public int getProcessedRows() {
+        return processedRows;
+    }
+
+    /**
+     * Returns the data frame this view aggregates
+     *
+     * @return source data frame
+     */
+    public DataFrame getSource() {
+        return source;
+    }
+
+    /**
+     * Stops updating this view. The data frame removes closed views on its next change.
+     */
+    public void close() {
+        closed = true;
+        table = null;
+        accumulators = null;
+        rowGroups = null;
+    }
+
+    /**
+     * Returns <tt>true</tt> if this view is closed
+     *
+     * @return <tt>true</tt> if this view is closed
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Called by the source data frame if a value of a row has changed.
+     * Rows that are not yet aggregated are ignored, they are added on the next refresh.
+     *
+     * @param column changed column
+     * @param row    row index
+     */
+    public void notifyValueChanged(DataFrameColumn column, int row) {
+        if (closed || stale || row >= processedRows) {
+            return;
+        }
+        int group = rowGroups[row];
+        if (!isKeyColumn(column)) {
+            dirtyGroups.set(group);
+            return;
+        }
+        if (table.getKeyRow(group) == row) {
+            // the hash table compares against the values of this row, the table has to be rebuilt
+            invalidate();
+            return;
+        }
+        int newGroup = table.put(row, RowHash.hashRows(keyColumns, row, row + 1)[0]);
+        if (newGroup == group) {
+            return;
+        }
+        groupSizes = ensureCapacity(groupSizes, newGroup + 1);
+        for (Accumulator accumulator : accumulators) {
+            accumulator.grow(table.size());
+        }
+        rowGroups[row] = newGroup;
+        groupSizes[group]--;
+        groupSizes[newGroup]++;
+        dirtyGroups.set(group);
+        dirtyGroups.set(newGroup);
+    }
+
+    /**
+     * Called by the source data frame if it changed in a way that requires a complete recomputation
+     */
+    public void invalidate() {
+        stale = true;
+    }
+
+    private boolean isKeyColumn(DataFrameColumn column) {
+        for (DataFrameColumn keyColumn : keyColumns) {
+            if (keyColumn == column) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void refresh() {
+        if (closed) {
+            throw new DataFrameRuntimeException("aggregate view is closed");
+        }
+        if (stale) {
+            rebuild();
+        }
+        if (!dirtyGroups.isEmpty()) {
+            recomputeDirtyGroups();
+        }
+        int size = source.size();
+        if (size < processedRows) {
+            rebuild();
+        }
+        if (processedRows == size) {
+            return;
+        }
+        long[] hashes = RowHash.hashRows(keyColumns, processedRows, size);
+        rowGroups = ensureCapacity(rowGroups, size);
+        for (int row = processedRows; row < size; row++) {
+            int group = table.put(row, hashes[row - processedRows]);
+            groupSizes = ensureCapacity(groupSizes, group + 1);
+            rowGroups[row] = group;
+            groupSizes[group]++;
+            for (Accumulator accumulator : accumulators) {
+                accumulator.grow(table.size());
+                accumulator.accumulate(group, row);
+            }
+        }
+        processedRows = size;
+    }
+
+    private void rebuild() {
+        keyColumns = RowHash.getKeyColumns(source, groupColumns);
+        table = new RowHashTable(keyColumns, Math.min(Math.max(source.size(), 1), EXPECTED_GROUPS));
+        accumulators = new Accumulator[templates.length];
+        for (int a = 0; a < templates.length; a++) {
+            accumulators[a] = templates[a].copy();
+            accumulators[a].init(source, 0);
+        }
+        rowGroups = new int[0];
+        groupSizes = new int[0];
+        dirtyGroups.clear();
+        processedRows = 0;
+        stale = false;
+    }
+
+    /**
+     * Resets the states of all changed groups and accumulates their rows again in a single scan over the group ids
+     */
+    private void recomputeDirtyGroups() {
+        for (int group = dirtyGroups.nextSetBit(0); group >= 0; group = dirtyGroups.nextSetBit(group + 1)) {
+            for (Accumulator accumulator : accumulators) {
+                accumulator.reset(group);
+            }
+        }
+        for (int row = 0; row < processedRows; row++) {
+            int group = rowGroups[row];
+            if (dirtyGroups.get(group)) {
+                for (Accumulator accumulator : accumulators) {
+                    accumulator.accumulate(group, row);
+                }
+            }
+        }
+        dirtyGroups.clear();
+    }
+
+    private static int[] ensureCapacity(int[] array, int size) {
+        if (array.length >= size) {
+            return array;
+        }
+        return Arrays.copyOf(array, Math.max(size, Math.max(16, array.length * 2)));
+    }
+}
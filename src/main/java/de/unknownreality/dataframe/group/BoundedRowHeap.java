@@ -0,0 +1,126 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.group;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.sort.RowIndexComparator;
+import de.unknownreality.dataframe.sort.SortColumn;
+
+/**
+ * Keeps the first <tt>n</tt> rows of a data frame according to a sort order, without sorting all rows.
+ * <p>
+ * The kept rows are stored in a binary heap with the last of them at the top,
+ * so each offered row costs at most <tt>O(log n)</tt> comparisons.
+ * {@link de.unknownreality.dataframe.Values#NA NA} values are sorted last, equal rows are ordered by their index.
+ * </p>
+ */
+final class BoundedRowHeap {
+    private final RowIndexComparator comparator;
+    private final int[] heap;
+    private int size = 0;
+
+    /**
+     * Creates an empty heap
+     *
+     * @param dataFrame   data frame containing the rows
+     * @param sortColumns sort order
+     * @param capacity    maximal number of kept rows
+     */
+    BoundedRowHeap(DataFrame dataFrame, SortColumn[] sortColumns, int capacity) {
+        this.comparator = new RowIndexComparator(dataFrame, sortColumns);
+        this.heap = new int[capacity];
+    }
+
+    /**
+     * Adds a row if it is among the first <tt>n</tt> rows offered so far
+     *
+     * @param row row index
+     */
+    void offer(int row) {
+        if (size < heap.length) {
+            heap[size] = row;
+            siftUp(size++);
+        } else if (size > 0 && compare(row, heap[0]) < 0) {
+            heap[0] = row;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Writes the kept rows in sort order to an array and empties the heap
+     *
+     * @param target target array
+     * @param offset position of the first row in the target array
+     * @return number of written rows
+     */
+    int drain(int[] target, int offset) {
+        int count = size;
+        for (int i = count - 1; i >= 0; i--) {
+            target[offset + i] = heap[0];
+            heap[0] = heap[--size];
+            siftDown(0);
+        }
+        return count;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (compare(heap[index], heap[parent]) <= 0) {
+                return;
+            }
+            swap(index, parent);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index) {
+        while (true) {
+            int last = 2 * index + 1;
+            if (last >= size) {
+                return;
+            }
+            if (last + 1 < size && compare(heap[last + 1], heap[last]) > 0) {
+                last++;
+            }
+            if (compare(heap[last], heap[index]) <= 0) {
+                return;
+            }
+            swap(index, last);
+            index = last;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+    }
+
+    private int compare(int rowA, int rowB) {
+        int c = comparator.compare(rowA, rowB);
+        return c != 0 ? c : Integer.compare(rowA, rowB);
+    }
+}
@@ -25,9 +25,12 @@
 package de.unknownreality.dataframe.group;
 
 import de.unknownreality.dataframe.*;
+import de.unknownreality.dataframe.group.aggr.Accumulator;
 import de.unknownreality.dataframe.group.aggr.AggregateFunction;
+import de.unknownreality.dataframe.sort.SortColumn;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -36,6 +39,10 @@ import java.util.List;
 public class DataGrouping extends DefaultDataFrame {
     public final static String GROUP_INDEX = "%group_index%";
     private DataGroup[] groups;
+    private DataFrame source;
+    private int[] groupStarts;
+    private int[] groupRows;
+    private String[] groupColumnNames;
 
     /**
      * Creates a data grouping based on a collections of {@link DataGroup data groups} and the corresponding group columns
@@ -56,21 +63,140 @@ public class DataGrouping extends DefaultDataFrame {
         }
     }
 
+    /**
+     * Creates a data grouping based on the row indices of each group in a source data frame.
+     * The rows of group <tt>i</tt> are <tt>groupRows[groupStarts[i]]</tt> to <tt>groupRows[groupStarts[i + 1] - 1]</tt>.
+     * <p>
+     * The {@link DataGroup data groups} are only created from the source data frame when they are accessed.
+     * Changes to the source data frame after grouping are therefore visible in groups that have not been accessed yet.
+     * </p>
+     *
+     * @param source      grouped data frame
+     * @param groupStarts start of each group in <tt>groupRows</tt>, followed by the total number of rows
+     * @param groupRows   row indices of all groups
+     * @param keyRows     first row of each group
+     * @param keyColumns  group columns of the source data frame
+     */
+    public DataGrouping(DataFrame source, int[] groupStarts, int[] groupRows, int[] keyRows, DataFrameColumn... keyColumns) {
+        this.source = source;
+        this.groupStarts = groupStarts;
+        this.groupRows = groupRows;
+        this.groups = new DataGroup[keyRows.length];
+        this.groupColumnNames = new String[keyColumns.length];
+        DataFrameColumn[] groupColumns = new DataFrameColumn[keyColumns.length];
+        for (int i = 0; i < keyColumns.length; i++) {
+            groupColumnNames[i] = keyColumns[i].getName();
+            groupColumns[i] = keyColumns[i].gather(keyRows);
+            addColumn(groupColumns[i]);
+        }
+        this.addIndex(GROUP_INDEX, groupColumns);
+    }
+
     @SuppressWarnings("unchecked")
     public <T extends Comparable<T>> DataGrouping aggregate(String columnName, AggregateFunction<T> fun) {
         return agg(columnName,fun);
     }
 
-    @SuppressWarnings("unchecked")
+    public DataGrouping aggregate(String columnName, Accumulator accumulator) {
+        return agg(columnName, accumulator);
+    }
+
+    /**
+     * Adds a column containing an aggregate of each group.
+     * For groupings based on row indices, the aggregate is computed in one pass over the rows of the grouped data frame
+     * without creating {@link DataGroup data groups}.
+     *
+     * @param columnName  name of the aggregate column
+     * @param accumulator accumulator computing the aggregate
+     * @return <tt>self</tt> for method chaining
+     */
+    public DataGrouping agg(String columnName, Accumulator accumulator) {
+        addAggregates(new String[]{columnName}, new Accumulator[]{accumulator}, new AggregateFunction[1]);
+        return this;
+    }
+
     public <T extends Comparable<T>> DataGrouping agg(String columnName, AggregateFunction<T> fun) {
-        List<T> values = new ArrayList<>();
-        for(int i = 0; i < size(); i++){
-            T v = fun.aggregate(getRow(i).getGroup());
-            values.add(v);
+        addAggregates(new String[]{columnName}, new Accumulator[1], new AggregateFunction[]{fun});
+        return this;
+    }
+
+    /**
+     * Returns a builder that computes multiple aggregates in a single pass over the groups
+     * <p><code>grouping.agg().count().sum("a").mean("b").p95("c").apply()</code></p>
+     *
+     * @return aggregate builder
+     */
+    public AggregateBuilder agg() {
+        return new AggregateBuilder(this);
+    }
+
+    /**
+     * Computes aggregates in a single pass over the groups and adds them as columns.
+     * For each aggregate either an accumulator or an aggregate function is specified.
+     *
+     * @param names        names of the aggregate columns
+     * @param accumulators accumulators, <tt>null</tt> for aggregates computed by a function
+     * @param functions    aggregate functions, <tt>null</tt> for aggregates computed by an accumulator
+     */
+    void addAggregates(String[] names, Accumulator[] accumulators, AggregateFunction[] functions) {
+        int groupCount = groups.length;
+        Accumulator[] accs = new Accumulator[names.length];
+        Comparable[][] values = new Comparable[names.length][];
+        for (int k = 0; k < names.length; k++) {
+            if (accumulators[k] == null) {
+                values[k] = new Comparable[groupCount];
+                continue;
+            }
+            if (source == null && groupCount == 0) {
+                values[k] = new Comparable[0];
+                continue;
+            }
+            accs[k] = accumulators[k].copy();
+            accs[k].init(source != null ? source : groups[0], groupCount);
         }
+        for (int i = 0; i < groupCount; i++) {
+            if (source != null) {
+                for (int j = groupStarts[i]; j < groupStarts[i + 1]; j++) {
+                    int row = groupRows[j];
+                    for (Accumulator acc : accs) {
+                        if (acc != null) {
+                            acc.accumulate(i, row);
+                        }
+                    }
+                }
+            } else {
+                for (int k = 0; k < names.length; k++) {
+                    if (accs[k] == null) {
+                        continue;
+                    }
+                    Accumulator groupAcc = accumulators[k].copy();
+                    groupAcc.init(groups[i], 1);
+                    for (int j = 0; j < groups[i].size(); j++) {
+                        groupAcc.accumulate(0, j);
+                    }
+                    accs[k].merge(i, groupAcc, 0);
+                }
+            }
+            for (int k = 0; k < names.length; k++) {
+                if (functions[k] != null) {
+                    values[k][i] = (Comparable) functions[k].aggregate(getGroup(i));
+                }
+            }
+        }
+        for (int k = 0; k < names.length; k++) {
+            if (accs[k] != null) {
+                addColumn(accs[k].finish(names[k]));
+            } else {
+                addColumn(createColumn(names[k], values[k]));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DataFrameColumn createColumn(String columnName, Comparable[] values) {
         Class<? extends Comparable> vType = null;
-        for(T v : values){
-            if(v != null){
+        for (Comparable v : values) {
+            if (v != null) {
                 vType = v.getClass();
                 break;
             }
@@ -80,28 +206,127 @@ public class DataGrouping extends DefaultDataFrame {
         if(colType == null){
             throw new DataFrameRuntimeException(String.format("no column type found for value type '%s'", vType.getCanonicalName()));
         }
-        DataFrameColumn<T,?> aggCol;
+        DataFrameColumn aggCol;
         try {
-            aggCol = (DataFrameColumn<T,?>)colType.newInstance();
+            aggCol = (DataFrameColumn)colType.newInstance();
         } catch (InstantiationException | IllegalAccessException | ClassCastException e) {
             throw new DataFrameRuntimeException(String.format("error creating instance of column [%s], empty constructor required", colType.getCanonicalName()), e);
         }
         aggCol.setName(columnName);
-        for(T v : values){
+        for (Comparable v : values) {
             if(v == null){
                 aggCol.appendNA();
                 continue;
             }
             aggCol.append(v);
         }
-        addColumn(aggCol);
-        return this;
+        return aggCol;
     }
 
     public DataGroup getGroup(int index) {
+        if (groups[index] == null && source != null) {
+            groups[index] = createGroup(index);
+        }
         return groups[index];
     }
 
+    /**
+     * Returns the number of groups
+     *
+     * @return number of groups
+     */
+    public int getGroupCount() {
+        return groups.length;
+    }
+
+    /**
+     * Returns the grouped data frame.
+     * Only available if this grouping was created based on row indices.
+     *
+     * @return grouped data frame or <tt>null</tt>
+     */
+    public DataFrame getSource() {
+        return source;
+    }
+
+    /**
+     * Returns the indices of the rows of a group in the grouped data frame.
+     * Only available if this grouping was created based on row indices.
+     *
+     * @param index index of the group
+     * @return row indices of the group
+     */
+    public int[] getGroupRows(int index) {
+        if (groupStarts == null) {
+            throw new DataFrameRuntimeException("group rows are only available for groupings based on row indices");
+        }
+        return Arrays.copyOfRange(groupRows, groupStarts[index], groupStarts[index + 1]);
+    }
+
+    /**
+     * Returns the first <tt>n</tt> rows of each group according to a sort order.
+     * The rows are selected in a single pass using a bounded heap per group, neither the groups nor the grouped
+     * data frame are sorted. {@link Values#NA NA} values are sorted last.
+     * <p>
+     * The returned data frame contains all columns of the grouped data frame.
+     * The rows are ordered by group and within each group by the sort order.
+     * </p>
+     *
+     * @param n           maximal number of rows per group
+     * @param sortColumns sort order within the groups
+     * @return data frame containing the selected rows
+     */
+    public DataFrame topN(int n, SortColumn... sortColumns) {
+        if (n < 0) {
+            throw new DataFrameRuntimeException("n must not be negative");
+        }
+        if (source == null) {
+            List<DataFrame> parts = new ArrayList<>(groups.length);
+            for (DataGroup group : groups) {
+                BoundedRowHeap heap = new BoundedRowHeap(group, sortColumns, n);
+                for (int row = 0; row < group.size(); row++) {
+                    heap.offer(row);
+                }
+                int[] rows = new int[Math.min(n, group.size())];
+                heap.drain(rows, 0);
+                parts.add(gatherRows(group, rows));
+            }
+            return parts.isEmpty() ? new DefaultDataFrame() : parts.get(0).concat(parts.subList(1, parts.size()));
+        }
+        BoundedRowHeap heap = new BoundedRowHeap(source, sortColumns, n);
+        int[] selected = new int[(int) Math.min(groupRows.length, (long) n * groups.length)];
+        int count = 0;
+        for (int g = 0; g < groups.length; g++) {
+            for (int i = groupStarts[g]; i < groupStarts[g + 1]; i++) {
+                heap.offer(groupRows[i]);
+            }
+            count += heap.drain(selected, count);
+        }
+        return gatherRows(source, Arrays.copyOf(selected, count));
+    }
+
+    private static DataFrame gatherRows(DataFrame dataFrame, int[] rows) {
+        DataFrame result = new DefaultDataFrame();
+        for (String name : dataFrame.getColumnNames()) {
+            result.addColumn(dataFrame.getColumn(name).gather(rows));
+        }
+        return result;
+    }
+
+    private DataGroup createGroup(int index) {
+        Comparable[] groupValues = new Comparable[groupColumnNames.length];
+        for (int i = 0; i < groupValues.length; i++) {
+            DataFrameColumn column = getColumn(groupColumnNames[i]);
+            groupValues[i] = column.isNA(index) ? Values.NA : column.get(index);
+        }
+        DataGroup group = new DataGroup(groupColumnNames, groupValues);
+        int[] rows = getGroupRows(index);
+        for (String name : source.getColumnNames()) {
+            group.addColumn(source.getColumn(name).gather(rows));
+        }
+        return group;
+    }
+
     public DataGroup getGroup(DataRow row) {
         return getGroup(row.getIndex());
     }
@@ -120,7 +345,7 @@ public class DataGrouping extends DefaultDataFrame {
 
     @Override
     public GroupRow getRow(int i) {
-        return new GroupRow(getGroup(i), getHeader(), getRowValues(i), i);
+        return new GroupRow(this, getHeader(), getRowValues(i), i);
     }
 
 }
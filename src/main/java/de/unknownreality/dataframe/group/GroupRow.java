@@ -8,12 +8,30 @@ import de.unknownreality.dataframe.DataRow;
  */
 public class GroupRow extends DataRow {
     DataGroup group;
+    private DataGrouping grouping;
+
     public GroupRow(DataGroup group, DataFrameHeader header, Comparable[] values, int index) {
         super(header, values, index);
         this.group = group;
     }
 
+    /**
+     * Creates a group row that requests its group from the grouping on first access
+     *
+     * @param grouping grouping this row belongs to
+     * @param header   header of the grouping
+     * @param values   row values
+     * @param index    row index
+     */
+    GroupRow(DataGrouping grouping, DataFrameHeader header, Comparable[] values, int index) {
+        super(header, values, index);
+        this.grouping = grouping;
+    }
+
     public DataGroup getGroup() {
+        if (group == null && grouping != null) {
+            group = grouping.getGroup(getIndex());
+        }
         return group;
     }
 
@@ -0,0 +1,223 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.group;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.DataFrameRuntimeException;
+import de.unknownreality.dataframe.DefaultDataFrame;
+import de.unknownreality.dataframe.column.IntegerColumn;
+import de.unknownreality.dataframe.column.BasicColumn;
+import de.unknownreality.dataframe.group.aggr.Accumulator;
+import de.unknownreality.dataframe.hash.RowHash;
+import de.unknownreality.dataframe.hash.RowHashTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Aggregates a data frame for multiple sets of grouping columns in one pass.
+ * <p>
+ * The rows are grouped and aggregated once by all grouping columns.
+ * The groups of each grouping set are derived from these groups by merging their accumulator states,
+ * the source rows are not read again.
+ * </p>
+ * <p>
+ * The result contains all grouping columns, a {@link #GROUPING_ID} column and the aggregate columns.
+ * Grouping columns that are not part of a grouping set are {@link de.unknownreality.dataframe.Values#NA NA}.
+ * Like SQL <tt>GROUPING_ID</tt>, bit <tt>n - 1 - i</tt> of the grouping id is set if grouping column <tt>i</tt>
+ * of <tt>n</tt> is not part of the grouping set of a row.
+ * </p>
+ */
+public class GroupingSets {
+    public static final String GROUPING_ID = "grouping_id";
+
+    private GroupingSets() {
+    }
+
+    /**
+     * Aggregates all prefixes of the columns, from all columns down to the grand total.
+     * <p><code>rollup(a, b, c)</code> aggregates <code>(a, b, c), (a, b), (a), ()</code></p>
+     *
+     * @param df           input data frame
+     * @param accumulators accumulators by aggregate column name
+     * @param columns      grouping columns
+     * @return aggregated data frame
+     */
+    public static DataFrame rollup(DataFrame df, Map<String, Accumulator> accumulators, String... columns) {
+        String[][] sets = new String[columns.length + 1][];
+        for (int i = 0; i <= columns.length; i++) {
+            sets[i] = Arrays.copyOf(columns, columns.length - i);
+        }
+        return groupingSets(df, accumulators, sets);
+    }
+
+    /**
+     * Aggregates all subsets of the columns, ordered by their grouping id.
+     *
+     * @param df           input data frame
+     * @param accumulators accumulators by aggregate column name
+     * @param columns      grouping columns
+     * @return aggregated data frame
+     */
+    public static DataFrame cube(DataFrame df, Map<String, Accumulator> accumulators, String... columns) {
+        if (columns.length > 16) {
+            throw new DataFrameRuntimeException("cube supports at most 16 columns");
+        }
+        int n = columns.length;
+        String[][] sets = new String[1 << n][];
+        for (int id = 0; id < sets.length; id++) {
+            List<String> set = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                if ((id & (1 << (n - 1 - i))) == 0) {
+                    set.add(columns[i]);
+                }
+            }
+            sets[id] = set.toArray(new String[0]);
+        }
+        return groupingSets(df, accumulators, sets);
+    }
+
+    /**
+     * Aggregates each grouping set. The grouping columns of the result are all columns used by any set,
+     * in the order of their first appearance.
+     *
+     * @param df           input data frame
+     * @param accumulators accumulators by aggregate column name
+     * @param sets         grouping sets
+     * @return aggregated data frame
+     */
+    public static DataFrame groupingSets(DataFrame df, Map<String, Accumulator> accumulators, String[]... sets) {
+        Set<String> allColumns = new LinkedHashSet<>();
+        for (String[] set : sets) {
+            allColumns.addAll(Arrays.asList(set));
+        }
+        String[] columns = allColumns.toArray(new String[0]);
+        if (columns.length > 31) {
+            throw new DataFrameRuntimeException("grouping sets support at most 31 columns");
+        }
+        int size = df.size();
+        DataFrameColumn[] keyColumns = new DataFrameColumn[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            keyColumns[i] = df.getColumn(columns[i], DataFrameColumn.class);
+        }
+
+        // aggregate the finest groups
+        long[] hashes = RowHash.hashRows(keyColumns, size);
+        RowHashTable table = new RowHashTable(keyColumns, Math.min(size, 1024));
+        Accumulator[] finest = createAccumulators(df, accumulators, 0);
+        for (int row = 0; row < size; row++) {
+            int group = table.put(row, hashes[row]);
+            for (Accumulator accumulator : finest) {
+                accumulator.grow(table.size());
+                accumulator.accumulate(group, row);
+            }
+        }
+        int groupCount = table.size();
+        int[] keyRows = new int[groupCount];
+        for (int g = 0; g < groupCount; g++) {
+            keyRows[g] = table.getKeyRow(g);
+        }
+        DataFrameColumn[] groupKeys = new DataFrameColumn[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            groupKeys[i] = keyColumns[i].gather(keyRows);
+        }
+
+        // derive the grouping sets by merging the finest groups
+        Accumulator[] result = createAccumulators(df, accumulators, 0);
+        List<int[]> representatives = new ArrayList<>();
+        List<Integer> groupingIds = new ArrayList<>();
+        int offset = 0;
+        for (String[] set : sets) {
+            int groupingId = 0;
+            DataFrameColumn[] setKeys = new DataFrameColumn[set.length];
+            for (int i = 0; i < columns.length; i++) {
+                int position = Arrays.asList(set).indexOf(columns[i]);
+                if (position == -1) {
+                    groupingId |= 1 << (columns.length - 1 - i);
+                } else {
+                    setKeys[position] = groupKeys[i];
+                }
+            }
+            long[] groupHashes = RowHash.hashRows(setKeys, groupCount);
+            RowHashTable setTable = new RowHashTable(setKeys, Math.min(groupCount, 1024));
+            for (int g = 0; g < groupCount; g++) {
+                int setGroup = offset + setTable.put(g, groupHashes[g]);
+                for (int a = 0; a < result.length; a++) {
+                    result[a].grow(offset + setTable.size());
+                    result[a].merge(setGroup, finest[a], g);
+                }
+            }
+            if (size == 0 && set.length == 0) {
+                // the grand total of an empty data frame still has one row
+                setTable.put(-1, 0);
+                for (Accumulator accumulator : result) {
+                    accumulator.grow(offset + 1);
+                }
+            }
+            int[] representative = new int[setTable.size()];
+            for (int s = 0; s < representative.length; s++) {
+                representative[s] = setTable.getKeyRow(s);
+                groupingIds.add(groupingId);
+            }
+            representatives.add(representative);
+            offset += representative.length;
+        }
+
+        DataFrame resultFrame = new DefaultDataFrame();
+        for (int i = 0; i < columns.length; i++) {
+            int[] indices = new int[offset];
+            int position = 0;
+            for (int s = 0; s < sets.length; s++) {
+                boolean contained = Arrays.asList(sets[s]).contains(columns[i]);
+                for (int representative : representatives.get(s)) {
+                    indices[position++] = contained ? representative : -1;
+                }
+            }
+            resultFrame.addColumn(groupKeys[i].gather(indices));
+        }
+        Integer[] ids = groupingIds.toArray(new Integer[Math.max(offset, BasicColumn.INIT_SIZE)]);
+        resultFrame.addColumn(new IntegerColumn(GROUPING_ID, ids, offset));
+        int a = 0;
+        for (String name : accumulators.keySet()) {
+            resultFrame.addColumn(result[a++].finish(name));
+        }
+        return resultFrame;
+    }
+
+    private static Accumulator[] createAccumulators(DataFrame df, Map<String, Accumulator> accumulators, int groupCount) {
+        Accumulator[] created = new Accumulator[accumulators.size()];
+        int a = 0;
+        for (Accumulator accumulator : accumulators.values()) {
+            created[a] = accumulator.copy();
+            created[a++].init(df, groupCount);
+        }
+        return created;
+    }
+}
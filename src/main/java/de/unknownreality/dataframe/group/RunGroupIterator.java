@@ -0,0 +1,152 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.group;
+
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.DataFrameConverter;
+import de.unknownreality.dataframe.DataFrameRuntimeException;
+import de.unknownreality.dataframe.common.Row;
+import de.unknownreality.dataframe.io.ColumnInformation;
+import de.unknownreality.dataframe.io.DataIterator;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Groups the rows of a {@link DataIterator} that are sorted by the grouping columns.
+ * <p>
+ * Each group is a run of rows with equal group values, the group boundaries are detected in a single pass.
+ * Only the rows of the current group are kept in memory, so arbitrarily large sorted inputs can be grouped.
+ * Rows with equal group values that are not adjacent end up in different groups.
+ * </p>
+ * <p>
+ * The column types are taken from the column information of the data iterator.
+ * Columns with auto detected types are read as strings.
+ * </p>
+ *
+ * @param <R> row type
+ */
+public class RunGroupIterator<R extends Row> implements Iterator<DataGroup> {
+    private final Iterator<R> rows;
+    private final String[] groupColumns;
+    private final List<ColumnInformation> columnsInformation;
+    private final DataFrameColumn<?, ?>[] templates;
+    private final int[] keyIndices;
+    private Comparable[] pending;
+
+    /**
+     * Creates a run group iterator
+     *
+     * @param dataIterator sorted input rows
+     * @param groupColumns grouping columns
+     */
+    public RunGroupIterator(DataIterator<R> dataIterator, String... groupColumns) {
+        this.groupColumns = groupColumns;
+        this.columnsInformation = new ArrayList<>(dataIterator.getColumnsInformation());
+        columnsInformation.sort(Comparator.comparingInt(ColumnInformation::getIndex));
+        this.templates = new DataFrameColumn<?, ?>[columnsInformation.size()];
+        for (int i = 0; i < templates.length; i++) {
+            ColumnInformation columnInformation = columnsInformation.get(i);
+            Class<? extends DataFrameColumn> colType = columnInformation.getColumnType();
+            try {
+                templates[i] = colType.newInstance();
+            } catch (InstantiationException | IllegalAccessException e) {
+                throw new DataFrameRuntimeException(String.format("error creating instance of column [%s], empty constructor required", colType.getCanonicalName()), e);
+            }
+            templates[i].setName(columnInformation.getName());
+        }
+        this.keyIndices = new int[groupColumns.length];
+        for (int k = 0; k < groupColumns.length; k++) {
+            keyIndices[k] = -1;
+            for (int i = 0; i < templates.length; i++) {
+                if (templates[i].getName().equals(groupColumns[k])) {
+                    keyIndices[k] = i;
+                }
+            }
+            if (keyIndices[k] == -1) {
+                throw new DataFrameRuntimeException(String.format("group column not found '%s'", groupColumns[k]));
+            }
+        }
+        this.rows = dataIterator.iterator();
+        this.pending = readRow();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return pending != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public DataGroup next() {
+        if (pending == null) {
+            throw new NoSuchElementException("no more groups");
+        }
+        Comparable[] groupValues = new Comparable[keyIndices.length];
+        for (int k = 0; k < keyIndices.length; k++) {
+            groupValues[k] = pending[keyIndices[k]];
+        }
+        DataGroup group = new DataGroup(groupColumns, groupValues);
+        for (DataFrameColumn<?, ?> template : templates) {
+            group.addColumn(template.copyEmpty());
+        }
+        Comparable[] values = pending;
+        do {
+            group.append(values);
+            values = readRow();
+        } while (values != null && sameGroup(groupValues, values));
+        pending = values;
+        return group;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("remove is not supported by this iterator");
+    }
+
+    private boolean sameGroup(Comparable[] groupValues, Comparable[] values) {
+        for (int k = 0; k < keyIndices.length; k++) {
+            if (!groupValues[k].equals(values[keyIndices[k]])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Comparable[] readRow() {
+        if (!rows.hasNext()) {
+            return null;
+        }
+        R row = rows.next();
+        Comparable[] values = new Comparable[templates.length];
+        for (int i = 0; i < templates.length; i++) {
+            values[i] = DataFrameConverter.readValue(templates[i], row, columnsInformation.get(i).getIndex());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.group.aggr;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+
+/**
+ * Computes an aggregate for many groups in a single pass over the rows of a data frame.
+ * <p>
+ * An accumulator keeps one state per group. It is bound to a source data frame using {@link #init(DataFrame, int)},
+ * rows of the source are added to the state of a group using {@link #accumulate(int, int)}
+ * and {@link #finish(String)} returns a column containing the aggregate of each group.
+ * States of different accumulators of the same kind can be combined using {@link #merge(int, Accumulator, int)}.
+ * </p>
+ * <p>
+ * Accumulators are created unbound and used as templates.
+ * Each aggregation works on its own {@link #copy() copy}.
+ * </p>
+ */
+public interface Accumulator {
+
+    /**
+     * Binds this accumulator to a source data frame and creates empty states for a number of groups.
+     * Existing states are discarded.
+     *
+     * @param source     source data frame
+     * @param groupCount number of groups
+     */
+    void init(DataFrame source, int groupCount);
+
+    /**
+     * Adds empty states until this accumulator contains states for the specified number of groups
+     *
+     * @param groupCount number of groups
+     */
+    void grow(int groupCount);
+
+    /**
+     * Replaces the state of a group by an empty state
+     *
+     * @param group group index
+     */
+    void reset(int group);
+
+    /**
+     * Adds a row of the source data frame to the state of a group
+     *
+     * @param group group index
+     * @param row   row index in the source data frame
+     */
+    void accumulate(int group, int row);
+
+    /**
+     * Merges the state of a group in another accumulator of the same kind into the state of a group in this accumulator.
+     * If the accumulators are bound to different data frames,
+     * the other state must cover rows that come after the rows already accumulated in this state.
+     *
+     * @param group      group index in this accumulator
+     * @param other      other accumulator
+     * @param otherGroup group index in the other accumulator
+     */
+    void merge(int group, Accumulator other, int otherGroup);
+
+    /**
+     * Writes the state of a group
+     *
+     * @param group group index
+     * @param out   output the state is written to
+     * @throws IOException if the state can not be written
+     */
+    void writeState(int group, ObjectOutput out) throws IOException;
+
+    /**
+     * Reads a state written by {@link #writeState(int, ObjectOutput)} and replaces the state of a group
+     *
+     * @param group group index
+     * @param in    input the state is read from
+     * @throws IOException if the state can not be read
+     */
+    void readState(int group, ObjectInput in) throws IOException;
+
+    /**
+     * Returns a column containing the aggregate of each group
+     *
+     * @param name name of the created column
+     * @return aggregate column
+     */
+    DataFrameColumn<?, ?> finish(String name);
+
+    /**
+     * Creates a new unbound accumulator of the same kind
+     *
+     * @return new accumulator
+     */
+    Accumulator copy();
+}
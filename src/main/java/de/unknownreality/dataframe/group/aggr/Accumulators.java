@@ -0,0 +1,639 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.group.aggr;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.column.BasicColumn;
+import de.unknownreality.dataframe.column.DoubleColumn;
+import de.unknownreality.dataframe.column.IntegerColumn;
+import de.unknownreality.dataframe.column.NumberColumn;
+import de.unknownreality.dataframe.common.NumberUtil;
+import de.unknownreality.dataframe.filter.FilterPredicate;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Arrays;
+
+/**
+ * Factory for common {@link Accumulator accumulators}.
+ * <p>
+ * The states are kept in primitive arrays, one entry per group.
+ * {@link de.unknownreality.dataframe.Values#NA NA} values are ignored by all accumulators except
+ * {@link #naCount(String)}, {@link #first(String)} and {@link #last(String)}.
+ * </p>
+ */
+public class Accumulators {
+
+    public static Accumulator count() {
+        return new Count(null, null);
+    }
+
+    public static Accumulator naCount(String colName) {
+        return new Count(colName, null);
+    }
+
+    public static Accumulator filterCount(FilterPredicate filterPredicate) {
+        return new Count(null, filterPredicate);
+    }
+
+    public static Accumulator filterCount(String predicateString) {
+        return new Count(null, FilterPredicate.compile(predicateString));
+    }
+
+    /**
+     * The sum is converted to the type of the column. Groups without values have a sum of <tt>0</tt>.
+     *
+     * @param colName number column
+     * @return sum accumulator
+     */
+    public static Accumulator sum(String colName) {
+        return new Moments(colName, Moments.SUM);
+    }
+
+    public static Accumulator mean(String colName) {
+        return new Moments(colName, Moments.MEAN);
+    }
+
+    /**
+     * Sample variance computed using Welford's algorithm.
+     * Groups with less than two values result in {@link de.unknownreality.dataframe.Values#NA NA}.
+     *
+     * @param colName number column
+     * @return variance accumulator
+     */
+    public static Accumulator variance(String colName) {
+        return new Moments(colName, Moments.VARIANCE);
+    }
+
+    public static Accumulator min(String colName) {
+        return new Extremum(colName, false);
+    }
+
+    public static Accumulator max(String colName) {
+        return new Extremum(colName, true);
+    }
+
+    public static Accumulator first(String colName) {
+        return new Position(colName, false);
+    }
+
+    public static Accumulator last(String colName) {
+        return new Position(colName, true);
+    }
+
+    /**
+     * Quantile using the nearest rank of the sorted values, like {@link NumberColumn#getQuantile(double)}.
+     * The quantile is converted to the type of the column.
+     *
+     * @param colName  number column
+     * @param quantile quantile between <tt>0</tt> and <tt>1</tt>
+     * @return quantile accumulator
+     */
+    public static Accumulator quantile(String colName, double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("quantile must be between 0 and 1");
+        }
+        return new Quantile(colName, quantile);
+    }
+
+    /**
+     * Median of the values, like {@link NumberColumn#median()}
+     *
+     * @param colName number column
+     * @return median accumulator
+     */
+    public static Accumulator median(String colName) {
+        return new Quantile(colName, Quantile.MEDIAN);
+    }
+
+    private static int capacity(int size) {
+        return Math.max(size, BasicColumn.INIT_SIZE);
+    }
+
+    /**
+     * Base class for accumulators that keep their states in arrays
+     */
+    private abstract static class ArrayAccumulator implements Accumulator {
+        protected DataFrame source;
+        protected int groupCount;
+        private int capacity;
+
+        @Override
+        public void init(DataFrame source, int groupCount) {
+            this.source = source;
+            this.groupCount = 0;
+            this.capacity = 0;
+            bind(source);
+            grow(groupCount);
+        }
+
+        @Override
+        public void grow(int groupCount) {
+            if (groupCount > capacity) {
+                int newCapacity = Math.max(groupCount, Math.max(16, capacity * 2));
+                resize(newCapacity);
+                fill(capacity, newCapacity);
+                capacity = newCapacity;
+            }
+            this.groupCount = Math.max(this.groupCount, groupCount);
+        }
+
+        @Override
+        public void reset(int group) {
+            fill(group, group + 1);
+        }
+
+        protected abstract void bind(DataFrame source);
+
+        protected abstract void resize(int capacity);
+
+        protected void fill(int from, int to) {
+        }
+    }
+
+    private static class Count extends ArrayAccumulator {
+        private final String colName;
+        private final FilterPredicate predicate;
+        private DataFrameColumn<?, ?> column;
+        private int[] counts = new int[0];
+
+        private Count(String colName, FilterPredicate predicate) {
+            this.colName = colName;
+            this.predicate = predicate;
+        }
+
+        @Override
+        protected void bind(DataFrame source) {
+            column = colName == null ? null : source.getColumn(colName, DataFrameColumn.class);
+        }
+
+        @Override
+        protected void resize(int capacity) {
+            counts = Arrays.copyOf(counts, capacity);
+        }
+
+        @Override
+        protected void fill(int from, int to) {
+            Arrays.fill(counts, from, to, 0);
+        }
+
+        @Override
+        public void accumulate(int group, int row) {
+            if (column != null) {
+                if (column.isNA(row)) {
+                    counts[group]++;
+                }
+            } else if (predicate == null || predicate.valid(source.getRow(row))) {
+                counts[group]++;
+            }
+        }
+
+        @Override
+        public void merge(int group, Accumulator other, int otherGroup) {
+            counts[group] += ((Count) other).counts[otherGroup];
+        }
+
+        @Override
+        public void writeState(int group, ObjectOutput out) throws IOException {
+            out.writeInt(counts[group]);
+        }
+
+        @Override
+        public void readState(int group, ObjectInput in) throws IOException {
+            counts[group] = in.readInt();
+        }
+
+        @Override
+        public DataFrameColumn<?, ?> finish(String name) {
+            Integer[] values = new Integer[capacity(groupCount)];
+            for (int i = 0; i < groupCount; i++) {
+                values[i] = counts[i];
+            }
+            return new IntegerColumn(name, values, groupCount);
+        }
+
+        @Override
+        public Accumulator copy() {
+            return new Count(colName, predicate);
+        }
+    }
+
+    private static class Moments extends ArrayAccumulator {
+        private static final int SUM = 0;
+        private static final int MEAN = 1;
+        private static final int VARIANCE = 2;
+        private final String colName;
+        private final int mode;
+        private NumberColumn<?, ?> column;
+        private long[] counts = new long[0];
+        private double[] means = new double[0];
+        private double[] squares = new double[0];
+
+        private Moments(String colName, int mode) {
+            this.colName = colName;
+            this.mode = mode;
+        }
+
+        @Override
+        protected void bind(DataFrame source) {
+            column = source.getNumberColumn(colName);
+        }
+
+        @Override
+        protected void resize(int capacity) {
+            counts = Arrays.copyOf(counts, capacity);
+            means = Arrays.copyOf(means, capacity);
+            if (mode == VARIANCE) {
+                squares = Arrays.copyOf(squares, capacity);
+            }
+        }
+
+        @Override
+        protected void fill(int from, int to) {
+            Arrays.fill(counts, from, to, 0);
+            Arrays.fill(means, from, to, 0d);
+            if (mode == VARIANCE) {
+                Arrays.fill(squares, from, to, 0d);
+            }
+        }
+
+        @Override
+        public void accumulate(int group, int row) {
+            if (column.isNA(row)) {
+                return;
+            }
+            double value = column.get(row).doubleValue();
+            if (mode == SUM) {
+                counts[group]++;
+                means[group] += value;
+                return;
+            }
+            long n = ++counts[group];
+            double delta = value - means[group];
+            means[group] += delta / n;
+            if (mode == VARIANCE) {
+                squares[group] += delta * (value - means[group]);
+            }
+        }
+
+        @Override
+        public void merge(int group, Accumulator other, int otherGroup) {
+            Moments o = (Moments) other;
+            long otherCount = o.counts[otherGroup];
+            if (otherCount == 0) {
+                return;
+            }
+            if (mode == SUM) {
+                counts[group] += otherCount;
+                means[group] += o.means[otherGroup];
+                return;
+            }
+            long count = counts[group];
+            long n = count + otherCount;
+            double delta = o.means[otherGroup] - means[group];
+            means[group] += delta * otherCount / n;
+            if (mode == VARIANCE) {
+                squares[group] += o.squares[otherGroup] + delta * delta * count * otherCount / n;
+            }
+            counts[group] = n;
+        }
+
+        @Override
+        public void writeState(int group, ObjectOutput out) throws IOException {
+            out.writeLong(counts[group]);
+            out.writeDouble(means[group]);
+            if (mode == VARIANCE) {
+                out.writeDouble(squares[group]);
+            }
+        }
+
+        @Override
+        public void readState(int group, ObjectInput in) throws IOException {
+            counts[group] = in.readLong();
+            means[group] = in.readDouble();
+            if (mode == VARIANCE) {
+                squares[group] = in.readDouble();
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public DataFrameColumn<?, ?> finish(String name) {
+            if (mode == SUM) {
+                DataFrameColumn result = column.copyEmpty();
+                result.setName(name);
+                for (int i = 0; i < groupCount; i++) {
+                    result.append(NumberUtil.convert(means[i], column.getType()));
+                }
+                return result;
+            }
+            Double[] values = new Double[capacity(groupCount)];
+            for (int i = 0; i < groupCount; i++) {
+                if (mode == MEAN && counts[i] > 0) {
+                    values[i] = means[i];
+                } else if (mode == VARIANCE && counts[i] > 1) {
+                    values[i] = squares[i] / (counts[i] - 1);
+                }
+            }
+            return new DoubleColumn(name, values, groupCount);
+        }
+
+        @Override
+        public Accumulator copy() {
+            return new Moments(colName, mode);
+        }
+    }
+
+    private static class Extremum extends ArrayAccumulator {
+        private final String colName;
+        private final boolean max;
+        private DataFrameColumn<?, ?> column;
+        private Comparable[] values = new Comparable[0];
+
+        private Extremum(String colName, boolean max) {
+            this.colName = colName;
+            this.max = max;
+        }
+
+        @Override
+        protected void bind(DataFrame source) {
+            column = source.getColumn(colName, DataFrameColumn.class);
+        }
+
+        @Override
+        protected void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        protected void fill(int from, int to) {
+            Arrays.fill(values, from, to, null);
+        }
+
+        @Override
+        public void accumulate(int group, int row) {
+            if (!column.isNA(row)) {
+                update(group, column.get(row));
+            }
+        }
+
+        @Override
+        public void merge(int group, Accumulator other, int otherGroup) {
+            Comparable value = ((Extremum) other).values[otherGroup];
+            if (value != null) {
+                update(group, value);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void update(int group, Comparable value) {
+            Comparable current = values[group];
+            if (current == null || (max ? value.compareTo(current) > 0 : value.compareTo(current) < 0)) {
+                values[group] = value;
+            }
+        }
+
+        @Override
+        public void writeState(int group, ObjectOutput out) throws IOException {
+            out.writeObject(values[group]);
+        }
+
+        @Override
+        public void readState(int group, ObjectInput in) throws IOException {
+            values[group] = readValue(in);
+        }
+
+        @Override
+        public DataFrameColumn<?, ?> finish(String name) {
+            return createColumn(column, name, values, groupCount);
+        }
+
+        @Override
+        public Accumulator copy() {
+            return new Extremum(colName, max);
+        }
+    }
+
+    private static class Position extends ArrayAccumulator {
+        private final String colName;
+        private final boolean last;
+        private DataFrameColumn<?, ?> column;
+        private int[] rows = new int[0];
+        private Comparable[] values = new Comparable[0];
+
+        private Position(String colName, boolean last) {
+            this.colName = colName;
+            this.last = last;
+        }
+
+        @Override
+        protected void bind(DataFrame source) {
+            column = source.getColumn(colName, DataFrameColumn.class);
+        }
+
+        @Override
+        protected void resize(int capacity) {
+            rows = Arrays.copyOf(rows, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        protected void fill(int from, int to) {
+            Arrays.fill(rows, from, to, -1);
+            Arrays.fill(values, from, to, null);
+        }
+
+        @Override
+        public void accumulate(int group, int row) {
+            update(group, row, column.isNA(row) ? null : column.get(row));
+        }
+
+        @Override
+        public void merge(int group, Accumulator other, int otherGroup) {
+            Position o = (Position) other;
+            int otherRow = o.rows[otherGroup];
+            if (otherRow == -1) {
+                return;
+            }
+            if (source == o.source) {
+                update(group, otherRow, o.values[otherGroup]);
+            } else if (last || rows[group] == -1) {
+                rows[group] = otherRow;
+                values[group] = o.values[otherGroup];
+            }
+        }
+
+        private void update(int group, int row, Comparable value) {
+            int current = rows[group];
+            if (current == -1 || (last ? row > current : row < current)) {
+                rows[group] = row;
+                values[group] = value;
+            }
+        }
+
+        @Override
+        public void writeState(int group, ObjectOutput out) throws IOException {
+            out.writeInt(rows[group]);
+            out.writeObject(values[group]);
+        }
+
+        @Override
+        public void readState(int group, ObjectInput in) throws IOException {
+            rows[group] = in.readInt();
+            values[group] = readValue(in);
+        }
+
+        @Override
+        public DataFrameColumn<?, ?> finish(String name) {
+            return createColumn(column, name, values, groupCount);
+        }
+
+        @Override
+        public Accumulator copy() {
+            return new Position(colName, last);
+        }
+    }
+
+    private static class Quantile extends ArrayAccumulator {
+        private static final double MEDIAN = -1;
+        private final String colName;
+        private final double quantile;
+        private NumberColumn<?, ?> column;
+        private double[][] values = new double[0][];
+        private int[] counts = new int[0];
+
+        private Quantile(String colName, double quantile) {
+            this.colName = colName;
+            this.quantile = quantile;
+        }
+
+        @Override
+        protected void bind(DataFrame source) {
+            column = source.getNumberColumn(colName);
+        }
+
+        @Override
+        protected void resize(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+        }
+
+        @Override
+        protected void fill(int from, int to) {
+            Arrays.fill(values, from, to, null);
+            Arrays.fill(counts, from, to, 0);
+        }
+
+        @Override
+        public void accumulate(int group, int row) {
+            if (!column.isNA(row)) {
+                add(group, column.get(row).doubleValue());
+            }
+        }
+
+        @Override
+        public void merge(int group, Accumulator other, int otherGroup) {
+            Quantile o = (Quantile) other;
+            for (int i = 0; i < o.counts[otherGroup]; i++) {
+                add(group, o.values[otherGroup][i]);
+            }
+        }
+
+        private void add(int group, double value) {
+            double[] groupValues = values[group];
+            if (groupValues == null) {
+                groupValues = values[group] = new double[8];
+            } else if (counts[group] == groupValues.length) {
+                groupValues = values[group] = Arrays.copyOf(groupValues, groupValues.length * 2);
+            }
+            groupValues[counts[group]++] = value;
+        }
+
+        @Override
+        public void writeState(int group, ObjectOutput out) throws IOException {
+            out.writeInt(counts[group]);
+            for (int i = 0; i < counts[group]; i++) {
+                out.writeDouble(values[group][i]);
+            }
+        }
+
+        @Override
+        public void readState(int group, ObjectInput in) throws IOException {
+            int count = in.readInt();
+            values[group] = new double[Math.max(8, count)];
+            for (int i = 0; i < count; i++) {
+                values[group][i] = in.readDouble();
+            }
+            counts[group] = count;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public DataFrameColumn<?, ?> finish(String name) {
+            DataFrameColumn result = column.copyEmpty();
+            result.setName(name);
+            for (int i = 0; i < groupCount; i++) {
+                int count = counts[i];
+                if (count == 0) {
+                    result.appendNA();
+                    continue;
+                }
+                Arrays.sort(values[i], 0, count);
+                int index = quantile == MEDIAN ? count / 2 : Math.max(0, (int) Math.ceil(quantile * count) - 1);
+                result.append(NumberUtil.convert(values[i][index], column.getType()));
+            }
+            return result;
+        }
+
+        @Override
+        public Accumulator copy() {
+            return new Quantile(colName, quantile);
+        }
+    }
+
+    private static Comparable readValue(ObjectInput in) throws IOException {
+        try {
+            return (Comparable) in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("error reading accumulator state", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DataFrameColumn<?, ?> createColumn(DataFrameColumn<?, ?> template, String name, Comparable[] values, int size) {
+        DataFrameColumn result = template.copyEmpty();
+        result.setName(name);
+        for (int i = 0; i < size; i++) {
+            if (values[i] == null) {
+                result.appendNA();
+            } else {
+                result.append(values[i]);
+            }
+        }
+        return result;
+    }
+}
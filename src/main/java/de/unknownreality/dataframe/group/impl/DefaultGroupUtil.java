@@ -25,13 +25,12 @@
 package de.unknownreality.dataframe.group.impl;
 
 import de.unknownreality.dataframe.*;
-import de.unknownreality.dataframe.group.DataGroup;
 import de.unknownreality.dataframe.group.DataGrouping;
 import de.unknownreality.dataframe.group.GroupUtil;
+import de.unknownreality.dataframe.hash.RowHash;
 import de.unknownreality.dataframe.sort.SortColumn;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * Created by Alex on 10.03.2016.
@@ -39,6 +38,12 @@ import java.util.List;
 public class DefaultGroupUtil implements GroupUtil {
     /**
      * Groups a {@link DefaultDataFrame} using one or more columns.
+     * The groups are ordered by their group values and reference the rows of a sorted copy of the input data frame,
+     * so later changes of the input data frame do not affect the grouping.
+     * If the input data frame is already {@link DataFrame#isSortedBy(String...) sorted} by the grouping columns,
+     * the groups are detected as runs of equal values in a single pass over an unsorted copy.
+     * Boolean and integral group columns with a small range of values are grouped by a counting sort
+     * of the row indices, which also does not sort the copy.
      *
      * @param df      input data frame
      * @param columns grouping columns
@@ -49,80 +54,98 @@ public class DefaultGroupUtil implements GroupUtil {
         for (int i = 0; i < columns.length; i++) {
             sortColumns[i] = new SortColumn(columns[i]);
         }
-        DataFrame sortedFrame = df.copy().sort(sortColumns);
-        List<DataRow> currentList = new ArrayList<>();
-        Comparable[] lastValues = null;
-        List<DataGroup> groupList = new ArrayList<>();
-        for (DataRow row : sortedFrame) {
-            if (lastValues == null || equals(lastValues, row, columns)) {
-                currentList.add(row);
-                if (lastValues == null) {
-                    lastValues = new Comparable[columns.length];
-                    set(lastValues, row, columns);
-                }
-                continue;
+        if (!df.isSortedBy(columns)) {
+            DataFrameColumn[] keyColumns = RowHash.getKeyColumns(df, columns);
+            KeyDomain domain = KeyDomain.create(keyColumns, df.size());
+            if (domain != null) {
+                DataFrame copy = copyColumns(df);
+                return groupByDomain(copy, RowHash.getKeyColumns(copy, columns), domain);
             }
-            if (!currentList.isEmpty()) {
-                DataGroup group = new DataGroup(columns, lastValues);
-                group.set(createHeader(df.getHeader()), currentList);
-                groupList.add(group);
+        }
+        DataFrame sortedFrame = df.isSortedBy(columns) ? copyColumns(df) : df.copy().sort(sortColumns);
+        DataFrameColumn[] keyColumns = new DataFrameColumn[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            keyColumns[i] = sortedFrame.getColumn(columns[i], DataFrameColumn.class);
+        }
+        int size = sortedFrame.size();
+        int[] starts = new int[size + 1];
+        int groupCount = 0;
+        for (int row = 0; row < size; row++) {
+            if (row == 0 || !equals(keyColumns, row - 1, row)) {
+                starts[groupCount++] = row;
             }
-            currentList.clear();
-            currentList.add(row);
-            set(lastValues, row, columns);
         }
-        if (!currentList.isEmpty()) {
-            DataGroup group = new DataGroup(columns, lastValues);
-            group.set(createHeader(df.getHeader()), currentList);
-            groupList.add(group);
+        starts[groupCount] = size;
+        int[] groupRows = new int[size];
+        for (int row = 0; row < size; row++) {
+            groupRows[row] = row;
         }
-        return new DataGrouping(groupList, createGroupColumns(df, columns));
+        return new DataGrouping(sortedFrame, Arrays.copyOf(starts, groupCount + 1), groupRows,
+                Arrays.copyOf(starts, groupCount), keyColumns);
     }
 
-    private static DataFrameColumn[] createGroupColumns(DataFrame df, String... columns){
-        DataFrameColumn[] groupColumns = new DataFrameColumn[columns.length];
-        for(int i = 0; i < columns.length; i++){
-            DataFrameColumn orgCol = df.getColumn(columns[i]);
-            groupColumns[i] = orgCol.copyEmpty();
+    /**
+     * Groups the rows by the slots of their group values.
+     * The slots are ordered like the group values and the counting sort is stable,
+     * so the result equals the grouping of the sorted data frame.
+     */
+    private static DataGrouping groupByDomain(DataFrame df, DataFrameColumn[] keyColumns, KeyDomain domain) {
+        int size = df.size();
+        int slotCount = domain.getSlotCount();
+        int[] offsets = new int[slotCount + 1];
+        for (int row = 0; row < size; row++) {
+            offsets[domain.getSlot(row) + 1]++;
         }
-        return groupColumns;
-    }
-
-    private static DataFrameHeader createHeader(DataFrameHeader header){
-        if(header instanceof DataFrameHeader){
-            return ((DataFrameHeader)header).copy();
+        int groupCount = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (offsets[slot + 1] > 0) {
+                groupCount++;
+            }
+            offsets[slot + 1] += offsets[slot];
+        }
+        int[] positions = Arrays.copyOf(offsets, slotCount);
+        int[] groupRows = new int[size];
+        for (int row = 0; row < size; row++) {
+            groupRows[positions[domain.getSlot(row)]++] = row;
         }
-        else{
-            DataFrameHeader basicDataFrameHeader = new DataFrameHeader();
-            for(String h : header){
-                basicDataFrameHeader.add(h, header.getColumnType(h), header.getType(h));
+        int[] groupStarts = new int[groupCount + 1];
+        int[] keyRows = new int[groupCount];
+        int group = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (offsets[slot + 1] > offsets[slot]) {
+                groupStarts[group] = offsets[slot];
+                keyRows[group++] = groupRows[offsets[slot]];
             }
-            return basicDataFrameHeader;
         }
+        groupStarts[groupCount] = size;
+        return new DataGrouping(df, groupStarts, groupRows, keyRows, keyColumns);
     }
 
+    /**
+     * Copies the columns of a data frame without rebuilding its indices
+     */
+    private static DataFrame copyColumns(DataFrame df) {
+        DataFrame copy = new DefaultDataFrame();
+        for (DataFrameColumn column : df.getColumns()) {
+            copy.addColumn(column.copy());
+        }
+        return copy;
+    }
 
-    private static boolean equals(Object[] values, DataRow row, String[] columns) {
-        for (int i = 0; i < values.length; i++) {
-            if (values[i] == null && !row.isNA(i)) {
-                return false;
-            }
-            if (values[i] != null && row.isNA(i)) {
-                return false;
-            }
-            if (values[i] == null && row.isNA(i)) {
+    private static boolean equals(DataFrameColumn[] columns, int rowA, int rowB) {
+        for (DataFrameColumn column : columns) {
+            boolean naA = column.isNA(rowA);
+            boolean naB = column.isNA(rowB);
+            if (naA || naB) {
+                if (naA != naB) {
+                    return false;
+                }
                 continue;
             }
-            if (!values[i].equals(row.get(columns[i]))) {
+            if (!column.get(rowA).equals(column.get(rowB))) {
                 return false;
             }
         }
         return true;
     }
-
-    private static void set(Object[] values, DataRow row, String[] columns) {
-        for (int i = 0; i < values.length; i++) {
-            values[i] = row.get(columns[i]);
-        }
-    }
 }
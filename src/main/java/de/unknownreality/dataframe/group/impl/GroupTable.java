@@ -0,0 +1,163 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.group.impl;
+
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.hash.RowHash;
+import de.unknownreality.dataframe.hash.RowHashTable;
+
+import java.util.Arrays;
+
+/**
+ * Assigns group ids to rows in order of their first appearance.
+ * <p>
+ * If the group values fit into a small {@link KeyDomain}, the group of a row is found by direct addressing,
+ * otherwise a {@link RowHashTable} over the precomputed row hashes is used.
+ * </p>
+ */
+abstract class GroupTable {
+
+    /**
+     * Creates a group table for the rows of the key columns, selecting direct addressing if the key domain is small
+     *
+     * @param keyColumns     group columns
+     * @param size           number of rows
+     * @param expectedGroups expected number of groups
+     * @return empty group table
+     */
+    static GroupTable create(DataFrameColumn[] keyColumns, int size, int expectedGroups) {
+        KeyDomain domain = KeyDomain.create(keyColumns, size);
+        if (domain != null) {
+            return new DirectGroupTable(domain);
+        }
+        return new HashGroupTable(keyColumns, RowHash.hashRows(keyColumns, size), expectedGroups);
+    }
+
+    /**
+     * Returns the group id of a row, a new group is created if no row with equal group values was added before
+     *
+     * @param row row index
+     * @return group id
+     */
+    abstract int put(int row);
+
+    /**
+     * Returns the number of groups
+     *
+     * @return number of groups
+     */
+    abstract int size();
+
+    /**
+     * Returns the first row added for a group
+     *
+     * @param id group id
+     * @return row index
+     */
+    abstract int getKeyRow(int id);
+
+    /**
+     * Creates an empty table for the same rows, sharing the precomputed hashes or slots
+     *
+     * @param expectedGroups expected number of groups
+     * @return empty group table
+     */
+    abstract GroupTable newTable(int expectedGroups);
+
+    private static class HashGroupTable extends GroupTable {
+        private final DataFrameColumn[] keyColumns;
+        private final long[] hashes;
+        private final RowHashTable table;
+
+        private HashGroupTable(DataFrameColumn[] keyColumns, long[] hashes, int expectedGroups) {
+            this.keyColumns = keyColumns;
+            this.hashes = hashes;
+            this.table = new RowHashTable(keyColumns, expectedGroups);
+        }
+
+        @Override
+        int put(int row) {
+            return table.put(row, hashes[row]);
+        }
+
+        @Override
+        int size() {
+            return table.size();
+        }
+
+        @Override
+        int getKeyRow(int id) {
+            return table.getKeyRow(id);
+        }
+
+        @Override
+        GroupTable newTable(int expectedGroups) {
+            return new HashGroupTable(keyColumns, hashes, expectedGroups);
+        }
+    }
+
+    private static class DirectGroupTable extends GroupTable {
+        private final KeyDomain domain;
+        private final int[] slotGroups;
+        private int[] keyRows = new int[16];
+        private int size = 0;
+
+        private DirectGroupTable(KeyDomain domain) {
+            this.domain = domain;
+            this.slotGroups = new int[domain.getSlotCount()];
+            Arrays.fill(slotGroups, -1);
+        }
+
+        @Override
+        int put(int row) {
+            int slot = domain.getSlot(row);
+            int id = slotGroups[slot];
+            if (id == -1) {
+                id = size++;
+                slotGroups[slot] = id;
+                if (id == keyRows.length) {
+                    keyRows = Arrays.copyOf(keyRows, keyRows.length * 2);
+                }
+                keyRows[id] = row;
+            }
+            return id;
+        }
+
+        @Override
+        int size() {
+            return size;
+        }
+
+        @Override
+        int getKeyRow(int id) {
+            return keyRows[id];
+        }
+
+        @Override
+        GroupTable newTable(int expectedGroups) {
+            return new DirectGroupTable(domain);
+        }
+    }
+}
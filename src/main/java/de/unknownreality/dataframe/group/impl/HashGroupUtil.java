@@ -0,0 +1,100 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.group.impl;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.group.DataGrouping;
+import de.unknownreality.dataframe.group.GroupUtil;
+import de.unknownreality.dataframe.hash.RowHash;
+
+/**
+ * Groups data frames using a hash table on the group columns.
+ * <p>
+ * Each row is mapped to a group id, the groups only store the row indices of their rows.
+ * The input data frame is neither copied nor sorted.
+ * Boolean and integral group columns with a small range of values are grouped by direct addressing instead of hashing.
+ * Groups are ordered by their first appearance in the input data frame.
+ * </p>
+ * <p>
+ * Can be used by setting it with {@link de.unknownreality.dataframe.DefaultDataFrame#setGroupUtil(GroupUtil)}
+ * or {@link de.unknownreality.dataframe.DataFrameBuilder#setGroupUtil(GroupUtil)}.
+ * </p>
+ */
+public class HashGroupUtil implements GroupUtil {
+    private static final int EXPECTED_GROUPS = 1024;
+
+    /**
+     * Groups a data frame using one or more columns.
+     *
+     * @param df      input data frame
+     * @param columns grouping columns
+     * @return data grouping
+     */
+    @Override
+    public DataGrouping groupBy(DataFrame df, String... columns) {
+        DataFrameColumn[] keyColumns = RowHash.getKeyColumns(df, columns);
+        int size = df.size();
+        GroupTable table = GroupTable.create(keyColumns, size, Math.min(size, EXPECTED_GROUPS));
+        int[] rowGroups = new int[size];
+        for (int row = 0; row < size; row++) {
+            rowGroups[row] = table.put(row);
+        }
+        int groupCount = table.size();
+        int[] keyRows = new int[groupCount];
+        for (int i = 0; i < groupCount; i++) {
+            keyRows[i] = table.getKeyRow(i);
+        }
+        return createGrouping(df, rowGroups, keyRows, keyColumns);
+    }
+
+    /**
+     * Creates a data grouping from the group id of each row
+     *
+     * @param df         input data frame
+     * @param rowGroups  group id of each row
+     * @param keyRows    first row of each group
+     * @param keyColumns grouping columns
+     * @return data grouping
+     */
+    static DataGrouping createGrouping(DataFrame df, int[] rowGroups, int[] keyRows, DataFrameColumn[] keyColumns) {
+        int groupCount = keyRows.length;
+        int size = rowGroups.length;
+        int[] groupStarts = new int[groupCount + 1];
+        for (int row = 0; row < size; row++) {
+            groupStarts[rowGroups[row] + 1]++;
+        }
+        for (int i = 0; i < groupCount; i++) {
+            groupStarts[i + 1] += groupStarts[i];
+        }
+        int[] positions = new int[groupCount];
+        System.arraycopy(groupStarts, 0, positions, 0, groupCount);
+        int[] groupRows = new int[size];
+        for (int row = 0; row < size; row++) {
+            groupRows[positions[rowGroups[row]]++] = row;
+        }
+        return new DataGrouping(df, groupStarts, groupRows, keyRows, keyColumns);
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.group.impl;
+
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.column.BooleanColumn;
+import de.unknownreality.dataframe.column.ByteColumn;
+import de.unknownreality.dataframe.column.IntegerColumn;
+import de.unknownreality.dataframe.column.LongColumn;
+import de.unknownreality.dataframe.column.ShortColumn;
+
+/**
+ * Maps the group values of each row to a slot in a small dense domain, so groups can be found by direct addressing.
+ * <p>
+ * Boolean columns and integral number columns with a small range of values are supported.
+ * Each column contributes a digit (its value minus the column minimum, {@link de.unknownreality.dataframe.Values#NA NA} as the largest digit),
+ * the digits of multiple columns are combined into a mixed-radix slot index.
+ * The slots are therefore ordered like the group values, with <tt>NA</tt> values last.
+ * </p>
+ */
+final class KeyDomain {
+    private static final int MIN_SLOTS = 1024;
+    private static final int MAX_SLOTS = 1 << 20;
+    private final int[] slots;
+    private final int slotCount;
+
+    private KeyDomain(int[] slots, int slotCount) {
+        this.slots = slots;
+        this.slotCount = slotCount;
+    }
+
+    /**
+     * Computes the slot of each row if the product of the column domains is small.
+     * The domain may be larger than the number of rows only up to a fixed minimum,
+     * otherwise a hash table is faster and uses less memory.
+     *
+     * @param keyColumns group columns
+     * @param size       number of rows
+     * @return key domain or <tt>null</tt> if the domain is too large or a column type is not supported
+     */
+    static KeyDomain create(DataFrameColumn[] keyColumns, int size) {
+        long limit = Math.min(MAX_SLOTS, Math.max(MIN_SLOTS, size));
+        long[] minimums = new long[keyColumns.length];
+        int[] radixes = new int[keyColumns.length];
+        long slotCount = 1;
+        for (int i = 0; i < keyColumns.length; i++) {
+            DataFrameColumn column = keyColumns[i];
+            if (column instanceof BooleanColumn) {
+                radixes[i] = 3;
+            } else if (isIntegral(column)) {
+                long min = Long.MAX_VALUE;
+                long max = Long.MIN_VALUE;
+                for (int row = 0; row < size; row++) {
+                    if (!column.isNA(row)) {
+                        long value = ((Number) column.get(row)).longValue();
+                        min = Math.min(min, value);
+                        max = Math.max(max, value);
+                    }
+                }
+                long range;
+                try {
+                    range = min > max ? 0 : Math.addExact(Math.subtractExact(max, min), 1);
+                } catch (ArithmeticException e) {
+                    // the range does not fit into a long value
+                    return null;
+                }
+                if (range >= limit) {
+                    return null;
+                }
+                minimums[i] = min;
+                radixes[i] = (int) range + 1;
+            } else {
+                return null;
+            }
+            slotCount *= radixes[i];
+            if (slotCount > limit) {
+                return null;
+            }
+        }
+        int[] slots = new int[size];
+        for (int i = 0; i < keyColumns.length; i++) {
+            DataFrameColumn column = keyColumns[i];
+            int radix = radixes[i];
+            int naDigit = radix - 1;
+            if (column instanceof BooleanColumn) {
+                for (int row = 0; row < size; row++) {
+                    int digit = column.isNA(row) ? naDigit : ((Boolean) column.get(row) ? 1 : 0);
+                    slots[row] = slots[row] * radix + digit;
+                }
+            } else {
+                long min = minimums[i];
+                for (int row = 0; row < size; row++) {
+                    int digit = column.isNA(row) ? naDigit : (int) (((Number) column.get(row)).longValue() - min);
+                    slots[row] = slots[row] * radix + digit;
+                }
+            }
+        }
+        return new KeyDomain(slots, (int) slotCount);
+    }
+
+    private static boolean isIntegral(DataFrameColumn column) {
+        return column instanceof ByteColumn || column instanceof ShortColumn
+                || column instanceof IntegerColumn || column instanceof LongColumn;
+    }
+
+    /**
+     * Returns the slot of a row
+     *
+     * @param row row index
+     * @return slot index
+     */
+    int getSlot(int row) {
+        return slots[row];
+    }
+
+    /**
+     * Returns the number of slots in the domain
+     *
+     * @return number of slots
+     */
+    int getSlotCount() {
+        return slotCount;
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.group.impl;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.DataFrameRuntimeException;
+import de.unknownreality.dataframe.group.DataGrouping;
+import de.unknownreality.dataframe.group.GroupUtil;
+import de.unknownreality.dataframe.group.aggr.Accumulator;
+import de.unknownreality.dataframe.hash.RowHash;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Groups and aggregates data frames using multiple threads.
+ * <p>
+ * The rows are split into disjoint ranges. Each range is grouped into its own hash table,
+ * aggregates are accumulated per range into {@link Accumulator accumulators} of the local groups.
+ * The local tables are then merged in range order into a global table, so the groups are ordered by their
+ * first appearance in the input data frame, the same as with {@link HashGroupUtil}.
+ * Like there, small domains of boolean and integral group values are grouped by direct addressing.
+ * </p>
+ * <p>
+ * The number of ranges and the executor running them can be configured.
+ * Can be used by setting it with {@link de.unknownreality.dataframe.DefaultDataFrame#setGroupUtil(GroupUtil)}
+ * or directly using {@link #aggregate(DataFrame, String[], Map)}.
+ * </p>
+ */
+public class ParallelGroupUtil implements GroupUtil {
+    private static final int MIN_RANGE_SIZE = 1 << 14;
+    private static final int EXPECTED_GROUPS = 1024;
+    private final ExecutorService executor;
+    private final int parallelism;
+
+    /**
+     * Creates a parallel group util using the common fork join pool and one range per available processor
+     */
+    public ParallelGroupUtil() {
+        this(ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a parallel group util
+     *
+     * @param executor    executor running the workers
+     * @param parallelism maximal number of row ranges processed in parallel
+     */
+    public ParallelGroupUtil(ExecutorService executor, int parallelism) {
+        if (parallelism < 1) {
+            throw new DataFrameRuntimeException("parallelism must be at least 1");
+        }
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Groups a data frame using one or more columns.
+     *
+     * @param df      input data frame
+     * @param columns grouping columns
+     * @return data grouping
+     */
+    @Override
+    public DataGrouping groupBy(DataFrame df, String... columns) {
+        return aggregate(df, columns, new LinkedHashMap<String, Accumulator>());
+    }
+
+    /**
+     * Groups a data frame and computes aggregates of the groups.
+     * The aggregates are added as columns to the returned grouping, in the order of the map.
+     *
+     * @param df           input data frame
+     * @param columns      grouping columns
+     * @param accumulators accumulators by aggregate column name
+     * @return data grouping containing the aggregate columns
+     */
+    public DataGrouping aggregate(DataFrame df, String[] columns, Map<String, Accumulator> accumulators) {
+        DataFrameColumn[] keyColumns = RowHash.getKeyColumns(df, columns);
+        int size = df.size();
+        GroupTable table = GroupTable.create(keyColumns, size, EXPECTED_GROUPS);
+        int[] rowGroups = new int[size];
+        int rangeCount = Math.max(1, Math.min(parallelism, size / MIN_RANGE_SIZE));
+        List<Callable<Range>> tasks = new ArrayList<>();
+        for (int i = 0; i < rangeCount; i++) {
+            Range range = new Range((int) ((long) size * i / rangeCount), (int) ((long) size * (i + 1) / rangeCount));
+            tasks.add(() -> range.group(df, table, rowGroups, accumulators));
+        }
+        List<Range> ranges = invokeAll(tasks);
+
+        List<Accumulator> globalAccumulators = new ArrayList<>();
+        for (Accumulator accumulator : accumulators.values()) {
+            Accumulator global = accumulator.copy();
+            global.init(df, 0);
+            globalAccumulators.add(global);
+        }
+        for (Range range : ranges) {
+            range.globalIds = new int[range.table.size()];
+            for (int id = 0; id < range.globalIds.length; id++) {
+                int keyRow = range.table.getKeyRow(id);
+                int globalId = table.put(keyRow);
+                range.globalIds[id] = globalId;
+                for (int a = 0; a < globalAccumulators.size(); a++) {
+                    Accumulator global = globalAccumulators.get(a);
+                    global.grow(table.size());
+                    global.merge(globalId, range.accumulators.get(a), id);
+                }
+            }
+        }
+
+        List<Callable<Range>> remapTasks = new ArrayList<>();
+        for (Range range : ranges) {
+            remapTasks.add(() -> range.remap(rowGroups));
+        }
+        invokeAll(remapTasks);
+
+        int[] keyRows = new int[table.size()];
+        for (int i = 0; i < keyRows.length; i++) {
+            keyRows[i] = table.getKeyRow(i);
+        }
+        DataGrouping grouping = HashGroupUtil.createGrouping(df, rowGroups, keyRows, keyColumns);
+        int a = 0;
+        for (String name : accumulators.keySet()) {
+            Accumulator global = globalAccumulators.get(a++);
+            global.grow(keyRows.length);
+            grouping.addColumn(global.finish(name));
+        }
+        return grouping;
+    }
+
+    private List<Range> invokeAll(List<Callable<Range>> tasks) {
+        List<Range> results = new ArrayList<>();
+        try {
+            for (Future<Range> future : executor.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataFrameRuntimeException("parallel grouping interrupted", e);
+        } catch (ExecutionException e) {
+            throw new DataFrameRuntimeException("error in parallel grouping", e.getCause());
+        }
+        return results;
+    }
+
+    private static class Range {
+        private final int from;
+        private final int to;
+        private GroupTable table;
+        private List<Accumulator> accumulators;
+        private int[] globalIds;
+
+        private Range(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        private Range group(DataFrame df, GroupTable keys, int[] rowGroups, Map<String, Accumulator> templates) {
+            table = keys.newTable(Math.min(to - from, EXPECTED_GROUPS));
+            accumulators = new ArrayList<>();
+            for (Accumulator template : templates.values()) {
+                Accumulator accumulator = template.copy();
+                accumulator.init(df, 0);
+                accumulators.add(accumulator);
+            }
+            for (int row = from; row < to; row++) {
+                int id = table.put(row);
+                rowGroups[row] = id;
+                for (Accumulator accumulator : accumulators) {
+                    accumulator.grow(table.size());
+                    accumulator.accumulate(id, row);
+                }
+            }
+            return this;
+        }
+
+        private Range remap(int[] rowGroups) {
+            for (int row = from; row < to; row++) {
+                rowGroups[row] = globalIds[rowGroups[row]];
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,349 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.group.impl;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.DataFrameRuntimeException;
+import de.unknownreality.dataframe.DefaultDataFrame;
+import de.unknownreality.dataframe.group.aggr.Accumulator;
+import de.unknownreality.dataframe.hash.RowHash;
+import de.unknownreality.dataframe.hash.RowHashTable;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Aggregates data frames that are added in chunks, using temporary files if the groups do not fit into memory.
+ * <p>
+ * Each chunk is grouped and aggregated on its own, the partial states are then merged into an in-memory table.
+ * If the table exceeds the maximal number of groups, all states are written to temporary files,
+ * partitioned by the hash of their group values, and the table is cleared.
+ * {@link #finish()} merges the states of each partition in turn, so at most one partition is kept in memory.
+ * </p>
+ * <p>
+ * The groups in the result are not ordered. The temporary files are deleted by {@link #finish()} or {@link #close()}.
+ * If adding a chunk fails after states were spilled, the aggregator is closed and rejects further calls.
+ * </p>
+ * <p><code>
+ * try (SpillingAggregator aggregator = new SpillingAggregator(new String[]{"session"}, accumulators, 1000000)) {<br>
+ * &nbsp;&nbsp;for (DataFrame chunk : chunks) { aggregator.add(chunk); }<br>
+ * &nbsp;&nbsp;DataFrame result = aggregator.finish();<br>
+ * }
+ * </code></p>
+ */
+public class SpillingAggregator implements AutoCloseable {
+    private static final int DEFAULT_PARTITIONS = 16;
+    private static final int EXPECTED_GROUPS = 1024;
+    private final String[] groupColumns;
+    private final String[] names;
+    private final Accumulator[] templates;
+    private final int maxGroups;
+    private final int partitionCount;
+    private final File tempDirectory;
+
+    private final Map<List<Comparable>, Integer> table = new HashMap<>();
+    private final List<List<Comparable>> keys = new ArrayList<>();
+    private DataFrame template;
+    private Accumulator[] accumulators;
+    private File[] partitionFiles;
+    private ObjectOutputStream[] partitionOutputs;
+    private boolean closed = false;
+
+    /**
+     * Creates a spilling aggregator using temporary files in the default temporary directory
+     *
+     * @param groupColumns grouping columns
+     * @param accumulators accumulators by aggregate column name
+     * @param maxGroups    maximal number of groups kept in memory
+     */
+    public SpillingAggregator(String[] groupColumns, Map<String, Accumulator> accumulators, int maxGroups) {
+        this(groupColumns, accumulators, maxGroups, DEFAULT_PARTITIONS, null);
+    }
+
+    /**
+     * Creates a spilling aggregator
+     *
+     * @param groupColumns   grouping columns
+     * @param accumulators   accumulators by aggregate column name
+     * @param maxGroups      maximal number of groups kept in memory
+     * @param partitionCount number of partitions the states are written to
+     * @param tempDirectory  directory for the temporary files, <tt>null</tt> for the default temporary directory
+     */
+    public SpillingAggregator(String[] groupColumns, Map<String, Accumulator> accumulators, int maxGroups,
+                              int partitionCount, File tempDirectory) {
+        if (groupColumns.length == 0) {
+            throw new DataFrameRuntimeException("at least one grouping column is required");
+        }
+        if (maxGroups < 1 || partitionCount < 1) {
+            throw new DataFrameRuntimeException("maximal number of groups and partition count must be at least 1");
+        }
+        this.groupColumns = groupColumns;
+        this.names = accumulators.keySet().toArray(new String[0]);
+        this.templates = accumulators.values().toArray(new Accumulator[0]);
+        this.maxGroups = maxGroups;
+        this.partitionCount = partitionCount;
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * Aggregates the rows of a data frame.
+     * All chunks must contain the grouping columns and the columns used by the accumulators with the same types.
+     *
+     * @param chunk data frame chunk
+     * @return <tt>self</tt> for method chaining
+     */
+    public SpillingAggregator add(DataFrame chunk) {
+        validateOpen();
+        try {
+            aggregate(chunk);
+        } catch (RuntimeException e) {
+            // the spilled states can not be completed anymore
+            if (isSpilled()) {
+                close();
+            }
+            throw e;
+        }
+        return this;
+    }
+
+    private void aggregate(DataFrame chunk) {
+        DataFrameColumn[] keyColumns = RowHash.getKeyColumns(chunk, groupColumns);
+        if (template == null) {
+            template = createTemplate(chunk);
+            accumulators = createAccumulators(template, 0);
+        }
+        int size = chunk.size();
+        long[] hashes = RowHash.hashRows(keyColumns, size);
+        RowHashTable local = new RowHashTable(keyColumns, Math.min(size, EXPECTED_GROUPS));
+        Accumulator[] localAccumulators = new Accumulator[templates.length];
+        for (int a = 0; a < templates.length; a++) {
+            localAccumulators[a] = templates[a].copy();
+            localAccumulators[a].init(chunk, 0);
+        }
+        for (int row = 0; row < size; row++) {
+            int id = local.put(row, hashes[row]);
+            for (Accumulator accumulator : localAccumulators) {
+                accumulator.grow(local.size());
+                accumulator.accumulate(id, row);
+            }
+        }
+        for (int id = 0; id < local.size(); id++) {
+            int keyRow = local.getKeyRow(id);
+            List<Comparable> key = new ArrayList<>(keyColumns.length);
+            for (DataFrameColumn column : keyColumns) {
+                key.add(column.isNA(keyRow) ? null : column.get(keyRow));
+            }
+            int group = findOrAdd(key);
+            for (int a = 0; a < accumulators.length; a++) {
+                accumulators[a].merge(group, localAccumulators[a], id);
+            }
+            if (keys.size() > maxGroups) {
+                spill();
+            }
+        }
+    }
+
+    /**
+     * Returns <tt>true</tt> if states have been written to temporary files
+     *
+     * @return <tt>true</tt> if states have been spilled
+     */
+    public boolean isSpilled() {
+        return partitionFiles != null;
+    }
+
+    /**
+     * Merges all states and returns a data frame containing the grouping columns and the aggregate columns
+     *
+     * @return aggregated data frame
+     */
+    public DataFrame finish() {
+        validateOpen();
+        closed = true;
+        if (template == null) {
+            throw new DataFrameRuntimeException("no data frame was added");
+        }
+        if (!isSpilled()) {
+            return createResult();
+        }
+        spill();
+        List<DataFrame> partitions = new ArrayList<>();
+        try {
+            for (ObjectOutputStream out : partitionOutputs) {
+                out.writeBoolean(false);
+                out.close();
+            }
+            // spilled states come from other chunks, bind them to another frame than the table accumulators
+            Accumulator[] scratch = createAccumulators(createTemplate(template), 1);
+            for (File file : partitionFiles) {
+                try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                    while (in.readBoolean()) {
+                        List<Comparable> key = new ArrayList<>(groupColumns.length);
+                        for (int i = 0; i < groupColumns.length; i++) {
+                            key.add((Comparable) in.readObject());
+                        }
+                        int group = findOrAdd(key);
+                        for (int a = 0; a < accumulators.length; a++) {
+                            scratch[a].readState(0, in);
+                            accumulators[a].merge(group, scratch[a], 0);
+                        }
+                    }
+                }
+                partitions.add(createResult());
+                clear();
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            throw new DataFrameRuntimeException("error reading spilled aggregation states", e);
+        } finally {
+            deleteFiles();
+        }
+        DataFrame result = partitions.get(0);
+        return result.concat(partitions.subList(1, partitions.size()));
+    }
+
+    /**
+     * Closes all temporary files and deletes them.
+     * The aggregator can not be used afterwards, calling this method again has no effect.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        deleteFiles();
+    }
+
+    private void validateOpen() {
+        if (closed) {
+            throw new DataFrameRuntimeException("aggregation is already finished or closed");
+        }
+    }
+
+    private int findOrAdd(List<Comparable> key) {
+        Integer group = table.get(key);
+        if (group == null) {
+            group = keys.size();
+            table.put(key, group);
+            keys.add(key);
+            for (Accumulator accumulator : accumulators) {
+                accumulator.grow(keys.size());
+            }
+        }
+        return group;
+    }
+
+    private Accumulator[] createAccumulators(DataFrame source, int groupCount) {
+        Accumulator[] created = new Accumulator[templates.length];
+        for (int a = 0; a < templates.length; a++) {
+            created[a] = templates[a].copy();
+            created[a].init(source, groupCount);
+        }
+        return created;
+    }
+
+    private static DataFrame createTemplate(DataFrame dataFrame) {
+        DataFrame emptyFrame = new DefaultDataFrame();
+        for (String name : dataFrame.getColumnNames()) {
+            emptyFrame.addColumn(dataFrame.getColumn(name).copyEmpty());
+        }
+        return emptyFrame;
+    }
+
+    private void spill() {
+        try {
+            if (partitionFiles == null) {
+                partitionFiles = new File[partitionCount];
+                partitionOutputs = new ObjectOutputStream[partitionCount];
+                for (int p = 0; p < partitionCount; p++) {
+                    partitionFiles[p] = File.createTempFile("aggregation_" + p + "_", ".tmp", tempDirectory);
+                    partitionOutputs[p] = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(partitionFiles[p])));
+                }
+            }
+            for (int group = 0; group < keys.size(); group++) {
+                List<Comparable> key = keys.get(group);
+                ObjectOutputStream out = partitionOutputs[(key.hashCode() & Integer.MAX_VALUE) % partitionCount];
+                out.writeBoolean(true);
+                for (Comparable value : key) {
+                    out.writeObject(value);
+                }
+                for (Accumulator accumulator : accumulators) {
+                    accumulator.writeState(group, out);
+                }
+                out.reset();
+            }
+        } catch (IOException e) {
+            close();
+            throw new DataFrameRuntimeException("error writing aggregation states", e);
+        }
+        clear();
+    }
+
+    private void clear() {
+        table.clear();
+        keys.clear();
+        accumulators = createAccumulators(template, 0);
+    }
+
+    private void deleteFiles() {
+        if (partitionFiles == null) {
+            return;
+        }
+        for (int p = 0; p < partitionCount; p++) {
+            try {
+                if (partitionOutputs[p] != null) {
+                    partitionOutputs[p].close();
+                }
+            } catch (IOException e) {
+                // already closed or broken, the file is deleted anyway
+            }
+            if (partitionFiles[p] != null) {
+                partitionFiles[p].delete();
+            }
+        }
+        partitionFiles = null;
+        partitionOutputs = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private DataFrame createResult() {
+        DataFrame result = new DefaultDataFrame();
+        for (int i = 0; i < groupColumns.length; i++) {
+            DataFrameColumn column = template.getColumn(groupColumns[i]).copyEmpty();
+            for (List<Comparable> key : keys) {
+                Comparable value = key.get(i);
+                if (value == null) {
+                    column.appendNA();
+                } else {
+                    column.append(value);
+                }
+            }
+            result.addColumn(column);
+        }
+        for (int a = 0; a < accumulators.length; a++) {
+            accumulators[a].grow(keys.size());
+            result.addColumn(accumulators[a].finish(names[a]));
+        }
+        return result;
+    }
+}
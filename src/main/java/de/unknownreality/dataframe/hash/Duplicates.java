@@ -0,0 +1,78 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.hash;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
+
+import java.util.Arrays;
+
+/**
+ * Finds distinct rows of a data frame using a {@link RowHashTable}.
+ */
+public class Duplicates {
+    /**
+     * Specifies which row of a set of duplicates is kept
+     */
+    public enum Keep {
+        First,
+        Last
+    }
+
+    /**
+     * Returns the indices of the rows that are kept when duplicates are removed.
+     * Rows are duplicates if they have equal values in all specified columns.
+     * If no columns are specified, all columns are used.
+     * The returned indices are in ascending order.
+     *
+     * @param dataFrame input data frame
+     * @param keep      row of each set of duplicates that is kept
+     * @param columns   columns compared to find duplicates
+     * @return indices of the kept rows
+     */
+    public static int[] findDistinctRows(DataFrame dataFrame, Keep keep, String... columns) {
+        DataFrameColumn[] keyColumns = RowHash.getKeyColumns(dataFrame, columns);
+        int size = dataFrame.size();
+        long[] hashes = RowHash.hashRows(keyColumns, size);
+        RowHashTable table = new RowHashTable(keyColumns, Math.min(size, 1 << 16));
+        if (keep == Keep.First) {
+            for (int row = 0; row < size; row++) {
+                table.put(row, hashes[row]);
+            }
+            int[] rows = new int[table.size()];
+            for (int id = 0; id < rows.length; id++) {
+                rows[id] = table.getKeyRow(id);
+            }
+            return rows;
+        }
+        int[] lastRows = new int[size];
+        for (int row = 0; row < size; row++) {
+            lastRows[table.put(row, hashes[row])] = row;
+        }
+        int[] rows = Arrays.copyOf(lastRows, table.size());
+        Arrays.sort(rows);
+        return rows;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.hash;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
+
+import java.util.Arrays;
+
+/**
+ * Computes 64 bit hashes of rows over a subset of columns.
+ * <p>
+ * Each column mixes the hashes of its values into an accumulator array using {@link DataFrameColumn#hashInto(long[])}.
+ * The mixing steps follow MurmurHash3 and only depend on the values, never on object identity,
+ * so row hashes are stable across processes and can be used for sharding or change detection.
+ * </p>
+ */
+public class RowHash {
+    public static final long SEED = 0x9E3779B97F4A7C15L;
+    public static final long NA_HASH = 0x5BD1E9955BD1E995L;
+    private static final long C1 = 0x87C37B91114253D5L;
+    private static final long C2 = 0x4CF5AD432745937FL;
+
+    /**
+     * Computes the hashes of all rows of a data frame over the specified columns.
+     * If no columns are specified, all columns are used.
+     *
+     * @param dataFrame input data frame
+     * @param columns   key columns
+     * @return row hashes
+     */
+    public static long[] hashRows(DataFrame dataFrame, String... columns) {
+        return hashRows(getKeyColumns(dataFrame, columns), dataFrame.size());
+    }
+
+    /**
+     * Returns the columns of a data frame with the specified names.
+     * If no names are specified, all columns are returned.
+     *
+     * @param dataFrame input data frame
+     * @param columns   column names
+     * @return columns
+     */
+    public static DataFrameColumn[] getKeyColumns(DataFrame dataFrame, String... columns) {
+        if (columns.length == 0) {
+            columns = dataFrame.getColumnNames().toArray(new String[0]);
+        }
+        DataFrameColumn[] keyColumns = new DataFrameColumn[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            keyColumns[i] = dataFrame.getColumn(columns[i], DataFrameColumn.class);
+        }
+        return keyColumns;
+    }
+
+    /**
+     * Computes the hashes of the first <tt>size</tt> rows of the specified columns
+     *
+     * @param columns key columns
+     * @param size    number of rows
+     * @return row hashes
+     */
+    public static long[] hashRows(DataFrameColumn[] columns, int size) {
+        return hashRows(columns, 0, size);
+    }
+
+    /**
+     * Computes the hashes of a range of rows of the specified columns.
+     * The hash of row <tt>from + i</tt> is stored at index <tt>i</tt>.
+     *
+     * @param columns key columns
+     * @param from    first row (inclusive)
+     * @param to      last row (exclusive)
+     * @return row hashes
+     */
+    public static long[] hashRows(DataFrameColumn[] columns, int from, int to) {
+        long[] hashes = new long[to - from];
+        Arrays.fill(hashes, SEED);
+        for (DataFrameColumn column : columns) {
+            column.hashInto(hashes, from, to);
+        }
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = mix(hashes[i] ^ columns.length);
+        }
+        return hashes;
+    }
+
+    /**
+     * Mixes the hash of a value into an accumulated hash
+     *
+     * @param acc       accumulated hash
+     * @param valueHash hash of the value
+     * @return new accumulated hash
+     */
+    public static long combine(long acc, long valueHash) {
+        valueHash *= C1;
+        valueHash = Long.rotateLeft(valueHash, 31);
+        valueHash *= C2;
+        acc ^= valueHash;
+        acc = Long.rotateLeft(acc, 27);
+        return acc * 5 + 0x52DCE729;
+    }
+
+    /**
+     * Computes a 64 bit hash of the characters of a string
+     *
+     * @param value input string
+     * @return string hash
+     */
+    public static long hashString(String value) {
+        long hash = SEED ^ value.length();
+        for (int i = 0; i < value.length(); i++) {
+            hash = combine(hash, value.charAt(i));
+        }
+        return mix(hash);
+    }
+
+    /**
+     * Final mixing step of the 64 bit MurmurHash3 function
+     *
+     * @param hash input value
+     * @return mixed value
+     */
+    public static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.hash;
+
+import de.unknownreality.dataframe.DataFrameColumn;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash table that assigns ids to distinct key rows.
+ * <p>
+ * The keys are the values of one or more columns at a row.
+ * Only row indices are stored, the key values are read from the columns
+ * whenever two rows have the same hash and have to be compared.
+ * {@link de.unknownreality.dataframe.Values#NA NA} values are equal to each other.
+ * </p>
+ */
+public class RowHashTable {
+    private static final int EMPTY = -1;
+    private static final double LOAD_FACTOR = 0.5;
+
+    private final DataFrameColumn[] columns;
+    private int[] slots;
+    private int mask;
+    private int[] keyRows;
+    private long[] keyHashes;
+    private int keyCount = 0;
+
+    /**
+     * Creates a hash table for key columns
+     *
+     * @param columns      key columns
+     * @param expectedKeys expected number of distinct keys
+     */
+    public RowHashTable(DataFrameColumn[] columns, int expectedKeys) {
+        this.columns = columns;
+        int capacity = Integer.highestOneBit(Math.max(16, (int) Math.min(1 << 30, expectedKeys / LOAD_FACTOR)) * 2 - 1);
+        this.slots = new int[capacity];
+        Arrays.fill(slots, EMPTY);
+        this.mask = capacity - 1;
+        this.keyRows = new int[Math.max(16, expectedKeys)];
+        this.keyHashes = new long[keyRows.length];
+    }
+
+    /**
+     * Returns the id of the key at a row of the key columns.
+     * If the key is not yet contained, it is added and a new id is returned.
+     * Ids are assigned consecutively starting with <tt>0</tt>.
+     *
+     * @param row  row of the key columns
+     * @param hash hash of the key row
+     * @return id of the key
+     */
+    public int put(int row, long hash) {
+        int slot = (int) hash & mask;
+        while (slots[slot] != EMPTY) {
+            int id = slots[slot];
+            if (keyHashes[id] == hash && equals(columns, row, keyRows[id])) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (keyCount == keyRows.length) {
+            keyRows = Arrays.copyOf(keyRows, keyRows.length * 2);
+            keyHashes = Arrays.copyOf(keyHashes, keyRows.length);
+        }
+        int id = keyCount++;
+        keyRows[id] = row;
+        keyHashes[id] = hash;
+        slots[slot] = id;
+        if (keyCount > slots.length * LOAD_FACTOR) {
+            resize();
+        }
+        return id;
+    }
+
+    /**
+     * Returns the id of a key given by the values of probe columns at a row.
+     * The probe columns must correspond to the key columns of this table.
+     *
+     * @param probeColumns probe columns
+     * @param row          row of the probe columns
+     * @param hash         hash of the probe row
+     * @return id of the key or <tt>-1</tt> if the key is not contained
+     */
+    public int find(DataFrameColumn[] probeColumns, int row, long hash) {
+        int slot = (int) hash & mask;
+        while (slots[slot] != EMPTY) {
+            int id = slots[slot];
+            if (keyHashes[id] == hash && equals(probeColumns, row, keyRows[id])) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of distinct keys
+     *
+     * @return number of keys
+     */
+    public int size() {
+        return keyCount;
+    }
+
+    /**
+     * Returns the row that first added a key
+     *
+     * @param id id of the key
+     * @return row of the key
+     */
+    public int getKeyRow(int id) {
+        return keyRows[id];
+    }
+
+    private boolean equals(DataFrameColumn[] probeColumns, int probeRow, int keyRow) {
+        for (int i = 0; i < columns.length; i++) {
+            boolean probeNA = probeColumns[i].isNA(probeRow);
+            boolean keyNA = columns[i].isNA(keyRow);
+            if (probeNA || keyNA) {
+                if (probeNA != keyNA) {
+                    return false;
+                }
+                continue;
+            }
+            if (!probeColumns[i].get(probeRow).equals(columns[i].get(keyRow))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void resize() {
+        slots = new int[slots.length * 2];
+        Arrays.fill(slots, EMPTY);
+        mask = slots.length - 1;
+        for (int id = 0; id < keyCount; id++) {
+            int slot = (int) keyHashes[id] & mask;
+            while (slots[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id;
+        }
+    }
+}
@@ -39,7 +39,9 @@ public class Indices {
 
     private final Map<String, Index> indexMap = new HashMap<>();
     private final Map<DataFrameColumn, List<Index>> columnIndexMap = new WeakHashMap<>();
+    private final Set<Index> dirtyIndices = new HashSet<>();
     private final DataFrame dataFrame;
+    private boolean lazy = false;
     /**
      * Creates an index for a data frame
      *
@@ -49,6 +51,72 @@ public class Indices {
         this.dataFrame = dataFrame;
     }
 
+    /**
+     * Enables or disables lazy index updates.
+     * If lazy updates are enabled, changes of complete index columns only mark the affected indices as dirty.
+     * Dirty indices are rebuilt when they are used for the next lookup.
+     * Disabling lazy updates rebuilds all dirty indices immediately.
+     *
+     * @param lazy <tt>true</tt> to enable lazy index updates
+     */
+    public void setLazy(boolean lazy) {
+        this.lazy = lazy;
+        if (!lazy) {
+            rebuildDirty();
+        }
+    }
+
+    /**
+     * Returns <tt>true</tt> if lazy index updates are enabled
+     *
+     * @return <tt>true</tt> if lazy index updates are enabled
+     * @see #setLazy(boolean)
+     */
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    /**
+     * Returns <tt>true</tt> if the specified index has to be rebuilt before its next use.
+     *
+     * @param name name of the index
+     * @return <tt>true</tt> if the index is dirty
+     */
+    public boolean isDirty(String name) {
+        Index index = indexMap.get(name);
+        return index != null && dirtyIndices.contains(index);
+    }
+
+    /**
+     * Rebuilds all dirty indices within a single pass over the data frame rows.
+     */
+    public void rebuildDirty() {
+        if (dirtyIndices.isEmpty()) {
+            return;
+        }
+        for (Index index : dirtyIndices) {
+            index.clear();
+        }
+        for (DataRow row : dataFrame) {
+            for (Index index : dirtyIndices) {
+                index.update(row);
+            }
+        }
+        dirtyIndices.clear();
+    }
+
+    private Index getCleanIndex(String name) {
+        Index index = indexMap.get(name);
+        if (index != null && dirtyIndices.contains(index)) {
+            index.clear();
+            for (DataRow row : dataFrame) {
+                index.update(row);
+            }
+            dirtyIndices.remove(index);
+        }
+        return index;
+    }
+
     /**
      * Returns <tt>true</tt> if the specified column is part of at least one index.
      *
@@ -76,6 +144,11 @@ public class Indices {
         }
         columnIndexMap.remove(existing);
         columnIndexMap.put(replacement,existingIndices);
+        if (lazy) {
+            dirtyIndices.addAll(existingIndices);
+            return;
+        }
+        dirtyIndices.removeAll(existingIndices);
         for(DataRow row : dataFrame){
             for(Index idx : existingIndices){
                 idx.update(row);
@@ -114,7 +187,9 @@ public class Indices {
      */
     public void update(DataRow dataRow) {
         for (Index index : indexMap.values()) {
-            index.update(dataRow);
+            if (!dirtyIndices.contains(index)) {
+                index.update(dataRow);
+            }
         }
     }
 
@@ -126,10 +201,33 @@ public class Indices {
      * @return row numbers matching the row values
      */
     public Collection<Integer> find(String name, Comparable... values) {
-        if (!indexMap.containsKey(name)) {
+        Index index = getCleanIndex(name);
+        if (index == null) {
             throw new DataFrameRuntimeException(String.format("index not found'%s'", name));
         }
-        return indexMap.get(name).find(values);
+        return index.find(values);
+    }
+
+    /**
+     * Returns the index that is based on exactly the specified columns, in any order.
+     * The primary key is preferred if it is based on the columns.
+     * A dirty index is rebuilt before it is returned.
+     *
+     * @param columns index columns
+     * @return index based on the columns or <tt>null</tt> if no such index exists
+     */
+    public Index findIndex(Collection<DataFrameColumn> columns) {
+        Index found = null;
+        for (Index index : indexMap.values()) {
+            List<DataFrameColumn> indexColumns = index.getColumns();
+            if (indexColumns.size() != columns.size() || !indexColumns.containsAll(columns)) {
+                continue;
+            }
+            if (found == null || PRIMARY_KEY_NAME.equals(index.getName())) {
+                found = index;
+            }
+        }
+        return found == null ? null : getCleanIndex(found.getName());
     }
 
     /**
@@ -152,7 +250,7 @@ public class Indices {
      * @return row number matching the row values
      */
     public Integer findByPrimaryKey(Comparable... values) {
-        Index primaryKey = indexMap.get(PRIMARY_KEY_NAME);
+        Index primaryKey = getCleanIndex(PRIMARY_KEY_NAME);
         if (primaryKey == null) {
             throw new DataFrameRuntimeException("no primaryKey found");
         }
@@ -203,6 +301,10 @@ public class Indices {
             }
             indexList.add(index);
         }
+        if (lazy) {
+            dirtyIndices.add(index);
+            return;
+        }
         for (DataRow row : dataFrame) {
             index.update(row);
         }
@@ -238,6 +340,53 @@ public class Indices {
         for (Index index : indexMap.values()) {
             index.clear();
         }
+        dirtyIndices.clear();
+    }
+
+    /**
+     * Updates all indices after the rows of the data frame were reordered.
+     * If lazy updates are enabled, the indices are only marked as dirty, otherwise they are rebuilt.
+     */
+    public void reorder() {
+        if (lazy) {
+            dirtyIndices.addAll(indexMap.values());
+            return;
+        }
+        rebuild();
+    }
+
+    /**
+     * Clears all indices and adds all rows of the data frame again.
+     * All indices are filled within a single pass over the data frame rows.
+     */
+    public void rebuild() {
+        rebuild(false);
+    }
+
+    /**
+     * Clears all indices and adds all rows of the data frame again.
+     * If <tt>parallel</tt> is <tt>true</tt> and more than one index exists, each index is rebuilt in its own task.
+     *
+     * @param parallel rebuild the indices in parallel
+     */
+    public void rebuild(boolean parallel) {
+        if (indexMap.isEmpty()) {
+            return;
+        }
+        clearValues();
+        if (parallel && indexMap.size() > 1) {
+            indexMap.values().parallelStream().forEach(index -> {
+                for (DataRow row : dataFrame) {
+                    index.update(row);
+                }
+            });
+            return;
+        }
+        for (DataRow row : dataFrame) {
+            for (Index index : indexMap.values()) {
+                index.update(row);
+            }
+        }
     }
 
 
@@ -252,13 +401,16 @@ public class Indices {
             return;
         }
         for (Index indexObject : columnIndexMap.get(column)) {
-            indexObject.update(dataRow);
+            if (!dirtyIndices.contains(indexObject)) {
+                indexObject.update(dataRow);
+            }
         }
     }
 
     /**
      * Updates all indices that contain a certain row.
-     * All rows in the data frame are updated
+     * All rows in the data frame are updated.
+     * If lazy updates are enabled, the indices are only marked as dirty.
      *
      * @param column update column
      */
@@ -267,6 +419,11 @@ public class Indices {
             return;
         }
         Collection<Index> columnIndices = columnIndexMap.get(column);
+        if (lazy) {
+            dirtyIndices.addAll(columnIndices);
+            return;
+        }
+        dirtyIndices.removeAll(columnIndices);
         for (Index indexObject : columnIndices) {
             indexObject.clear();
         }
@@ -299,6 +456,7 @@ public class Indices {
             return;
         }
         indexMap.remove(name);
+        dirtyIndices.remove(index);
         for (DataFrameColumn column : index.getColumns()) {
             List<Index> colIndices = columnIndexMap.get(column);
             colIndices.remove(index);
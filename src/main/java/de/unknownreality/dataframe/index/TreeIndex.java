@@ -167,7 +167,7 @@ public class TreeIndex implements Index {
         if (node == null || !node.hasIndices()) {
             return new ArrayList<>(0);
         }
-        return node.getIndices();
+        return Collections.unmodifiableCollection(node.getIndices());
     }
 
 
@@ -229,7 +229,8 @@ public class TreeIndex implements Index {
         }
 
         public TreeNode getChild(Comparable value) {
-            return getChildrenMap().get(value);
+            // lookups must not modify the tree, so concurrent readers are safe
+            return children == null ? null : children.get(value);
         }
 
         public void removeChild(TreeNode child) {
@@ -25,6 +25,7 @@
 package de.unknownreality.dataframe.join.impl;
 
 import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
 import de.unknownreality.dataframe.DataFrameHeader;
 import de.unknownreality.dataframe.DataRow;
 import de.unknownreality.dataframe.Values;
@@ -128,6 +129,55 @@ public abstract class AbstractJoinOperation {
     }
 
 
+    /**
+     * Creates the joined data frame from matched row index pairs by gathering the columns of both data frames.
+     * A row index of <tt>-1</tt> results in {@link Values#NA NA} values for the columns of that data frame,
+     * except for the join columns, which then contain the values of the other data frame.
+     *
+     * @param dfA         first data frame
+     * @param dfB         second data frame
+     * @param joinColumns columns used for the join
+     * @param suffixA     suffix used for headers from the first data frame
+     * @param suffixB     suffix used for headers from the second data frame
+     * @param rowsA       row index in the first data frame of each joined row
+     * @param rowsB       row index in the second data frame of each joined row
+     * @return joined data frame
+     */
+    @SuppressWarnings("unchecked")
+    protected JoinedDataFrame createJoinedDataFrame(DataFrame dfA, DataFrame dfB, JoinColumn[] joinColumns,
+                                                    String suffixA, String suffixB, int[] rowsA, int[] rowsB) {
+        DataFrameHeader joinHeader = new DataFrameHeader();
+        JoinInfo joinInfo = fillJoinHeader(joinHeader, dfA, dfB, joinColumns, suffixA, suffixB);
+        Map<String, String> joinColumnsAToB = new HashMap<>();
+        for (JoinColumn joinColumn : joinColumns) {
+            joinColumnsAToB.put(joinColumn.getColumnA(), joinColumn.getColumnB());
+        }
+        JoinedDataFrame joinedDataFrame = new JoinedDataFrame(joinInfo);
+        for (String name : dfA.getHeader()) {
+            DataFrameColumn column = dfA.getColumn(name).gather(rowsA);
+            String nameB = joinColumnsAToB.get(name);
+            if (nameB != null) {
+                DataFrameColumn columnB = dfB.getColumn(nameB);
+                for (int i = 0; i < rowsA.length; i++) {
+                    if (rowsA[i] == -1 && rowsB[i] != -1 && !columnB.isNA(rowsB[i])) {
+                        column.set(i, columnB.get(rowsB[i]));
+                    }
+                }
+            }
+            column.setName(joinInfo.getJoinedHeaderA(name));
+            joinedDataFrame.addColumn(column);
+        }
+        for (String name : dfB.getHeader()) {
+            if (joinColumnsAToB.containsValue(name)) {
+                continue;
+            }
+            DataFrameColumn column = dfB.getColumn(name).gather(rowsB);
+            column.setName(joinInfo.getJoinedHeaderB(name));
+            joinedDataFrame.addColumn(column);
+        }
+        return joinedDataFrame;
+    }
+
     /**
      * Fills the join values of the first data frame into an values array
      *
@@ -168,7 +218,22 @@ public abstract class AbstractJoinOperation {
      * @param joinedRows list of rows for the joined data frame
      */
     public void appendGroupJoinedRows(DataGroup group, DataFrame dfA, DataFrame dfB, DataRow rowA, JoinInfo joinInfo, DataFrameHeader joinHeader, List<DataRow> joinedRows) {
-        for (DataRow rowB : group) {
+        appendJoinedRows(group, dfA, dfB, rowA, joinInfo, joinHeader, joinedRows);
+    }
+
+    /**
+     * Appends the joined rows resulting from a row from one data frame and matching rows from the other data frame
+     *
+     * @param rowsB      matching rows of the other data frame
+     * @param dfA        first data frame
+     * @param dfB        second data frame
+     * @param rowA       row from the other data frame  (not the same as the matching rows)
+     * @param joinInfo   info about the join
+     * @param joinHeader resulting data frame header
+     * @param joinedRows list of rows for the joined data frame
+     */
+    public void appendJoinedRows(Iterable<DataRow> rowsB, DataFrame dfA, DataFrame dfB, DataRow rowA, JoinInfo joinInfo, DataFrameHeader joinHeader, List<DataRow> joinedRows) {
+        for (DataRow rowB : rowsB) {
             Comparable[] joinedRowValues = new Comparable[joinHeader.size()];
             fillValues(dfA, rowA, joinInfo, joinedRowValues);
             fillValues(dfB, rowB, joinInfo, joinedRowValues);
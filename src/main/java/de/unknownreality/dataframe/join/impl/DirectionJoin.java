@@ -38,6 +38,10 @@ import java.util.List;
 
 /**
  * Created by Alex on 10.07.2016.
+ * <p>
+ * If the data frame whose rows are looked up has an index or primary key on exactly the join columns,
+ * matching rows are found using the index instead of grouping that data frame.
+ * </p>
  */
 public abstract class DirectionJoin extends AbstractJoinOperation {
     /**
@@ -58,22 +62,30 @@ public abstract class DirectionJoin extends AbstractJoinOperation {
         }
         List<DataRow> joinedRows = new ArrayList<>();
         Comparable[] groupValues = new Comparable[joinColumns.length];
-        DataGrouping joinedGroups = dfB.groupBy(groupColumns);
+        IndexLookup indexLookup = IndexLookup.create(dfB, groupColumns);
+        DataGrouping joinedGroups = indexLookup == null ? dfB.groupBy(groupColumns) : null;
         for (DataRow row : dfA) {
             if (joinInfo.isA(dfA)) {
                 setGroupValuesA(groupValues, row, joinColumns);
             } else {
                 setGroupValuesB(groupValues, row, joinColumns);
             }
-            GroupRow groupRow = joinedGroups.findByGroupValues((Comparable[]) groupValues);
-            if (groupRow == null) {
+            Iterable<DataRow> matchingRows;
+            if (indexLookup != null) {
+                List<DataRow> foundRows = indexLookup.find(groupValues);
+                matchingRows = foundRows.isEmpty() ? null : foundRows;
+            } else {
+                GroupRow groupRow = joinedGroups.findByGroupValues((Comparable[]) groupValues);
+                matchingRows = groupRow == null ? null : groupRow.getGroup();
+            }
+            if (matchingRows == null) {
                 Comparable[] joinedRowValues = new Comparable[joinHeader.size()];
                 fillValues(dfA, row, joinInfo, joinedRowValues);
                 fillNA(joinedRowValues);
                 DataRow joinedRow = new DataRow(joinHeader, joinedRowValues, joinedRows.size());
                 joinedRows.add(joinedRow);
             } else {
-                appendGroupJoinedRows(groupRow.getGroup(), dfA, dfB, row, joinInfo, joinHeader, joinedRows);
+                appendJoinedRows(matchingRows, dfA, dfB, row, joinInfo, joinHeader, joinedRows);
             }
         }
         JoinedDataFrame joinedDataFrame = new JoinedDataFrame(joinInfo);
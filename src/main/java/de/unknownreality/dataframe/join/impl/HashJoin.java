@@ -0,0 +1,118 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.join.impl;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.hash.RowHash;
+import de.unknownreality.dataframe.join.JoinColumn;
+import de.unknownreality.dataframe.join.JoinType;
+import de.unknownreality.dataframe.join.JoinedDataFrame;
+
+/**
+ * Joins two data frames using a hash table on the join columns.
+ * <p>
+ * The table is built on the smaller data frame, it maps each distinct key to the row indices with that key.
+ * The rows of the other data frame are hashed column-wise and probed against the table.
+ * Only pairs of matched row indices are collected, the joined data frame is created by gathering
+ * the columns of both data frames at these rows. No rows are copied as value arrays and neither data frame is sorted.
+ * </p>
+ * <p>
+ * The result equals the result of the {@link DefaultJoinUtil default join operations}:
+ * rows are ordered by the preserved data frame (the first data frame for inner joins),
+ * matching rows of the other data frame in their original order.
+ * {@link de.unknownreality.dataframe.Values#NA NA} keys match each other.
+ * </p>
+ */
+public class HashJoin extends AbstractJoinOperation {
+    private final JoinType type;
+
+    protected HashJoin(JoinType type) {
+        this.type = type;
+    }
+
+    /**
+     * Joins two data frames using the join type of this operation
+     *
+     * @param dfA         first data frame
+     * @param dfB         second data frame
+     * @param joinSuffixA suffix used for columns from the first data frame
+     * @param joinSuffixB suffix used for columns from the second data frame
+     * @param joinColumns columns used for the join
+     * @return joined data frame
+     */
+    @Override
+    public JoinedDataFrame join(DataFrame dfA, DataFrame dfB, String joinSuffixA, String joinSuffixB, JoinColumn... joinColumns) {
+        JoinPairs pairs = findPairs(dfA, dfB, joinColumns);
+        return createJoinedDataFrame(dfA, dfB, joinColumns, joinSuffixA, joinSuffixB, pairs.getRowsA(), pairs.getRowsB());
+    }
+
+    /**
+     * Returns the join type of this operation
+     *
+     * @return join type
+     */
+    public JoinType getType() {
+        return type;
+    }
+
+    private JoinPairs findPairs(DataFrame dfA, DataFrame dfB, JoinColumn[] joinColumns) {
+        DataFrameColumn[] keysA = getJoinColumns(dfA, joinColumns, true);
+        DataFrameColumn[] keysB = getJoinColumns(dfB, joinColumns, false);
+        JoinSide sideA = new JoinSide(keysA, RowHash.hashRows(keysA, dfA.size()));
+        JoinSide sideB = new JoinSide(keysB, RowHash.hashRows(keysB, dfB.size()));
+        boolean buildA = dfA.size() < dfB.size();
+        JoinPairs pairs = findPairs(type, sideA, sideB, buildA);
+        // pairs are ordered by the probe side, reorder them if the build side determines the order
+        boolean orderByA = type != JoinType.RIGHT;
+        if (orderByA == buildA) {
+            pairs.sort(orderByA, buildA ? dfA.size() : dfB.size());
+        }
+        return pairs;
+    }
+
+    /**
+     * Finds the matching rows of two join sides using a hash table on one side.
+     * The pairs are ordered by the rows of the probe side, unmatched rows of a preserved build side are appended.
+     *
+     * @param type   join type
+     * @param sideA  rows of the first data frame
+     * @param sideB  rows of the second data frame
+     * @param buildA <tt>true</tt> to build the hash table on the first data frame
+     * @return matching row pairs
+     */
+    static JoinPairs findPairs(JoinType type, JoinSide sideA, JoinSide sideB, boolean buildA) {
+        return new JoinTable(buildA ? sideA : sideB).probe(type, buildA ? sideB : sideA, buildA);
+    }
+
+    static DataFrameColumn[] getJoinColumns(DataFrame dataFrame, JoinColumn[] joinColumns, boolean a) {
+        DataFrameColumn[] columns = new DataFrameColumn[joinColumns.length];
+        for (int i = 0; i < joinColumns.length; i++) {
+            String name = a ? joinColumns[i].getColumnA() : joinColumns[i].getColumnB();
+            columns[i] = dataFrame.getColumn(name, DataFrameColumn.class);
+        }
+        return columns;
+    }
+}
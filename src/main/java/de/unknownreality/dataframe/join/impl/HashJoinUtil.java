@@ -0,0 +1,64 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.join.impl;
+
+import de.unknownreality.dataframe.join.JoinType;
+import de.unknownreality.dataframe.join.JoinUtil;
+
+/**
+ * Joins data frames using {@link HashJoin hash joins} instead of grouping the second data frame.
+ * <p>
+ * Can be used by setting it with {@link de.unknownreality.dataframe.DefaultDataFrame#setJoinUtil(JoinUtil)}.
+ * The header names of the joined data frames are the same as with the {@link DefaultJoinUtil}.
+ * </p>
+ */
+public class HashJoinUtil extends AbstractJoinUtil {
+    /**
+     * RIGHT JOIN
+     */
+    public static final HashJoin RIGHT = new HashJoin(JoinType.RIGHT);
+
+    /**
+     * LEFT JOIN
+     */
+    public static final HashJoin LEFT = new HashJoin(JoinType.LEFT);
+
+    /**
+     * INNER JOIN
+     */
+    public static final HashJoin INNER = new HashJoin(JoinType.INNER);
+
+    @Override
+    protected AbstractJoinOperation getJoinOperation(JoinType type) {
+        switch (type) {
+            case LEFT:
+                return LEFT;
+            case RIGHT:
+                return RIGHT;
+            default:
+                return INNER;
+        }
+    }
+}
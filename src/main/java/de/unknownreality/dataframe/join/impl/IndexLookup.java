@@ -0,0 +1,90 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.join.impl;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataRow;
+import de.unknownreality.dataframe.index.Index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Finds the rows of a data frame matching join values using an existing index or primary key of the data frame,
+ * so the data frame does not have to be grouped by the join columns.
+ */
+final class IndexLookup {
+    private final DataFrame dataFrame;
+    private final Index index;
+    private final int[] valuePositions;
+    private final Comparable[] indexValues;
+
+    private IndexLookup(DataFrame dataFrame, Index index, String[] columnNames) {
+        this.dataFrame = dataFrame;
+        this.index = index;
+        List<String> names = Arrays.asList(columnNames);
+        this.valuePositions = index.getColumns().stream().mapToInt(column -> names.indexOf(column.getName())).toArray();
+        this.indexValues = new Comparable[columnNames.length];
+    }
+
+    /**
+     * Creates a lookup if the data frame has an index on exactly the specified columns
+     *
+     * @param dataFrame   data frame to look up rows in
+     * @param columnNames join columns of the data frame
+     * @return lookup or <tt>null</tt> if no usable index exists
+     */
+    static IndexLookup create(DataFrame dataFrame, String[] columnNames) {
+        Index index = dataFrame.findIndex(columnNames);
+        return index == null ? null : new IndexLookup(dataFrame, index, columnNames);
+    }
+
+    /**
+     * Returns the rows matching the join values, in the order of the data frame
+     *
+     * @param values join values in the order of the join columns
+     * @return matching rows
+     */
+    List<DataRow> find(Comparable[] values) {
+        for (int i = 0; i < valuePositions.length; i++) {
+            indexValues[i] = values[valuePositions[i]];
+        }
+        Collection<Integer> found = index.find(indexValues);
+        int[] rows = new int[found.size()];
+        int i = 0;
+        for (Integer row : found) {
+            rows[i++] = row;
+        }
+        // rows are listed in insertion order, which differs from the row order after updates
+        Arrays.sort(rows);
+        List<DataRow> result = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            result.add(dataFrame.getRow(row));
+        }
+        return result;
+    }
+}
@@ -38,6 +38,10 @@ import java.util.List;
 
 /**
  * Created by Alex on 10.07.2016.
+ * <p>
+ * If the second data frame has an index or primary key on exactly the join columns,
+ * matching rows are found using the index instead of grouping the second data frame.
+ * </p>
  */
 public class InnerJoin extends AbstractJoinOperation {
     protected InnerJoin() {
@@ -64,9 +68,14 @@ public class InnerJoin extends AbstractJoinOperation {
         }
         List<DataRow> joinedRows = new ArrayList<>();
         Comparable[] groupValues = new Comparable[joinColumns.length];
-        DataGrouping joinedGroups = dfB.groupBy(groupColumns);
+        IndexLookup indexLookup = IndexLookup.create(dfB, groupColumns);
+        DataGrouping joinedGroups = indexLookup == null ? dfB.groupBy(groupColumns) : null;
         for (DataRow row : dfA) {
             setGroupValuesA(groupValues, row, joinColumns);
+            if (indexLookup != null) {
+                appendJoinedRows(indexLookup.find(groupValues), dfA, dfB, row, joinInfo, joinHeader, joinedRows);
+                continue;
+            }
             GroupRow groupRow = joinedGroups.findByGroupValues((Comparable[]) groupValues);
             if (groupRow != null) {
                 appendGroupJoinedRows(groupRow.getGroup(), dfA, dfB, row, joinInfo, joinHeader, joinedRows);
@@ -0,0 +1,102 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.join.impl;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of matched row index pairs of a join.
+ * A row index of <tt>-1</tt> denotes a missing row in an outer join.
+ */
+final class JoinPairs {
+    private int[] rowsA;
+    private int[] rowsB;
+    private int size = 0;
+
+    JoinPairs(int expectedSize) {
+        int capacity = Math.max(16, expectedSize);
+        this.rowsA = new int[capacity];
+        this.rowsB = new int[capacity];
+    }
+
+    void add(int rowA, int rowB) {
+        if (size == rowsA.length) {
+            int capacity = (int) Math.min(Integer.MAX_VALUE - 8, rowsA.length * 2L);
+            rowsA = Arrays.copyOf(rowsA, capacity);
+            rowsB = Arrays.copyOf(rowsB, capacity);
+        }
+        rowsA[size] = rowA;
+        rowsB[size++] = rowB;
+    }
+
+    void addAll(JoinPairs other) {
+        if (size + other.size > rowsA.length) {
+            rowsA = Arrays.copyOf(rowsA, size + other.size);
+            rowsB = Arrays.copyOf(rowsB, size + other.size);
+        }
+        System.arraycopy(other.rowsA, 0, rowsA, size, other.size);
+        System.arraycopy(other.rowsB, 0, rowsB, size, other.size);
+        size += other.size;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int[] getRowsA() {
+        return Arrays.copyOf(rowsA, size);
+    }
+
+    int[] getRowsB() {
+        return Arrays.copyOf(rowsB, size);
+    }
+
+    /**
+     * Orders the pairs by the rows of one side using a stable counting sort.
+     * The rows of this side must not be <tt>-1</tt>.
+     *
+     * @param byA      <tt>true</tt> to sort by the rows of the first data frame
+     * @param rowCount number of rows of the sorted side
+     */
+    void sort(boolean byA, int rowCount) {
+        int[] keys = byA ? rowsA : rowsB;
+        int[] offsets = new int[rowCount + 1];
+        for (int i = 0; i < size; i++) {
+            offsets[keys[i] + 1]++;
+        }
+        for (int row = 0; row < rowCount; row++) {
+            offsets[row + 1] += offsets[row];
+        }
+        int[] sortedA = new int[rowsA.length];
+        int[] sortedB = new int[rowsB.length];
+        for (int i = 0; i < size; i++) {
+            int position = offsets[keys[i]]++;
+            sortedA[position] = rowsA[i];
+            sortedB[position] = rowsB[i];
+        }
+        rowsA = sortedA;
+        rowsB = sortedB;
+    }
+}
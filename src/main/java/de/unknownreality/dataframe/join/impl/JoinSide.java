@@ -0,0 +1,82 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.join.impl;
+
+import de.unknownreality.dataframe.DataFrameColumn;
+
+/**
+ * Rows of one data frame taking part in a hash join: the join columns, the hashes of all rows
+ * and the row indices to join, either all rows or a range of a partitioned row array.
+ */
+final class JoinSide {
+    private final DataFrameColumn[] columns;
+    private final long[] hashes;
+    private final int[] rows;
+    private final int from;
+    private final int to;
+
+    /**
+     * Creates a join side containing all rows
+     *
+     * @param columns join columns
+     * @param hashes  hashes of all rows
+     */
+    JoinSide(DataFrameColumn[] columns, long[] hashes) {
+        this(columns, hashes, null, 0, hashes.length);
+    }
+
+    /**
+     * Creates a join side containing the rows <tt>rows[from]</tt> to <tt>rows[to - 1]</tt>
+     *
+     * @param columns join columns
+     * @param hashes  hashes of all rows
+     * @param rows    row indices, <tt>null</tt> for the rows <tt>from</tt> to <tt>to - 1</tt>
+     * @param from    first position (inclusive)
+     * @param to      last position (exclusive)
+     */
+    JoinSide(DataFrameColumn[] columns, long[] hashes, int[] rows, int from, int to) {
+        this.columns = columns;
+        this.hashes = hashes;
+        this.rows = rows;
+        this.from = from;
+        this.to = to;
+    }
+
+    DataFrameColumn[] getColumns() {
+        return columns;
+    }
+
+    int size() {
+        return to - from;
+    }
+
+    int getRow(int position) {
+        return rows == null ? from + position : rows[from + position];
+    }
+
+    long getHash(int row) {
+        return hashes[row];
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.join.impl;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.DataFrameRuntimeException;
+import de.unknownreality.dataframe.hash.RowHash;
+import de.unknownreality.dataframe.hash.RowHashTable;
+import de.unknownreality.dataframe.join.JoinColumn;
+import de.unknownreality.dataframe.join.JoinType;
+import de.unknownreality.dataframe.join.JoinedDataFrame;
+
+/**
+ * Hash table on the join columns of a data frame that can be reused for many joins.
+ * <p>
+ * The table maps each distinct key to the row indices with that key. It is built once for a data frame,
+ * e.g. a dimension table, and other data frames are joined against it by probing their rows.
+ * The data frame of the table is always the second data frame of the join.
+ * <code>new JoinTable(dimensions, "id").join(facts, JoinType.LEFT, new JoinColumn("dim_id", "id"))</code>
+ * </p>
+ * <p>
+ * The table is rebuilt automatically before the next join if the data frame was modified in any way,
+ * e.g. rows were added, removed, sorted or filtered or values were changed (see {@link DataFrame#getModificationCount()}).
+ * The results equal the results of the {@link HashJoin hash join}. Joins against the same table may run concurrently.
+ * </p>
+ */
+public class JoinTable {
+    private static final int EXPECTED_KEYS = 1024;
+    // only used to create the joined data frames, which does not depend on the join type
+    private static final HashJoin JOIN_OPERATION = new HashJoin(JoinType.INNER);
+    private final DataFrame dataFrame;
+    private final String[] columnNames;
+    private JoinSide build;
+    private int modificationCount;
+    private RowHashTable table;
+    private int[] starts;
+    private int[] positions;
+
+    /**
+     * Creates a join table on the specified columns of a data frame
+     *
+     * @param dataFrame   data frame joined as second data frame
+     * @param columnNames join columns of the data frame
+     */
+    public JoinTable(DataFrame dataFrame, String... columnNames) {
+        if (columnNames.length == 0) {
+            throw new DataFrameRuntimeException("no join columns specified");
+        }
+        this.dataFrame = dataFrame;
+        this.columnNames = columnNames;
+        rebuild();
+    }
+
+    /**
+     * Creates a join table on the rows of a join side
+     *
+     * @param build rows the table is built on
+     */
+    JoinTable(JoinSide build) {
+        this.dataFrame = null;
+        this.columnNames = null;
+        build(build);
+    }
+
+    /**
+     * Rebuilds this table from the current values of the data frame
+     */
+    public synchronized void rebuild() {
+        modificationCount = dataFrame.getModificationCount();
+        DataFrameColumn[] columns = new DataFrameColumn[columnNames.length];
+        for (int i = 0; i < columnNames.length; i++) {
+            columns[i] = dataFrame.getColumn(columnNames[i], DataFrameColumn.class);
+        }
+        build(new JoinSide(columns, RowHash.hashRows(columns, dataFrame.size())));
+    }
+
+    private void build(JoinSide build) {
+        int buildSize = build.size();
+        // the rows of key i are rows[positions[starts[i]]] to rows[positions[starts[i + 1] - 1]]
+        RowHashTable table = new RowHashTable(build.getColumns(), Math.min(buildSize, EXPECTED_KEYS));
+        int[] positionKeys = new int[buildSize];
+        for (int position = 0; position < buildSize; position++) {
+            int row = build.getRow(position);
+            positionKeys[position] = table.put(row, build.getHash(row));
+        }
+        int[] starts = new int[table.size() + 1];
+        for (int position = 0; position < buildSize; position++) {
+            starts[positionKeys[position] + 1]++;
+        }
+        for (int key = 0; key < table.size(); key++) {
+            starts[key + 1] += starts[key];
+        }
+        int[] offsets = new int[table.size()];
+        System.arraycopy(starts, 0, offsets, 0, offsets.length);
+        int[] positions = new int[buildSize];
+        for (int position = 0; position < buildSize; position++) {
+            positions[offsets[positionKeys[position]]++] = position;
+        }
+        this.build = build;
+        this.table = table;
+        this.starts = starts;
+        this.positions = positions;
+    }
+
+    /**
+     * Returns the data frame of this table
+     *
+     * @return data frame joined as second data frame
+     */
+    public DataFrame getDataFrame() {
+        return dataFrame;
+    }
+
+    /**
+     * Returns the number of distinct keys in this table
+     *
+     * @return number of distinct keys
+     */
+    public synchronized int getKeyCount() {
+        return table.size();
+    }
+
+    /**
+     * Joins a data frame with the data frame of this table using the default header name suffixes
+     *
+     * @param df          first data frame
+     * @param type        join type
+     * @param joinColumns columns used for the join, the second columns must be the columns of this table
+     * @return joined data frame
+     */
+    public JoinedDataFrame join(DataFrame df, JoinType type, JoinColumn... joinColumns) {
+        return join(df, type, DefaultJoinUtil.JOIN_SUFFIX_A, DefaultJoinUtil.JOIN_SUFFIX_B, joinColumns);
+    }
+
+    /**
+     * Joins a data frame with the data frame of this table
+     *
+     * @param df          first data frame
+     * @param type        join type
+     * @param joinSuffixA suffix used for columns from the first data frame
+     * @param joinSuffixB suffix used for columns from the data frame of this table
+     * @param joinColumns columns used for the join, the second columns must be the columns of this table
+     * @return joined data frame
+     */
+    public JoinedDataFrame join(DataFrame df, JoinType type, String joinSuffixA, String joinSuffixB, JoinColumn... joinColumns) {
+        DataFrameColumn[] probeColumns = getProbeColumns(df, joinColumns);
+        JoinSide probe = new JoinSide(probeColumns, RowHash.hashRows(probeColumns, df.size()));
+        JoinPairs pairs;
+        synchronized (this) {
+            if (isOutdated()) {
+                rebuild();
+            }
+            pairs = probe(type, probe, false);
+        }
+        if (type == JoinType.RIGHT) {
+            pairs.sort(false, dataFrame.size());
+        }
+        return JOIN_OPERATION.createJoinedDataFrame(df, dataFrame, joinColumns, joinSuffixA, joinSuffixB,
+                pairs.getRowsA(), pairs.getRowsB());
+    }
+
+    private DataFrameColumn[] getProbeColumns(DataFrame df, JoinColumn[] joinColumns) {
+        if (joinColumns.length != columnNames.length) {
+            throw new DataFrameRuntimeException("join columns do not match the columns of the join table");
+        }
+        DataFrameColumn[] probeColumns = new DataFrameColumn[columnNames.length];
+        for (JoinColumn joinColumn : joinColumns) {
+            int index = indexOf(joinColumn.getColumnB());
+            if (index == -1 || probeColumns[index] != null) {
+                throw new DataFrameRuntimeException(
+                        String.format("join column '%s' is not a column of the join table", joinColumn.getColumnB()));
+            }
+            probeColumns[index] = df.getColumn(joinColumn.getColumnA(), DataFrameColumn.class);
+        }
+        return probeColumns;
+    }
+
+    private int indexOf(String columnName) {
+        for (int i = 0; i < columnNames.length; i++) {
+            if (columnNames[i].equals(columnName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean isOutdated() {
+        return modificationCount != dataFrame.getModificationCount();
+    }
+
+    /**
+     * Finds the rows matching the rows of a probe side.
+     * The pairs are ordered by the rows of the probe side, unmatched rows of a preserved build side are appended.
+     *
+     * @param type   join type
+     * @param probe  rows probed against this table
+     * @param buildA <tt>true</tt> if this table is built on the first data frame
+     * @return matching row pairs
+     */
+    JoinPairs probe(JoinType type, JoinSide probe, boolean buildA) {
+        int buildSize = build.size();
+        int probeSize = probe.size();
+        // the probe side is preserved by left joins probing the first and right joins probing the second data frame
+        boolean keepProbe = type == (buildA ? JoinType.RIGHT : JoinType.LEFT);
+        boolean keepBuild = type == (buildA ? JoinType.LEFT : JoinType.RIGHT);
+        boolean[] matched = keepBuild ? new boolean[buildSize] : null;
+        DataFrameColumn[] probeColumns = probe.getColumns();
+        JoinPairs pairs = new JoinPairs(Math.max(buildSize, probeSize));
+        for (int probePosition = 0; probePosition < probeSize; probePosition++) {
+            int probeRow = probe.getRow(probePosition);
+            int key = table.find(probeColumns, probeRow, probe.getHash(probeRow));
+            if (key == -1) {
+                if (keepProbe) {
+                    add(pairs, buildA, -1, probeRow);
+                }
+                continue;
+            }
+            for (int i = starts[key]; i < starts[key + 1]; i++) {
+                add(pairs, buildA, build.getRow(positions[i]), probeRow);
+                if (matched != null) {
+                    matched[positions[i]] = true;
+                }
+            }
+        }
+        if (matched != null) {
+            for (int position = 0; position < buildSize; position++) {
+                if (!matched[position]) {
+                    add(pairs, buildA, build.getRow(position), -1);
+                }
+            }
+        }
+        return pairs;
+    }
+
+    private static void add(JoinPairs pairs, boolean buildA, int buildRow, int probeRow) {
+        if (buildA) {
+            pairs.add(buildRow, probeRow);
+        } else {
+            pairs.add(probeRow, buildRow);
+        }
+    }
+}
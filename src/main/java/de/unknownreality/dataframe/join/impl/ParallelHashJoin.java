@@ -0,0 +1,172 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.join.impl;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.DataFrameRuntimeException;
+import de.unknownreality.dataframe.hash.RowHash;
+import de.unknownreality.dataframe.join.JoinColumn;
+import de.unknownreality.dataframe.join.JoinType;
+import de.unknownreality.dataframe.join.JoinedDataFrame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Joins two data frames using multiple threads.
+ * <p>
+ * The join columns of both data frames are hashed in parallel row ranges.
+ * The rows are then radix-partitioned by the high bits of their hashes, so equal keys end up in the same partition.
+ * Each pair of partitions is joined by its own worker like in a {@link HashJoin}, building the hash table on the
+ * smaller partition. The row pairs of all partitions are concatenated and the joined data frame
+ * is created by gathering the columns of both data frames.
+ * </p>
+ * <p>
+ * The result equals the result of the {@link HashJoin single-threaded hash join}.
+ * </p>
+ */
+public class ParallelHashJoin extends AbstractJoinOperation {
+    private static final int MIN_RANGE_SIZE = 1 << 12;
+    private final JoinType type;
+    private final ExecutorService executor;
+    private final int parallelism;
+
+    protected ParallelHashJoin(JoinType type, ExecutorService executor, int parallelism) {
+        if (parallelism < 1) {
+            throw new DataFrameRuntimeException("parallelism must be at least 1");
+        }
+        this.type = type;
+        this.executor = executor;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Joins two data frames using the join type of this operation
+     *
+     * @param dfA         first data frame
+     * @param dfB         second data frame
+     * @param joinSuffixA suffix used for columns from the first data frame
+     * @param joinSuffixB suffix used for columns from the second data frame
+     * @param joinColumns columns used for the join
+     * @return joined data frame
+     */
+    @Override
+    public JoinedDataFrame join(DataFrame dfA, DataFrame dfB, String joinSuffixA, String joinSuffixB, JoinColumn... joinColumns) {
+        DataFrameColumn[] keysA = HashJoin.getJoinColumns(dfA, joinColumns, true);
+        DataFrameColumn[] keysB = HashJoin.getJoinColumns(dfB, joinColumns, false);
+        long[] hashesA = hashRows(keysA, dfA.size());
+        long[] hashesB = hashRows(keysB, dfB.size());
+
+        int partitionCount = Math.max(dfA.size(), dfB.size()) < MIN_RANGE_SIZE ? 1 : Integer.highestOneBit(parallelism * 2 - 1);
+        int[] startsA = new int[partitionCount + 1];
+        int[] startsB = new int[partitionCount + 1];
+        int[] rowsA = partition(hashesA, partitionCount, startsA);
+        int[] rowsB = partition(hashesB, partitionCount, startsB);
+        List<Callable<JoinPairs>> tasks = new ArrayList<>();
+        for (int p = 0; p < partitionCount; p++) {
+            JoinSide sideA = new JoinSide(keysA, hashesA, rowsA, startsA[p], startsA[p + 1]);
+            JoinSide sideB = new JoinSide(keysB, hashesB, rowsB, startsB[p], startsB[p + 1]);
+            tasks.add(() -> HashJoin.findPairs(type, sideA, sideB, sideA.size() < sideB.size()));
+        }
+        List<JoinPairs> partitionPairs = invokeAll(tasks);
+        int total = 0;
+        for (JoinPairs pairs : partitionPairs) {
+            total += pairs.size();
+        }
+        JoinPairs pairs = new JoinPairs(total);
+        for (JoinPairs partition : partitionPairs) {
+            pairs.addAll(partition);
+        }
+        pairs.sort(type != JoinType.RIGHT, type == JoinType.RIGHT ? dfB.size() : dfA.size());
+        return createJoinedDataFrame(dfA, dfB, joinColumns, joinSuffixA, joinSuffixB, pairs.getRowsA(), pairs.getRowsB());
+    }
+
+    /**
+     * Returns the join type of this operation
+     *
+     * @return join type
+     */
+    public JoinType getType() {
+        return type;
+    }
+
+    private long[] hashRows(DataFrameColumn[] columns, int size) {
+        long[] hashes = new long[size];
+        int rangeCount = Math.max(1, Math.min(parallelism, size / MIN_RANGE_SIZE));
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < rangeCount; i++) {
+            int from = (int) ((long) size * i / rangeCount);
+            int to = (int) ((long) size * (i + 1) / rangeCount);
+            tasks.add(() -> {
+                System.arraycopy(RowHash.hashRows(columns, from, to), 0, hashes, from, to - from);
+                return null;
+            });
+        }
+        invokeAll(tasks);
+        return hashes;
+    }
+
+    /**
+     * Orders the row indices by partition, keeping the row order within each partition
+     */
+    private static int[] partition(long[] hashes, int partitionCount, int[] starts) {
+        int shift = 64 - Integer.numberOfTrailingZeros(partitionCount);
+        int[] partitions = new int[hashes.length];
+        for (int row = 0; row < hashes.length; row++) {
+            partitions[row] = partitionCount == 1 ? 0 : (int) (hashes[row] >>> shift);
+            starts[partitions[row] + 1]++;
+        }
+        for (int p = 0; p < partitionCount; p++) {
+            starts[p + 1] += starts[p];
+        }
+        int[] positions = new int[partitionCount];
+        System.arraycopy(starts, 0, positions, 0, partitionCount);
+        int[] rows = new int[hashes.length];
+        for (int row = 0; row < hashes.length; row++) {
+            rows[positions[partitions[row]]++] = row;
+        }
+        return rows;
+    }
+
+    private <T> List<T> invokeAll(List<Callable<T>> tasks) {
+        List<T> results = new ArrayList<>();
+        try {
+            for (Future<T> future : executor.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataFrameRuntimeException("parallel join interrupted", e);
+        } catch (ExecutionException e) {
+            throw new DataFrameRuntimeException("error in parallel join", e.getCause());
+        }
+        return results;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.join.impl;
+
+import de.unknownreality.dataframe.join.JoinType;
+import de.unknownreality.dataframe.join.JoinUtil;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Joins data frames using {@link ParallelHashJoin parallel partitioned hash joins}.
+ * <p>
+ * The number of partitions joined in parallel and the executor running them can be configured.
+ * Can be used by setting it with {@link de.unknownreality.dataframe.DefaultDataFrame#setJoinUtil(JoinUtil)}.
+ * The header names of the joined data frames are the same as with the {@link DefaultJoinUtil}.
+ * </p>
+ */
+public class ParallelHashJoinUtil extends AbstractJoinUtil {
+    private final ParallelHashJoin inner;
+    private final ParallelHashJoin left;
+    private final ParallelHashJoin right;
+
+    /**
+     * Creates a parallel join util using the common fork join pool and one partition per available processor
+     */
+    public ParallelHashJoinUtil() {
+        this(ForkJoinPool.commonPool(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a parallel join util
+     *
+     * @param executor    executor running the workers
+     * @param parallelism number of partitions joined in parallel, rounded up to a power of two
+     */
+    public ParallelHashJoinUtil(ExecutorService executor, int parallelism) {
+        this.inner = new ParallelHashJoin(JoinType.INNER, executor, parallelism);
+        this.left = new ParallelHashJoin(JoinType.LEFT, executor, parallelism);
+        this.right = new ParallelHashJoin(JoinType.RIGHT, executor, parallelism);
+    }
+
+    @Override
+    protected AbstractJoinOperation getJoinOperation(JoinType type) {
+        switch (type) {
+            case LEFT:
+                return left;
+            case RIGHT:
+                return right;
+            default:
+                return inner;
+        }
+    }
+}
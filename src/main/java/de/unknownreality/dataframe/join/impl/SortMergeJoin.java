@@ -0,0 +1,168 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.join.impl;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.join.JoinColumn;
+import de.unknownreality.dataframe.join.JoinType;
+import de.unknownreality.dataframe.join.JoinedDataFrame;
+import de.unknownreality.dataframe.sort.RowIndexComparator;
+import de.unknownreality.dataframe.sort.SortColumn;
+
+/**
+ * Joins two data frames by merging their rows in the order of the join columns.
+ * <p>
+ * If a data frame is already {@link DataFrame#isSortedBy(String...) sorted} by its join columns,
+ * its rows are read in their original order. Otherwise the row indices (not the data frame) are sorted
+ * by the join columns. Both sides are then streamed in a single pass, so joining two sorted data frames
+ * needs no memory besides the joined row pairs.
+ * </p>
+ * <p>
+ * The result equals the result of the {@link DefaultJoinUtil default join operations}:
+ * rows are ordered by the preserved data frame (the first data frame for inner joins),
+ * matching rows of the other data frame in their original order.
+ * {@link de.unknownreality.dataframe.Values#NA NA} keys are sorted last and match each other.
+ * </p>
+ */
+public class SortMergeJoin extends AbstractJoinOperation {
+    private final JoinType type;
+
+    protected SortMergeJoin(JoinType type) {
+        this.type = type;
+    }
+
+    /**
+     * Joins two data frames using the join type of this operation
+     *
+     * @param dfA         first data frame
+     * @param dfB         second data frame
+     * @param joinSuffixA suffix used for columns from the first data frame
+     * @param joinSuffixB suffix used for columns from the second data frame
+     * @param joinColumns columns used for the join
+     * @return joined data frame
+     */
+    @Override
+    public JoinedDataFrame join(DataFrame dfA, DataFrame dfB, String joinSuffixA, String joinSuffixB, JoinColumn... joinColumns) {
+        String[] namesA = new String[joinColumns.length];
+        String[] namesB = new String[joinColumns.length];
+        SortColumn[] sortColumnsA = new SortColumn[joinColumns.length];
+        SortColumn[] sortColumnsB = new SortColumn[joinColumns.length];
+        for (int i = 0; i < joinColumns.length; i++) {
+            namesA[i] = joinColumns[i].getColumnA();
+            namesB[i] = joinColumns[i].getColumnB();
+            sortColumnsA[i] = new SortColumn(namesA[i]);
+            sortColumnsB[i] = new SortColumn(namesB[i]);
+        }
+        RowIndexComparator keysA = new RowIndexComparator(dfA, sortColumnsA);
+        RowIndexComparator keysB = new RowIndexComparator(dfB, sortColumnsB);
+        int[] orderA = dfA.isSortedBy(namesA) ? null : sortRows(keysA, dfA.size());
+        int[] orderB = dfB.isSortedBy(namesB) ? null : sortRows(keysB, dfB.size());
+        JoinPairs pairs = merge(keysA, orderA, dfA.size(), keysB, orderB, dfB.size());
+        // the pairs are ordered by the join keys, restore the row order of the preserved data frame
+        if (type == JoinType.RIGHT ? orderB != null : orderA != null) {
+            pairs.sort(type != JoinType.RIGHT, type == JoinType.RIGHT ? dfB.size() : dfA.size());
+        }
+        return createJoinedDataFrame(dfA, dfB, joinColumns, joinSuffixA, joinSuffixB, pairs.getRowsA(), pairs.getRowsB());
+    }
+
+    /**
+     * Returns the join type of this operation
+     *
+     * @return join type
+     */
+    public JoinType getType() {
+        return type;
+    }
+
+    private JoinPairs merge(RowIndexComparator keysA, int[] orderA, int sizeA,
+                            RowIndexComparator keysB, int[] orderB, int sizeB) {
+        JoinPairs pairs = new JoinPairs(Math.max(sizeA, sizeB));
+        int a = 0;
+        int b = 0;
+        while (a < sizeA && b < sizeB) {
+            int rowA = row(orderA, a);
+            int rowB = row(orderB, b);
+            int c = keysA.compare(rowA, keysB, rowB);
+            if (c < 0) {
+                if (type == JoinType.LEFT) {
+                    pairs.add(rowA, -1);
+                }
+                a++;
+            } else if (c > 0) {
+                if (type == JoinType.RIGHT) {
+                    pairs.add(-1, rowB);
+                }
+                b++;
+            } else {
+                int endA = a + 1;
+                while (endA < sizeA && keysA.compare(row(orderA, endA), rowA) == 0) {
+                    endA++;
+                }
+                int endB = b + 1;
+                while (endB < sizeB && keysB.compare(row(orderB, endB), rowB) == 0) {
+                    endB++;
+                }
+                if (type == JoinType.RIGHT) {
+                    for (int j = b; j < endB; j++) {
+                        for (int i = a; i < endA; i++) {
+                            pairs.add(row(orderA, i), row(orderB, j));
+                        }
+                    }
+                } else {
+                    for (int i = a; i < endA; i++) {
+                        for (int j = b; j < endB; j++) {
+                            pairs.add(row(orderA, i), row(orderB, j));
+                        }
+                    }
+                }
+                a = endA;
+                b = endB;
+            }
+        }
+        for (; type == JoinType.LEFT && a < sizeA; a++) {
+            pairs.add(row(orderA, a), -1);
+        }
+        for (; type == JoinType.RIGHT && b < sizeB; b++) {
+            pairs.add(-1, row(orderB, b));
+        }
+        return pairs;
+    }
+
+    private static int row(int[] order, int position) {
+        return order == null ? position : order[position];
+    }
+
+    /**
+     * Returns the row indices ordered by the key columns, using a stable sort
+     */
+    private static int[] sortRows(RowIndexComparator keys, int size) {
+        int[] rows = new int[size];
+        for (int i = 0; i < size; i++) {
+            rows[i] = i;
+        }
+        keys.sort(rows, 0, size);
+        return rows;
+    }
+}
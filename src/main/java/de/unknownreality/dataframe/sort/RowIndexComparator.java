@@ -0,0 +1,146 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.sort;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
+
+/**
+ * Compares the rows of a data frame by their row index.
+ * The sort columns are resolved once, values are compared directly in the columns without creating rows.
+ * <tt>NA</tt> values are sorted to the end.
+ */
+public class RowIndexComparator {
+    private final DataFrameColumn[] columns;
+    private final boolean[] descending;
+
+    /**
+     * Creates a comparator for the rows of a data frame using sort columns
+     *
+     * @param dataFrame   data frame containing the compared rows
+     * @param sortColumns sort columns
+     */
+    public RowIndexComparator(DataFrame dataFrame, SortColumn... sortColumns) {
+        this.columns = new DataFrameColumn[sortColumns.length];
+        this.descending = new boolean[sortColumns.length];
+        for (int i = 0; i < sortColumns.length; i++) {
+            columns[i] = dataFrame.getColumn(sortColumns[i].getName(), DataFrameColumn.class);
+            descending[i] = sortColumns[i].getDirection() == SortColumn.Direction.Descending;
+        }
+    }
+
+    /**
+     * Compares two rows using the sort columns
+     *
+     * @param rowA index of the first row
+     * @param rowB index of the second row
+     * @return comparison result
+     */
+    public int compare(int rowA, int rowB) {
+        return compare(rowA, this, rowB);
+    }
+
+    /**
+     * Compares a row with a row of another data frame.
+     * The sort columns of both comparators are compared pairwise, using the directions of this comparator.
+     *
+     * @param rowA  index of the row in the data frame of this comparator
+     * @param other comparator of the other data frame
+     * @param rowB  index of the row in the other data frame
+     * @return comparison result
+     */
+    @SuppressWarnings("unchecked")
+    public int compare(int rowA, RowIndexComparator other, int rowB) {
+        for (int i = 0; i < columns.length; i++) {
+            DataFrameColumn columnA = columns[i];
+            DataFrameColumn columnB = other.columns[i];
+            boolean naA = columnA.isNA(rowA);
+            boolean naB = columnB.isNA(rowB);
+            if (naA && naB) {
+                continue;
+            }
+            if (naA) {
+                return 1;
+            }
+            if (naB) {
+                return -1;
+            }
+            int c = columnA.get(rowA).compareTo(columnB.get(rowB));
+            if (c != 0) {
+                return descending[i] ? -c : c;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Sorts a range of row indices using this comparator.
+     * The sort is stable, rows with equal values keep their order.
+     *
+     * @param rows row indices
+     * @param from first position of the sorted range (inclusive)
+     * @param to   last position of the sorted range (exclusive)
+     */
+    public void sort(int[] rows, int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int[] buffer = new int[to - from];
+        mergeSort(rows, buffer, from, from, to);
+    }
+
+    private void mergeSort(int[] rows, int[] buffer, int base, int from, int to) {
+        if (to - from < 8) {
+            for (int i = from + 1; i < to; i++) {
+                int row = rows[i];
+                int j = i - 1;
+                while (j >= from && compare(rows[j], row) > 0) {
+                    rows[j + 1] = rows[j];
+                    j--;
+                }
+                rows[j + 1] = row;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(rows, buffer, base, from, mid);
+        mergeSort(rows, buffer, base, mid, to);
+        if (compare(rows[mid - 1], rows[mid]) <= 0) {
+            return;
+        }
+        System.arraycopy(rows, from, buffer, from - base, to - from);
+        int i = from - base;
+        int iEnd = mid - base;
+        int j = mid - base;
+        int jEnd = to - base;
+        for (int k = from; k < to; k++) {
+            if (j >= jEnd || (i < iEnd && compare(buffer[i], buffer[j]) <= 0)) {
+                rows[k] = buffer[i++];
+            } else {
+                rows[k] = buffer[j++];
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.transform;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.DataFrameRuntimeException;
+import de.unknownreality.dataframe.DefaultDataFrame;
+import de.unknownreality.dataframe.column.BasicColumn;
+import de.unknownreality.dataframe.column.DoubleColumn;
+import de.unknownreality.dataframe.column.NumberColumn;
+import de.unknownreality.dataframe.column.StringColumn;
+
+import java.util.Arrays;
+
+/**
+ * Creates long data frames from wide data frames (unpivot).
+ * <p>
+ * For each value column, a block containing all rows of the input data frame is added to the result.
+ * The blocks are created by concatenating whole columns instead of appending rows.
+ * </p>
+ */
+public class Melt {
+    public static final String DEFAULT_VARIABLE_COLUMN = "variable";
+    public static final String DEFAULT_VALUE_COLUMN = "value";
+
+    /**
+     * Melts a data frame using the default names for the variable and value columns.
+     *
+     * @param dataFrame    input data frame
+     * @param idColumns    columns repeated for each value column
+     * @param valueColumns columns melted into the variable and value columns
+     * @return melted data frame
+     */
+    public static DataFrame melt(DataFrame dataFrame, String[] idColumns, String[] valueColumns) {
+        return melt(dataFrame, idColumns, valueColumns, DEFAULT_VARIABLE_COLUMN, DEFAULT_VALUE_COLUMN);
+    }
+
+    /**
+     * Melts a data frame.
+     * If all value columns have the same type, the value column of the result has this type.
+     * Otherwise numeric value columns are converted to a {@link DoubleColumn}
+     * and all other combinations to a {@link StringColumn}.
+     *
+     * @param dataFrame      input data frame
+     * @param idColumns      columns repeated for each value column
+     * @param valueColumns   columns melted into the variable and value columns
+     * @param variableColumn name of the column containing the value column names
+     * @param valueColumn    name of the column containing the values
+     * @return melted data frame
+     */
+    @SuppressWarnings("unchecked")
+    public static DataFrame melt(DataFrame dataFrame, String[] idColumns, String[] valueColumns,
+                                 String variableColumn, String valueColumn) {
+        if (valueColumns.length == 0) {
+            throw new DataFrameRuntimeException("at least one value column is required");
+        }
+        int size = dataFrame.size();
+        DataFrame result = new DefaultDataFrame();
+        for (String idColumn : idColumns) {
+            DataFrameColumn column = dataFrame.getColumn(idColumn);
+            DataFrameColumn[] repeated = new DataFrameColumn[valueColumns.length - 1];
+            Arrays.fill(repeated, column);
+            DataFrameColumn<?, ?> melted = column.concat(repeated);
+            melted.setName(idColumn);
+            result.addColumn(melted);
+        }
+
+        int total = size * valueColumns.length;
+        String[] variables = new String[Math.max(total, BasicColumn.INIT_SIZE)];
+        for (int i = 0; i < valueColumns.length; i++) {
+            Arrays.fill(variables, i * size, (i + 1) * size, valueColumns[i]);
+        }
+        result.addColumn(new StringColumn(variableColumn, variables, total));
+
+        DataFrameColumn[] columns = new DataFrameColumn[valueColumns.length];
+        boolean sameType = true;
+        boolean numeric = true;
+        for (int i = 0; i < valueColumns.length; i++) {
+            columns[i] = dataFrame.getColumn(valueColumns[i]);
+            sameType &= columns[i].getClass() == columns[0].getClass();
+            numeric &= columns[i] instanceof NumberColumn;
+        }
+        DataFrameColumn<?, ?> values;
+        if (sameType) {
+            values = columns[0].concat(Arrays.copyOfRange(columns, 1, columns.length));
+        } else if (numeric) {
+            Double[] doubles = new Double[variables.length];
+            for (int i = 0; i < columns.length; i++) {
+                for (int row = 0; row < size; row++) {
+                    doubles[i * size + row] = columns[i].isNA(row) ? null : columns[i].toDouble(row);
+                }
+            }
+            values = new DoubleColumn(null, doubles, total);
+        } else {
+            String[] strings = new String[variables.length];
+            for (int i = 0; i < columns.length; i++) {
+                for (int row = 0; row < size; row++) {
+                    strings[i * size + row] = columns[i].isNA(row) ? null : columns[i].get(row).toString();
+                }
+            }
+            values = new StringColumn(null, strings, total);
+        }
+        values.setName(valueColumn);
+        result.addColumn(values);
+        return result;
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.transform;
+
+import de.unknownreality.dataframe.*;
+import de.unknownreality.dataframe.group.DataGroup;
+import de.unknownreality.dataframe.group.aggr.AggregateFunction;
+
+import java.util.*;
+
+/**
+ * Creates wide data frames from long data frames.
+ * <p>
+ * The rows of the input data frame are assigned to row slots (index column values)
+ * and column slots (pivot column values) in a single hash pass.
+ * Each non empty cell is either filled with the single value of the cell
+ * or aggregated using an {@link AggregateFunction} on the {@link DataGroup} of the cell.
+ * </p>
+ */
+public class Pivot {
+
+    /**
+     * Pivots a data frame without aggregation.
+     * Each combination of index and pivot values must occur at most once.
+     * The value columns have the same type as the input value column.
+     *
+     * @param dataFrame    input data frame
+     * @param indexColumns columns identifying the rows of the result
+     * @param pivotColumn  column whose values become the columns of the result
+     * @param valueColumn  column containing the cell values
+     * @return pivoted data frame
+     */
+    public static DataFrame pivot(DataFrame dataFrame, String[] indexColumns, String pivotColumn, String valueColumn) {
+        Slots slots = new Slots(dataFrame, indexColumns, pivotColumn);
+        int[] cellRows = new int[slots.cellCount()];
+        Arrays.fill(cellRows, -1);
+        for (int row = 0; row < dataFrame.size(); row++) {
+            int cell = slots.cell(row);
+            if (cellRows[cell] != -1) {
+                throw new DataFrameRuntimeException(String.format(
+                        "duplicate entries for pivot value '%s' in row %d, use an aggregate function", slots.pivotValues.get(slots.columnSlots[row]), row));
+            }
+            cellRows[cell] = row;
+        }
+        DataFrameColumn<?, ?> values = dataFrame.getColumn(valueColumn);
+        DataFrame result = slots.createIndexFrame();
+        int[] rows = new int[slots.rowCount()];
+        for (int c = 0; c < slots.columnCount(); c++) {
+            for (int r = 0; r < rows.length; r++) {
+                rows[r] = cellRows[r * slots.columnCount() + c];
+            }
+            DataFrameColumn<?, ?> column = values.gather(rows);
+            column.setName(slots.getColumnName(c));
+            result.addColumn(column);
+        }
+        return result;
+    }
+
+    /**
+     * Pivots a data frame and aggregates the values of each cell.
+     * The {@link DataGroup} passed to the aggregate function contains the rows of one cell
+     * with the index columns, the pivot column and the value column.
+     * Empty cells are {@link Values#NA NA}.
+     *
+     * @param dataFrame    input data frame
+     * @param indexColumns columns identifying the rows of the result
+     * @param pivotColumn  column whose values become the columns of the result
+     * @param valueColumn  column containing the cell values
+     * @param fun          aggregate function applied to each cell
+     * @param <T>          type of the aggregated values
+     * @return pivoted data frame
+     */
+    public static <T> DataFrame pivot(DataFrame dataFrame, String[] indexColumns, String pivotColumn,
+                                      String valueColumn, AggregateFunction<T> fun) {
+        Slots slots = new Slots(dataFrame, indexColumns, pivotColumn);
+        int cellCount = slots.cellCount();
+        // rows of each cell in CSR layout
+        int[] cellStarts = new int[cellCount + 1];
+        int[] cells = new int[dataFrame.size()];
+        for (int row = 0; row < dataFrame.size(); row++) {
+            cells[row] = slots.cell(row);
+            cellStarts[cells[row] + 1]++;
+        }
+        for (int i = 0; i < cellCount; i++) {
+            cellStarts[i + 1] += cellStarts[i];
+        }
+        int[] cellRows = new int[dataFrame.size()];
+        int[] positions = Arrays.copyOf(cellStarts, cellCount);
+        for (int row = 0; row < dataFrame.size(); row++) {
+            cellRows[positions[cells[row]]++] = row;
+        }
+
+        List<String> groupColumnNames = new ArrayList<>(Arrays.asList(indexColumns));
+        groupColumnNames.add(pivotColumn);
+        String[] groupColumns = groupColumnNames.toArray(new String[0]);
+        List<String> sourceColumns = new ArrayList<>(groupColumnNames);
+        if (!sourceColumns.contains(valueColumn)) {
+            sourceColumns.add(valueColumn);
+        }
+
+        DataFrame result = slots.createIndexFrame();
+        Object[] values = new Object[slots.rowCount()];
+        for (int c = 0; c < slots.columnCount(); c++) {
+            Arrays.fill(values, null);
+            for (int r = 0; r < slots.rowCount(); r++) {
+                int cell = r * slots.columnCount() + c;
+                if (cellStarts[cell] == cellStarts[cell + 1]) {
+                    continue;
+                }
+                int[] rows = Arrays.copyOfRange(cellRows, cellStarts[cell], cellStarts[cell + 1]);
+                DataGroup group = new DataGroup(groupColumns, slots.getGroupValues(rows[0]));
+                for (String columnName : sourceColumns) {
+                    DataFrameColumn<?, ?> column = dataFrame.getColumn(columnName).gather(rows);
+                    column.setName(columnName);
+                    group.addColumn(column);
+                }
+                values[r] = fun.aggregate(group);
+            }
+            result.addColumn(createColumn(slots.getColumnName(c), values));
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DataFrameColumn<?, ?> createColumn(String name, Object[] values) {
+        Class valueType = String.class;
+        for (Object value : values) {
+            if (value != null && value != Values.NA) {
+                valueType = value.getClass();
+                break;
+            }
+        }
+        Class colType = ColumnTypeMap.get(valueType);
+        if (colType == null) {
+            throw new DataFrameRuntimeException(String.format("no column type found for value type '%s'", valueType.getCanonicalName()));
+        }
+        DataFrameColumn column;
+        try {
+            column = (DataFrameColumn) colType.newInstance();
+        } catch (InstantiationException | IllegalAccessException | ClassCastException e) {
+            throw new DataFrameRuntimeException(String.format("error creating instance of column [%s], empty constructor required", colType.getCanonicalName()), e);
+        }
+        column.setName(name);
+        for (Object value : values) {
+            if (value == null || value == Values.NA) {
+                column.appendNA();
+            } else {
+                column.append((Comparable) value);
+            }
+        }
+        return column;
+    }
+
+    /**
+     * Row and column slots of all rows, assigned in order of first occurrence.
+     */
+    private static class Slots {
+        private final DataFrame dataFrame;
+        private final String[] indexColumns;
+        private final DataFrameColumn[] keyColumns;
+        private final int[] rowSlots;
+        private final int[] columnSlots;
+        private final List<Integer> firstRows = new ArrayList<>();
+        private final List<Comparable> pivotValues = new ArrayList<>();
+
+        private Slots(DataFrame dataFrame, String[] indexColumns, String pivotColumn) {
+            this.dataFrame = dataFrame;
+            this.indexColumns = indexColumns;
+            this.rowSlots = new int[dataFrame.size()];
+            this.columnSlots = new int[dataFrame.size()];
+            this.keyColumns = new DataFrameColumn[indexColumns.length];
+            for (int i = 0; i < indexColumns.length; i++) {
+                keyColumns[i] = dataFrame.getColumn(indexColumns[i]);
+                if (indexColumns[i].equals(pivotColumn)) {
+                    throw new DataFrameRuntimeException(String.format("pivot column '%s' can not be an index column", pivotColumn));
+                }
+            }
+            DataFrameColumn pivot = dataFrame.getColumn(pivotColumn);
+            Map<List<Comparable>, Integer> rowMap = new HashMap<>();
+            Map<Comparable, Integer> columnMap = new HashMap<>();
+            for (int row = 0; row < dataFrame.size(); row++) {
+                Comparable[] key = new Comparable[keyColumns.length];
+                for (int i = 0; i < key.length; i++) {
+                    key[i] = value(keyColumns[i], row);
+                }
+                List<Comparable> keyList = Arrays.asList(key);
+                Integer rowSlot = rowMap.get(keyList);
+                if (rowSlot == null) {
+                    rowSlot = rowMap.size();
+                    rowMap.put(keyList, rowSlot);
+                    firstRows.add(row);
+                }
+                Comparable pivotValue = value(pivot, row);
+                Integer columnSlot = columnMap.get(pivotValue);
+                if (columnSlot == null) {
+                    columnSlot = columnMap.size();
+                    columnMap.put(pivotValue, columnSlot);
+                    pivotValues.add(pivotValue);
+                }
+                rowSlots[row] = rowSlot;
+                columnSlots[row] = columnSlot;
+            }
+            if ((long) rowCount() * columnCount() > Integer.MAX_VALUE) {
+                throw new DataFrameRuntimeException("pivot result exceeds the maximum number of cells");
+            }
+            for (int c = 0; c < columnCount(); c++) {
+                if (Arrays.asList(indexColumns).contains(getColumnName(c))) {
+                    throw new DataFrameRuntimeException(String.format("pivot value '%s' collides with an index column", getColumnName(c)));
+                }
+            }
+        }
+
+        private Comparable[] getGroupValues(int row) {
+            Comparable[] values = new Comparable[keyColumns.length + 1];
+            for (int i = 0; i < keyColumns.length; i++) {
+                values[i] = value(keyColumns[i], row);
+            }
+            values[keyColumns.length] = pivotValues.get(columnSlots[row]);
+            return values;
+        }
+
+        private static Comparable value(DataFrameColumn column, int row) {
+            return column.isNA(row) ? Values.NA : column.get(row);
+        }
+
+        private int rowCount() {
+            return firstRows.size();
+        }
+
+        private int columnCount() {
+            return pivotValues.size();
+        }
+
+        private int cellCount() {
+            return rowCount() * columnCount();
+        }
+
+        private int cell(int row) {
+            return rowSlots[row] * columnCount() + columnSlots[row];
+        }
+
+        private String getColumnName(int columnSlot) {
+            return pivotValues.get(columnSlot).toString();
+        }
+
+        private DataFrame createIndexFrame() {
+            int[] rows = new int[firstRows.size()];
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = firstRows.get(i);
+            }
+            DataFrame result = new DefaultDataFrame();
+            for (String indexColumn : indexColumns) {
+                DataFrameColumn<?, ?> column = dataFrame.getColumn(indexColumn).gather(rows);
+                column.setName(indexColumn);
+                result.addColumn(column);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.window;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.Values;
+import de.unknownreality.dataframe.sort.RowIndexComparator;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A data frame partitioned and ordered according to a {@link Window}.
+ * The rows are arranged by partition and by the order columns within each partition.
+ * {@link WindowFunction Window functions} use this arrangement to compute one value for each row.
+ * <p>
+ * The arrangement is computed once when the data window is created.
+ * It becomes invalid if rows are added, removed or reordered in the data frame.
+ * </p>
+ */
+public class DataWindow {
+    private final DataFrame dataFrame;
+    private final Window window;
+    private final RowIndexComparator comparator;
+    private final int[] rows;
+    private final int[] partitionStarts;
+
+    /**
+     * Creates a data window for a data frame
+     *
+     * @param dataFrame data frame
+     * @param window    window specification
+     */
+    public DataWindow(DataFrame dataFrame, Window window) {
+        this.dataFrame = dataFrame;
+        this.window = window;
+        this.comparator = new RowIndexComparator(dataFrame, window.getOrderColumns());
+        int size = dataFrame.size();
+        this.rows = new int[size];
+        int[] partitions = new int[size];
+        int partitionCount = assignPartitions(partitions);
+        this.partitionStarts = new int[partitionCount + 1];
+        for (int row = 0; row < size; row++) {
+            partitionStarts[partitions[row] + 1]++;
+        }
+        for (int p = 0; p < partitionCount; p++) {
+            partitionStarts[p + 1] += partitionStarts[p];
+        }
+        int[] positions = Arrays.copyOf(partitionStarts, partitionCount);
+        for (int row = 0; row < size; row++) {
+            rows[positions[partitions[row]]++] = row;
+        }
+        if (window.getOrderColumns().length > 0) {
+            for (int p = 0; p < partitionCount; p++) {
+                comparator.sort(rows, partitionStarts[p], partitionStarts[p + 1]);
+            }
+        }
+    }
+
+    private int assignPartitions(int[] partitions) {
+        String[] partitionColumns = window.getPartitionColumns();
+        if (partitionColumns.length == 0) {
+            return partitions.length == 0 ? 0 : 1;
+        }
+        DataFrameColumn[] columns = new DataFrameColumn[partitionColumns.length];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = dataFrame.getColumn(partitionColumns[i], DataFrameColumn.class);
+        }
+        Map<List<Comparable>, Integer> partitionIds = new HashMap<>();
+        for (int row = 0; row < partitions.length; row++) {
+            Comparable[] key = new Comparable[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                key[i] = columns[i].isNA(row) ? Values.NA : columns[i].get(row);
+            }
+            List<Comparable> keyList = Arrays.asList(key);
+            Integer id = partitionIds.get(keyList);
+            if (id == null) {
+                id = partitionIds.size();
+                partitionIds.put(keyList, id);
+            }
+            partitions[row] = id;
+        }
+        return partitionIds.size();
+    }
+
+    /**
+     * Computes a window function and adds the resulting column to the data frame.
+     *
+     * @param columnName name of the added column
+     * @param function   window function
+     * @return <tt>self</tt> for method chaining
+     */
+    public DataWindow add(String columnName, WindowFunction function) {
+        DataFrameColumn<?, ?> column = function.apply(this);
+        column.setName(columnName);
+        dataFrame.addColumn(column);
+        return this;
+    }
+
+    /**
+     * Returns the data frame of this window
+     *
+     * @return data frame
+     */
+    public DataFrame getDataFrame() {
+        return dataFrame;
+    }
+
+    /**
+     * Returns the window specification
+     *
+     * @return window specification
+     */
+    public Window getWindow() {
+        return window;
+    }
+
+    /**
+     * Returns the number of rows
+     *
+     * @return number of rows
+     */
+    public int size() {
+        return rows.length;
+    }
+
+    /**
+     * Returns the number of partitions
+     *
+     * @return number of partitions
+     */
+    public int getPartitionCount() {
+        return partitionStarts.length - 1;
+    }
+
+    /**
+     * Returns the first position of a partition (inclusive)
+     *
+     * @param partition partition number
+     * @return first position of the partition
+     */
+    public int getPartitionStart(int partition) {
+        return partitionStarts[partition];
+    }
+
+    /**
+     * Returns the last position of a partition (exclusive)
+     *
+     * @param partition partition number
+     * @return end position of the partition
+     */
+    public int getPartitionEnd(int partition) {
+        return partitionStarts[partition + 1];
+    }
+
+    /**
+     * Returns the data frame row index at a position of the window arrangement
+     *
+     * @param position position within the window arrangement
+     * @return row index in the data frame
+     */
+    public int getRow(int position) {
+        return rows[position];
+    }
+
+    /**
+     * Returns the first position of the frame for a position (inclusive).
+     *
+     * @param partition partition of the position
+     * @param position  current position
+     * @return first position of the frame
+     */
+    public int getFrameStart(int partition, int position) {
+        long start = window.getFrameStart() == Window.UNBOUNDED_PRECEDING ?
+                Long.MIN_VALUE : (long) position + window.getFrameStart();
+        return (int) Math.max(start, partitionStarts[partition]);
+    }
+
+    /**
+     * Returns the last position of the frame for a position (inclusive).
+     *
+     * @param partition partition of the position
+     * @param position  current position
+     * @return last position of the frame
+     */
+    public int getFrameEnd(int partition, int position) {
+        long end = window.getFrameEnd() == Window.UNBOUNDED_FOLLOWING ?
+                Long.MAX_VALUE : (long) position + window.getFrameEnd();
+        return (int) Math.min(end, partitionStarts[partition + 1] - 1);
+    }
+
+    /**
+     * Returns <tt>true</tt> if the rows at two positions have equal values in all order columns.
+     *
+     * @param positionA first position
+     * @param positionB second position
+     * @return <tt>true</tt> if the rows are peers
+     */
+    public boolean isPeer(int positionA, int positionB) {
+        return comparator.compare(rows[positionA], rows[positionB]) == 0;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.window;
+
+import de.unknownreality.dataframe.DataFrameRuntimeException;
+import de.unknownreality.dataframe.sort.SortColumn;
+
+/**
+ * Specification of a window used by window functions.
+ * A window consists of partition columns, order columns and a frame of rows relative to the current row.
+ * <p>
+ * If no frame is specified, the frame contains all rows from the start of the partition up to the current row.
+ * </p>
+ * <pre>
+ * Window.partitionBy("user").orderBy("time").rowsBetween(-2, 0)
+ * </pre>
+ */
+public class Window {
+    /**
+     * Frame boundary for the first row of a partition
+     */
+    public static final int UNBOUNDED_PRECEDING = Integer.MIN_VALUE;
+
+    /**
+     * Frame boundary for the last row of a partition
+     */
+    public static final int UNBOUNDED_FOLLOWING = Integer.MAX_VALUE;
+
+    /**
+     * Frame boundary for the current row
+     */
+    public static final int CURRENT_ROW = 0;
+
+    private String[] partitionColumns = new String[0];
+    private SortColumn[] orderColumns = new SortColumn[0];
+    private int frameStart = UNBOUNDED_PRECEDING;
+    private int frameEnd = CURRENT_ROW;
+
+    private Window() {
+
+    }
+
+    /**
+     * Creates a window without partition columns. All rows are part of one partition.
+     *
+     * @return created window
+     */
+    public static Window create() {
+        return new Window();
+    }
+
+    /**
+     * Creates a window partitioned by one or more columns
+     *
+     * @param columns partition columns
+     * @return created window
+     */
+    public static Window partitionBy(String... columns) {
+        return new Window().setPartitionColumns(columns);
+    }
+
+    /**
+     * Sets the partition columns of this window
+     *
+     * @param columns partition columns
+     * @return <tt>self</tt> for method chaining
+     */
+    public Window setPartitionColumns(String... columns) {
+        this.partitionColumns = columns;
+        return this;
+    }
+
+    /**
+     * Sets the columns used to order the rows within a partition (ascending)
+     *
+     * @param columns order columns
+     * @return <tt>self</tt> for method chaining
+     */
+    public Window orderBy(String... columns) {
+        SortColumn[] sortColumns = new SortColumn[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            sortColumns[i] = new SortColumn(columns[i]);
+        }
+        return orderBy(sortColumns);
+    }
+
+    /**
+     * Sets the columns used to order the rows within a partition
+     *
+     * @param columns order columns
+     * @return <tt>self</tt> for method chaining
+     */
+    public Window orderBy(SortColumn... columns) {
+        this.orderColumns = columns;
+        return this;
+    }
+
+    /**
+     * Sets the frame of this window. The frame boundaries are relative to the current row.
+     * Negative values are preceding rows, positive values are following rows.
+     * Use {@link #UNBOUNDED_PRECEDING} and {@link #UNBOUNDED_FOLLOWING} for frames that reach the partition boundaries.
+     * <p><code>rowsBetween(-2, 0)</code> defines a frame containing the two preceding rows and the current row</p>
+     *
+     * @param start first row of the frame relative to the current row
+     * @param end   last row of the frame relative to the current row
+     * @return <tt>self</tt> for method chaining
+     */
+    public Window rowsBetween(int start, int end) {
+        if (start > end) {
+            throw new DataFrameRuntimeException(String.format("invalid window frame: start > end (%d > %d)", start, end));
+        }
+        this.frameStart = start;
+        this.frameEnd = end;
+        return this;
+    }
+
+    /**
+     * Returns the partition columns
+     *
+     * @return partition columns
+     */
+    public String[] getPartitionColumns() {
+        return partitionColumns;
+    }
+
+    /**
+     * Returns the order columns
+     *
+     * @return order columns
+     */
+    public SortColumn[] getOrderColumns() {
+        return orderColumns;
+    }
+
+    /**
+     * Returns the first row of the frame relative to the current row
+     *
+     * @return frame start
+     */
+    public int getFrameStart() {
+        return frameStart;
+    }
+
+    /**
+     * Returns the last row of the frame relative to the current row
+     *
+     * @return frame end
+     */
+    public int getFrameEnd() {
+        return frameEnd;
+    }
+}
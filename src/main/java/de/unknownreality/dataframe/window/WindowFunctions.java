@@ -0,0 +1,249 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.window;
+
+import de.unknownreality.dataframe.DataFrameColumn;
+import de.unknownreality.dataframe.Values;
+import de.unknownreality.dataframe.column.BasicColumn;
+import de.unknownreality.dataframe.column.DoubleColumn;
+import de.unknownreality.dataframe.column.IntegerColumn;
+import de.unknownreality.dataframe.column.NumberColumn;
+
+/**
+ * Factory for common {@link WindowFunction window functions}.
+ * <p>
+ * Frame based aggregates are computed in linear time per partition:
+ * sums, means and counts use prefix sums, minima and maxima use a monotonic deque.
+ * {@link Values#NA NA} values are ignored by all aggregates.
+ * If a frame contains no value, the result is {@link Values#NA NA}.
+ * </p>
+ */
+public class WindowFunctions {
+
+    public static WindowFunction rowNumber() {
+        return window -> {
+            Integer[] result = new Integer[capacity(window)];
+            for (int p = 0; p < window.getPartitionCount(); p++) {
+                int start = window.getPartitionStart(p);
+                for (int pos = start; pos < window.getPartitionEnd(p); pos++) {
+                    result[window.getRow(pos)] = pos - start + 1;
+                }
+            }
+            return new IntegerColumn(null, result, window.size());
+        };
+    }
+
+    public static WindowFunction rank() {
+        return window -> rank(window, false);
+    }
+
+    public static WindowFunction denseRank() {
+        return window -> rank(window, true);
+    }
+
+    public static WindowFunction lag(final String colName, final int offset) {
+        return window -> shift(window, colName, -offset);
+    }
+
+    public static WindowFunction lead(final String colName, final int offset) {
+        return window -> shift(window, colName, offset);
+    }
+
+    public static WindowFunction delta(final String colName, final int offset) {
+        return window -> {
+            NumberColumn<?, ?> column = window.getDataFrame().getNumberColumn(colName);
+            Double[] result = new Double[capacity(window)];
+            for (int p = 0; p < window.getPartitionCount(); p++) {
+                int start = window.getPartitionStart(p);
+                int end = window.getPartitionEnd(p);
+                for (int pos = start; pos < end; pos++) {
+                    long previousPos = (long) pos - offset;
+                    if (previousPos < start || previousPos >= end) {
+                        continue;
+                    }
+                    int row = window.getRow(pos);
+                    int previous = window.getRow((int) previousPos);
+                    if (!column.isNA(row) && !column.isNA(previous)) {
+                        result[row] = column.get(row).doubleValue() - column.get(previous).doubleValue();
+                    }
+                }
+            }
+            return new DoubleColumn(null, result, window.size());
+        };
+    }
+
+    public static WindowFunction cumSum(final String colName) {
+        return window -> {
+            NumberColumn<?, ?> column = window.getDataFrame().getNumberColumn(colName);
+            Double[] result = new Double[capacity(window)];
+            for (int p = 0; p < window.getPartitionCount(); p++) {
+                double sum = 0;
+                for (int pos = window.getPartitionStart(p); pos < window.getPartitionEnd(p); pos++) {
+                    int row = window.getRow(pos);
+                    if (!column.isNA(row)) {
+                        sum += column.get(row).doubleValue();
+                    }
+                    result[row] = sum;
+                }
+            }
+            return new DoubleColumn(null, result, window.size());
+        };
+    }
+
+    public static WindowFunction sum(final String colName) {
+        return window -> prefixAggregate(window, colName, Mode.SUM);
+    }
+
+    public static WindowFunction mean(final String colName) {
+        return window -> prefixAggregate(window, colName, Mode.MEAN);
+    }
+
+    public static WindowFunction count(final String colName) {
+        return window -> prefixAggregate(window, colName, Mode.COUNT);
+    }
+
+    public static WindowFunction min(final String colName) {
+        return window -> extremum(window, colName, false);
+    }
+
+    public static WindowFunction max(final String colName) {
+        return window -> extremum(window, colName, true);
+    }
+
+    private enum Mode {
+        SUM, MEAN, COUNT
+    }
+
+    private static int capacity(DataWindow window) {
+        return Math.max(window.size(), BasicColumn.INIT_SIZE);
+    }
+
+    private static IntegerColumn rank(DataWindow window, boolean dense) {
+        Integer[] result = new Integer[capacity(window)];
+        for (int p = 0; p < window.getPartitionCount(); p++) {
+            int start = window.getPartitionStart(p);
+            int rank = 0;
+            for (int pos = start; pos < window.getPartitionEnd(p); pos++) {
+                if (pos == start || !window.isPeer(pos - 1, pos)) {
+                    rank = dense ? rank + 1 : pos - start + 1;
+                }
+                result[window.getRow(pos)] = rank;
+            }
+        }
+        return new IntegerColumn(null, result, window.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DataFrameColumn<?, ?> shift(DataWindow window, String colName, int offset) {
+        DataFrameColumn<?, ?> column = window.getDataFrame().getColumn(colName);
+        int[] sourceRows = new int[window.size()];
+        for (int p = 0; p < window.getPartitionCount(); p++) {
+            int start = window.getPartitionStart(p);
+            int end = window.getPartitionEnd(p);
+            for (int pos = start; pos < end; pos++) {
+                long source = (long) pos + offset;
+                sourceRows[window.getRow(pos)] = source >= start && source < end ? window.getRow((int) source) : -1;
+            }
+        }
+        return column.gather(sourceRows);
+    }
+
+    private static DoubleColumn prefixAggregate(DataWindow window, String colName, Mode mode) {
+        NumberColumn<?, ?> column = window.getDataFrame().getNumberColumn(colName);
+        Double[] result = new Double[capacity(window)];
+        // prefix arrays are indexed by position + 1 and reused for all partitions
+        double[] sums = new double[window.size() + 1];
+        int[] counts = new int[window.size() + 1];
+        for (int p = 0; p < window.getPartitionCount(); p++) {
+            int start = window.getPartitionStart(p);
+            int end = window.getPartitionEnd(p);
+            sums[start] = 0;
+            counts[start] = 0;
+            for (int pos = start; pos < end; pos++) {
+                int row = window.getRow(pos);
+                boolean na = column.isNA(row);
+                sums[pos + 1] = sums[pos] + (na ? 0 : column.get(row).doubleValue());
+                counts[pos + 1] = counts[pos] + (na ? 0 : 1);
+            }
+            for (int pos = start; pos < end; pos++) {
+                int lo = window.getFrameStart(p, pos);
+                int hi = window.getFrameEnd(p, pos);
+                int count = lo > hi ? 0 : counts[hi + 1] - counts[lo];
+                int row = window.getRow(pos);
+                if (mode == Mode.COUNT) {
+                    result[row] = (double) count;
+                } else if (count > 0) {
+                    double sum = sums[hi + 1] - sums[lo];
+                    result[row] = mode == Mode.SUM ? sum : sum / count;
+                }
+            }
+        }
+        return new DoubleColumn(null, result, window.size());
+    }
+
+    private static DoubleColumn extremum(DataWindow window, String colName, boolean max) {
+        NumberColumn<?, ?> column = window.getDataFrame().getNumberColumn(colName);
+        Double[] result = new Double[capacity(window)];
+        // positions of candidate values, the values are monotonic from head to tail
+        int[] deque = new int[window.size()];
+        double[] values = new double[window.size()];
+        for (int p = 0; p < window.getPartitionCount(); p++) {
+            int start = window.getPartitionStart(p);
+            int end = window.getPartitionEnd(p);
+            for (int pos = start; pos < end; pos++) {
+                int row = window.getRow(pos);
+                values[pos] = column.isNA(row) ? Double.NaN : column.get(row).doubleValue();
+            }
+            int head = 0;
+            int tail = 0;
+            int next = start;
+            for (int pos = start; pos < end; pos++) {
+                int lo = window.getFrameStart(p, pos);
+                int hi = window.getFrameEnd(p, pos);
+                // frame bounds are non decreasing, so every position enters and leaves the deque once
+                while (next <= hi) {
+                    if (!Double.isNaN(values[next])) {
+                        while (tail > head && dominates(values[next], values[deque[tail - 1]], max)) {
+                            tail--;
+                        }
+                        deque[tail++] = next;
+                    }
+                    next++;
+                }
+                while (tail > head && deque[head] < lo) {
+                    head++;
+                }
+                if (tail > head && lo <= hi) {
+                    result[window.getRow(pos)] = values[deque[head]];
+                }
+            }
+        }
+        return new DoubleColumn(null, result, window.size());
+    }
+
+    private static boolean dominates(double value, double other, boolean max) {
+        return max ? value >= other : value <= other;
+    }
+}
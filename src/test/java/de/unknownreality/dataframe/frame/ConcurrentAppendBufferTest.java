@@ -0,0 +1,113 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.frame;
+
+import de.unknownreality.dataframe.ConcurrentAppendBuffer;
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameRuntimeException;
+import de.unknownreality.dataframe.DefaultDataFrame;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class ConcurrentAppendBufferTest {
+    @Rule
+    public final ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void testConcurrentAppend() throws Exception {
+        DefaultDataFrame target = new DefaultDataFrame();
+        target.addIntegerColumn("id");
+        target.addStringColumn("producer");
+        target.setPrimaryKey("id");
+        target.append(-1, "main");
+        final ConcurrentAppendBuffer buffer = new ConcurrentAppendBuffer(target);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int p = 0; p < 8; p++) {
+            final int producer = p;
+            executor.submit(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    buffer.append(producer * 10000 + i, "P" + producer);
+                    if (i == 5000 && producer == 0) {
+                        buffer.drain();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        DataFrame result = buffer.seal();
+        Assert.assertTrue(result.isFrozen());
+        Assert.assertEquals(80001, result.size());
+        Assert.assertEquals(80001, target.size());
+        Set<Integer> ids = new HashSet<>();
+        for (int i = 0; i < result.size(); i++) {
+            ids.add(result.getRow(i).getInteger("id"));
+        }
+        Assert.assertEquals(80001, ids.size());
+        Assert.assertEquals("P3", result.findByPrimaryKey(31234).getString("producer"));
+        Assert.assertEquals("main", target.findByPrimaryKey(-1).getString("producer"));
+    }
+
+    @Test
+    public void testSealed() {
+        DefaultDataFrame target = new DefaultDataFrame();
+        target.addIntegerColumn("id");
+        target.addStringColumn("producer");
+        target.setPrimaryKey("id");
+        ConcurrentAppendBuffer buffer = new ConcurrentAppendBuffer(target);
+        buffer.append(1, "A");
+        Assert.assertEquals(1, buffer.seal().size());
+        Assert.assertTrue(buffer.isSealed());
+        exception.expect(DataFrameRuntimeException.class);
+        buffer.append(2, "B");
+    }
+
+    @Test
+    public void testConcat() {
+        DefaultDataFrame a = new DefaultDataFrame();
+        a.addIntegerColumn("id");
+        a.addStringColumn("producer");
+        a.setPrimaryKey("id");
+        a.append(1, "A");
+        DefaultDataFrame b = new DefaultDataFrame();
+        b.addIntegerColumn("id");
+        b.addStringColumn("producer");
+        b.setPrimaryKey("id");
+        b.append(2, "B");
+        b.append(3, null);
+        a.concat(b);
+        Assert.assertEquals(3, a.size());
+        Assert.assertTrue(a.getRow(2).isNA("producer"));
+        Assert.assertEquals("B", a.findByPrimaryKey(2).getString("producer"));
+    }
+}
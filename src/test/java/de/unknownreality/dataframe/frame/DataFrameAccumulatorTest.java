@@ -0,0 +1,240 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.frame;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataRow;
+import de.unknownreality.dataframe.DefaultDataFrame;
+import de.unknownreality.dataframe.Values;
+import de.unknownreality.dataframe.column.DoubleColumn;
+import de.unknownreality.dataframe.column.IntegerColumn;
+import de.unknownreality.dataframe.column.StringColumn;
+import de.unknownreality.dataframe.group.DataGrouping;
+import de.unknownreality.dataframe.group.GroupRow;
+import de.unknownreality.dataframe.group.aggr.Accumulator;
+import de.unknownreality.dataframe.group.aggr.Accumulators;
+import de.unknownreality.dataframe.group.aggr.Aggregate;
+import de.unknownreality.dataframe.group.impl.HashGroupUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DataFrameAccumulatorTest {
+
+    private static DataGrouping aggregate(DataFrame dataFrame) {
+        return dataFrame.groupBy("name")
+                .agg("count", Accumulators.count())
+                .agg("sum", Accumulators.sum("x"))
+                .agg("mean", Accumulators.mean("y"))
+                .agg("var", Accumulators.variance("x"))
+                .agg("min", Accumulators.min("x"))
+                .agg("max", Accumulators.max("y"))
+                .agg("first", Accumulators.first("y"))
+                .agg("last", Accumulators.last("x"))
+                .agg("na", Accumulators.naCount("y"))
+                .agg("filter", Accumulators.filterCount("x > 2"));
+    }
+
+    private static void testGrouping(DataGrouping grouping) {
+        Assert.assertEquals(3, grouping.size());
+        Assert.assertEquals(IntegerColumn.class, grouping.getColumn("count").getClass());
+        Assert.assertEquals(IntegerColumn.class, grouping.getColumn("sum").getClass());
+        Assert.assertEquals(DoubleColumn.class, grouping.getColumn("mean").getClass());
+        Assert.assertEquals(IntegerColumn.class, grouping.getColumn("min").getClass());
+        Assert.assertEquals(DoubleColumn.class, grouping.getColumn("max").getClass());
+
+        GroupRow a = grouping.findByGroupValues("a");
+        Assert.assertEquals((Integer) 3, a.getInteger("count"));
+        Assert.assertEquals((Integer) 12, a.getInteger("sum"));
+        Assert.assertEquals(3d, a.getDouble("mean"), 1e-10);
+        Assert.assertEquals(13d, a.getDouble("var"), 1e-10);
+        Assert.assertEquals((Integer) 1, a.getInteger("min"));
+        Assert.assertEquals(5d, a.getDouble("max"), 1e-10);
+        Assert.assertEquals(1.5d, a.getDouble("first"), 1e-10);
+        Assert.assertEquals((Integer) 8, a.getInteger("last"));
+        Assert.assertEquals((Integer) 0, a.getInteger("na"));
+        Assert.assertEquals((Integer) 2, a.getInteger("filter"));
+
+        GroupRow b = grouping.findByGroupValues("b");
+        Assert.assertEquals((Integer) 3, b.getInteger("count"));
+        Assert.assertEquals((Integer) 12, b.getInteger("sum"));
+        Assert.assertEquals(2d, b.getDouble("mean"), 1e-10);
+        Assert.assertEquals(4d, b.getDouble("var"), 1e-10);
+        Assert.assertTrue(b.isNA("first"));
+        Assert.assertEquals((Integer) 6, b.getInteger("last"));
+        Assert.assertEquals((Integer) 1, b.getInteger("na"));
+        Assert.assertEquals((Integer) 2, b.getInteger("filter"));
+
+        GroupRow c = grouping.findByGroupValues("c");
+        Assert.assertEquals((Integer) 1, c.getInteger("count"));
+        Assert.assertEquals((Integer) 0, c.getInteger("sum"));
+        Assert.assertTrue(c.isNA("var"));
+        Assert.assertTrue(c.isNA("min"));
+        Assert.assertTrue(c.isNA("last"));
+    }
+
+    @Test
+    public void testSortedGrouping() {
+        DefaultDataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new StringColumn("name"));
+        dataFrame.addColumn(new IntegerColumn("x"));
+        dataFrame.addColumn(new DoubleColumn("y"));
+        dataFrame.append("a", 1, 1.5);
+        dataFrame.append("b", 4, Values.NA);
+        dataFrame.append("a", 3, 2.5);
+        dataFrame.append("c", Values.NA, 4d);
+        dataFrame.append("b", 2, 1d);
+        dataFrame.append("a", 8, 5d);
+        dataFrame.append("b", 6, 3d);
+        testGrouping(aggregate(dataFrame));
+    }
+
+    @Test
+    public void testHashGrouping() {
+        DefaultDataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new StringColumn("name"));
+        dataFrame.addColumn(new IntegerColumn("x"));
+        dataFrame.addColumn(new DoubleColumn("y"));
+        dataFrame.append("a", 1, 1.5);
+        dataFrame.append("b", 4, Values.NA);
+        dataFrame.append("a", 3, 2.5);
+        dataFrame.append("c", Values.NA, 4d);
+        dataFrame.append("b", 2, 1d);
+        dataFrame.append("a", 8, 5d);
+        dataFrame.append("b", 6, 3d);
+        dataFrame.setGroupUtil(new HashGroupUtil());
+        testGrouping(aggregate(dataFrame));
+    }
+
+    @Test
+    public void testSameAsAggregate() {
+        DefaultDataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new StringColumn("name"));
+        dataFrame.addColumn(new IntegerColumn("x"));
+        dataFrame.addColumn(new DoubleColumn("y"));
+        dataFrame.append("a", 1, 1.5);
+        dataFrame.append("b", 4, Values.NA);
+        dataFrame.append("a", 3, 2.5);
+        dataFrame.append("c", Values.NA, 4d);
+        dataFrame.append("b", 2, 1d);
+        dataFrame.append("a", 8, 5d);
+        dataFrame.append("b", 6, 3d);
+        DataGrouping grouping = dataFrame.groupBy("name")
+                .agg("max", Aggregate.max("x"))
+                .agg("max2", Accumulators.max("x"))
+                .agg("naCount", Aggregate.naCount("y"))
+                .agg("naCount2", Accumulators.naCount("y"))
+                .agg("filter", Aggregate.filterCount("y > 1.2"))
+                .agg("filter2", Accumulators.filterCount("y > 1.2"));
+        for (DataRow row : grouping) {
+            if (!row.isNA("max2")) {
+                Assert.assertEquals(row.get("max"), row.get("max2"));
+            }
+            Assert.assertEquals(row.get("naCount"), row.get("naCount2"));
+            Assert.assertEquals(row.get("filter"), row.get("filter2"));
+        }
+    }
+
+    @Test
+    public void testAggregateBuilder() {
+        DefaultDataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new StringColumn("name"));
+        dataFrame.addColumn(new IntegerColumn("x"));
+        dataFrame.addColumn(new DoubleColumn("y"));
+        dataFrame.append("a", 1, 1.5);
+        dataFrame.append("b", 4, Values.NA);
+        dataFrame.append("a", 3, 2.5);
+        dataFrame.append("c", Values.NA, 4d);
+        dataFrame.append("b", 2, 1d);
+        dataFrame.append("a", 8, 5d);
+        dataFrame.append("b", 6, 3d);
+        DataGrouping grouping = dataFrame.groupBy("name")
+                .agg()
+                .count()
+                .sum("x")
+                .mean("y")
+                .p95("x")
+                .median("x")
+                .quantile("y", 0.5)
+                .add("desc", group -> group.getGroupDescription())
+                .apply();
+        Assert.assertEquals(8, grouping.getColumnNames().size());
+        Assert.assertEquals(IntegerColumn.class, grouping.getColumn("x_p95").getClass());
+        Assert.assertEquals(DoubleColumn.class, grouping.getColumn("y_p50").getClass());
+        Assert.assertEquals(StringColumn.class, grouping.getColumn("desc").getClass());
+
+        GroupRow a = grouping.findByGroupValues("a");
+        Assert.assertEquals((Integer) 3, a.getInteger("count"));
+        Assert.assertEquals((Integer) 12, a.getInteger("x_sum"));
+        Assert.assertEquals(3d, a.getDouble("y_mean"), 1e-10);
+        Assert.assertEquals((Integer) 8, a.getInteger("x_p95"));
+        Assert.assertEquals((Integer) 3, a.getInteger("x_median"));
+        Assert.assertEquals(2.5d, a.getDouble("y_p50"), 1e-10);
+        Assert.assertEquals("name=a", a.getString("desc"));
+
+        GroupRow b = grouping.findByGroupValues("b");
+        Assert.assertEquals(a.getGroup().getNumberColumn("x").getQuantile(0.95), a.getInteger("x_p95"));
+        Assert.assertEquals(b.getGroup().getNumberColumn("x").median(), b.getInteger("x_median"));
+        Assert.assertTrue(grouping.findByGroupValues("c").isNA("x_p95"));
+    }
+
+    @Test
+    public void testMerge() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new StringColumn("name"));
+        dataFrame.addColumn(new IntegerColumn("x"));
+        dataFrame.addColumn(new DoubleColumn("y"));
+        dataFrame.append("a", 1, 1.5);
+        dataFrame.append("b", 4, Values.NA);
+        dataFrame.append("a", 3, 2.5);
+        dataFrame.append("c", Values.NA, 4d);
+        dataFrame.append("b", 2, 1d);
+        dataFrame.append("a", 8, 5d);
+        dataFrame.append("b", 6, 3d);
+        Accumulator full = Accumulators.variance("x").copy();
+        full.init(dataFrame, 1);
+        Accumulator first = Accumulators.variance("x").copy();
+        first.init(dataFrame, 1);
+        Accumulator second = Accumulators.variance("x").copy();
+        second.init(dataFrame, 2);
+        for (int i = 0; i < dataFrame.size(); i++) {
+            full.accumulate(0, i);
+            if (i < 3) {
+                first.accumulate(0, i);
+            } else {
+                second.accumulate(1, i);
+            }
+        }
+        first.merge(0, second, 1);
+        Assert.assertEquals(full.finish("v").get(0), first.finish("v").get(0));
+
+        Accumulator last = Accumulators.last("x").copy();
+        last.init(dataFrame, 1);
+        last.grow(3);
+        last.accumulate(2, 4);
+        last.accumulate(2, 1);
+        Assert.assertEquals(3, last.finish("l").size());
+        Assert.assertEquals(2, last.finish("l").get(2));
+    }
+}
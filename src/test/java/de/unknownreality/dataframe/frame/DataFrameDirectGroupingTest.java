@@ -0,0 +1,188 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.frame;
+
+import de.unknownreality.dataframe.DefaultDataFrame;
+import de.unknownreality.dataframe.Values;
+import de.unknownreality.dataframe.column.BooleanColumn;
+import de.unknownreality.dataframe.column.IntegerColumn;
+import de.unknownreality.dataframe.column.LongColumn;
+import de.unknownreality.dataframe.column.StringColumn;
+import de.unknownreality.dataframe.group.DataGrouping;
+import de.unknownreality.dataframe.group.aggr.Accumulator;
+import de.unknownreality.dataframe.group.aggr.Accumulators;
+import de.unknownreality.dataframe.group.impl.HashGroupUtil;
+import de.unknownreality.dataframe.group.impl.ParallelGroupUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class DataFrameDirectGroupingTest {
+
+    @Test
+    public void testSortedGrouping() {
+        DefaultDataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new IntegerColumn("hour"));
+        dataFrame.addColumn(new BooleanColumn("error"));
+        dataFrame.addColumn(new LongColumn("id"));
+        dataFrame.append(13, true, 1L);
+        dataFrame.append(2, false, 2L);
+        dataFrame.append(13, false, 3L);
+        dataFrame.append(Values.NA, true, 4L);
+        dataFrame.append(2, false, 5L);
+        dataFrame.append(13, true, 6L);
+        dataFrame.append(2, Values.NA, 7000000000L);
+        DataGrouping grouping = dataFrame.groupBy("hour", "error");
+        // grouped by direct addressing, the copy of the data frame is not sorted
+        Assert.assertNotSame(dataFrame, grouping.getSource());
+        Assert.assertEquals((Long) 1L, grouping.getSource().getRow(0).getLong("id"));
+        Assert.assertEquals(5, grouping.getGroupCount());
+        // groups are ordered by their values, NA last
+        Assert.assertEquals((Integer) 2, grouping.getRow(0).getInteger("hour"));
+        Assert.assertEquals(false, grouping.getRow(0).getBoolean("error"));
+        Assert.assertArrayEquals(new int[]{1, 4}, grouping.getGroupRows(0));
+        Assert.assertTrue(grouping.getRow(1).isNA("error"));
+        Assert.assertEquals((Integer) 13, grouping.getRow(2).getInteger("hour"));
+        Assert.assertEquals(false, grouping.getRow(2).getBoolean("error"));
+        Assert.assertArrayEquals(new int[]{0, 5}, grouping.getGroupRows(3));
+        Assert.assertTrue(grouping.getRow(4).isNA("hour"));
+        Assert.assertEquals((Long) 4L, grouping.getGroup(4).getRow(0).getLong("id"));
+    }
+
+    @Test
+    public void testSourceChanged() {
+        DefaultDataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new IntegerColumn("k"));
+        dataFrame.addColumn(new IntegerColumn("v"));
+        dataFrame.append(1, 10);
+        dataFrame.append(2, 20);
+        dataFrame.append(1, 30);
+        DataGrouping grouping = dataFrame.groupBy("k");
+        dataFrame.getIntegerColumn("v").set(0, 999);
+        Assert.assertEquals((Integer) 10, grouping.getGroup(0).getRow(0).getInteger("v"));
+        dataFrame.filter("k == 2");
+        Assert.assertEquals(2, grouping.getGroup(0).size());
+        Assert.assertEquals((Integer) 30, grouping.getGroup(0).getRow(1).getInteger("v"));
+
+        DefaultDataFrame sorted = new DefaultDataFrame();
+        sorted.addColumn(new StringColumn("k"));
+        sorted.addColumn(new IntegerColumn("v"));
+        sorted.append("a", 10);
+        sorted.append("b", 20);
+        sorted.sort("k");
+        grouping = sorted.groupBy("k");
+        sorted.getIntegerColumn("v").set(0, 999);
+        Assert.assertEquals((Integer) 10, grouping.getGroup(0).getRow(0).getInteger("v"));
+    }
+
+    @Test
+    public void testLargeDomain() {
+        DefaultDataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new IntegerColumn("hour"));
+        dataFrame.addColumn(new BooleanColumn("error"));
+        dataFrame.addColumn(new LongColumn("id"));
+        dataFrame.append(13, true, 1L);
+        dataFrame.append(2, false, 2L);
+        dataFrame.append(13, false, 3L);
+        dataFrame.append(Values.NA, true, 4L);
+        dataFrame.append(2, false, 5L);
+        dataFrame.append(13, true, 6L);
+        dataFrame.append(2, Values.NA, 7000000000L);
+        // the range of the id column is too large for direct addressing
+        DataGrouping grouping = dataFrame.groupBy("id");
+        Assert.assertNotSame(dataFrame, grouping.getSource());
+        Assert.assertEquals(7, grouping.getGroupCount());
+        Assert.assertEquals((Long) 7000000000L, grouping.getRow(6).getLong("id"));
+    }
+
+    @Test
+    public void testLongRange() {
+        DefaultDataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new LongColumn("id"));
+        dataFrame.append(Long.MAX_VALUE);
+        dataFrame.append(Long.MIN_VALUE);
+        dataFrame.append(Long.MAX_VALUE);
+        DataGrouping grouping = dataFrame.groupBy("id");
+        Assert.assertEquals(2, grouping.getGroupCount());
+        Assert.assertEquals((Long) Long.MIN_VALUE, grouping.getRow(0).getLong("id"));
+        Assert.assertEquals(2, grouping.getGroup(1).size());
+    }
+
+    @Test
+    public void testHashGrouping() {
+        DefaultDataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new IntegerColumn("hour"));
+        dataFrame.addColumn(new BooleanColumn("error"));
+        dataFrame.addColumn(new LongColumn("id"));
+        dataFrame.append(13, true, 1L);
+        dataFrame.append(2, false, 2L);
+        dataFrame.append(13, false, 3L);
+        dataFrame.append(Values.NA, true, 4L);
+        dataFrame.append(2, false, 5L);
+        dataFrame.append(13, true, 6L);
+        dataFrame.append(2, Values.NA, 7000000000L);
+        dataFrame.setGroupUtil(new HashGroupUtil());
+        DataGrouping grouping = dataFrame.groupBy("hour", "error");
+        Assert.assertEquals(5, grouping.getGroupCount());
+        // groups are ordered by first appearance
+        Assert.assertEquals((Integer) 13, grouping.getRow(0).getInteger("hour"));
+        Assert.assertArrayEquals(new int[]{0, 5}, grouping.getGroupRows(0));
+        Assert.assertArrayEquals(new int[]{1, 4}, grouping.getGroupRows(1));
+        Assert.assertTrue(grouping.getRow(3).isNA("hour"));
+        Assert.assertArrayEquals(new int[]{6}, grouping.getGroupRows(4));
+    }
+
+    @Test
+    public void testParallelAggregation() {
+        DefaultDataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new IntegerColumn("hour"));
+        dataFrame.addColumn(new IntegerColumn("value"));
+        int size = 100000;
+        for (int i = 0; i < size; i++) {
+            dataFrame.append((i * 7) % 24, i % 10);
+        }
+        Map<String, Accumulator> accumulators = new LinkedHashMap<>();
+        accumulators.put("count", Accumulators.count());
+        accumulators.put("sum", Accumulators.sum("value"));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            DataGrouping grouping = new ParallelGroupUtil(executor, 4).aggregate(dataFrame, new String[]{"hour"}, accumulators);
+            DataGrouping expected = new HashGroupUtil().groupBy(dataFrame, "hour").agg()
+                    .count().add("sum", Accumulators.sum("value")).apply();
+            Assert.assertEquals(24, grouping.getGroupCount());
+            for (int i = 0; i < 24; i++) {
+                Assert.assertEquals(expected.getRow(i).getInteger("hour"), grouping.getRow(i).getInteger("hour"));
+                Assert.assertEquals(expected.getRow(i).getInteger("count"), grouping.getRow(i).getInteger("count"));
+                Assert.assertEquals(expected.getRow(i).getInteger("sum"), grouping.getRow(i).getInteger("sum"));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
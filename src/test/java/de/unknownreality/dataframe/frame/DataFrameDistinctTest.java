@@ -0,0 +1,125 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.frame;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DefaultDataFrame;
+import de.unknownreality.dataframe.column.LongColumn;
+import de.unknownreality.dataframe.hash.Duplicates;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DataFrameDistinctTest {
+    private static final long HASH_A_1 = -3288183661968715980L;
+
+    @Test
+    public void testDistinct() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addStringColumn("user");
+        dataFrame.addIntegerColumn("event");
+        dataFrame.addIntegerColumn("time");
+        dataFrame.append("a", 1, 10);
+        dataFrame.append("b", 1, 11);
+        dataFrame.append("a", 1, 12);
+        dataFrame.append("a", 2, 13);
+        dataFrame.append(null, 2, 14);
+        dataFrame.append("b", 1, 15);
+        dataFrame.append(null, 2, 16);
+        dataFrame.append("a", 2, 13);
+        DataFrame distinct = dataFrame.distinct("user", "event");
+        Assert.assertEquals(4, distinct.size());
+        Assert.assertEquals(Integer.valueOf(10), distinct.getRow(0).getInteger("time"));
+        Assert.assertEquals(Integer.valueOf(11), distinct.getRow(1).getInteger("time"));
+        Assert.assertEquals(Integer.valueOf(13), distinct.getRow(2).getInteger("time"));
+        Assert.assertEquals(Integer.valueOf(14), distinct.getRow(3).getInteger("time"));
+        Assert.assertTrue(distinct.getRow(3).isNA("user"));
+
+        DataFrame all = dataFrame.distinct();
+        Assert.assertEquals(7, all.size());
+    }
+
+    @Test
+    public void testDropDuplicatesLast() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addStringColumn("user");
+        dataFrame.addIntegerColumn("event");
+        dataFrame.addIntegerColumn("time");
+        dataFrame.append("a", 1, 10);
+        dataFrame.append("b", 1, 11);
+        dataFrame.append("a", 1, 12);
+        dataFrame.append("a", 2, 13);
+        dataFrame.append(null, 2, 14);
+        dataFrame.append("b", 1, 15);
+        dataFrame.append(null, 2, 16);
+        dataFrame.append("a", 2, 13);
+        DataFrame distinct = dataFrame.dropDuplicates(Duplicates.Keep.Last, "user", "event");
+        Assert.assertEquals(4, distinct.size());
+        Assert.assertEquals(Integer.valueOf(12), distinct.getRow(0).getInteger("time"));
+        Assert.assertEquals(Integer.valueOf(15), distinct.getRow(1).getInteger("time"));
+        Assert.assertEquals(Integer.valueOf(16), distinct.getRow(2).getInteger("time"));
+        Assert.assertEquals(Integer.valueOf(13), distinct.getRow(3).getInteger("time"));
+    }
+
+    @Test
+    public void testManyKeys() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addIntegerColumn("key");
+        for (int i = 0; i < 100000; i++) {
+            dataFrame.append(i % 30011);
+        }
+        DataFrame distinct = dataFrame.distinct("key");
+        Assert.assertEquals(30011, distinct.size());
+        for (int i = 0; i < distinct.size(); i++) {
+            Assert.assertEquals(Integer.valueOf(i), distinct.getRow(i).getInteger("key"));
+        }
+    }
+
+    @Test
+    public void testHashRows() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addStringColumn("user");
+        dataFrame.addIntegerColumn("event");
+        dataFrame.addIntegerColumn("time");
+        dataFrame.append("a", 1, 10);
+        dataFrame.append("b", 1, 11);
+        dataFrame.append("a", 1, 12);
+        dataFrame.append("a", 2, 13);
+        dataFrame.append(null, 2, 14);
+        dataFrame.append("b", 1, 15);
+        dataFrame.append(null, 2, 16);
+        dataFrame.append("a", 2, 13);
+        LongColumn hashes = dataFrame.hashRows("user", "event");
+        Assert.assertEquals(dataFrame.size(), hashes.size());
+        Assert.assertEquals(hashes.get(0), hashes.get(2));
+        Assert.assertEquals(hashes.get(4), hashes.get(6));
+        Assert.assertNotEquals(hashes.get(0), hashes.get(3));
+        Assert.assertNotEquals(hashes.get(0), hashes.get(1));
+        Assert.assertNotEquals(dataFrame.hashRows("user").get(0), hashes.get(0));
+        Assert.assertNotEquals(dataFrame.hashRows().get(0), dataFrame.hashRows().get(2));
+        Assert.assertEquals(dataFrame.hashRows().get(3), dataFrame.hashRows().get(7));
+        // hashes must not change between versions
+        Assert.assertEquals(Long.valueOf(HASH_A_1), hashes.get(0));
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.frame;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameRuntimeException;
+import de.unknownreality.dataframe.DataRow;
+import de.unknownreality.dataframe.DefaultDataFrame;
+import de.unknownreality.dataframe.filter.FilterPredicate;
+import de.unknownreality.dataframe.group.AggregateView;
+import de.unknownreality.dataframe.group.aggr.Accumulator;
+import de.unknownreality.dataframe.group.aggr.Accumulators;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class DataFrameFreezeTest {
+    @Rule
+    public final ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void testFreeze() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addIntegerColumn("id");
+        dataFrame.addStringColumn("group");
+        dataFrame.addDoubleColumn("value");
+        for (int i = 0; i < 100; i++) {
+            dataFrame.append(i, "G" + (i % 5), i * 0.5);
+        }
+        dataFrame.setPrimaryKey("id");
+        dataFrame.addIndex("group_idx", "group");
+        DataFrame frozen = dataFrame.freeze();
+        Assert.assertTrue(frozen.isFrozen());
+        Assert.assertFalse(dataFrame.isFrozen());
+        Assert.assertSame(frozen, frozen.freeze());
+        Assert.assertEquals(dataFrame, frozen);
+        Assert.assertEquals(Integer.valueOf(42), frozen.findByPrimaryKey(42).getInteger("id"));
+        Assert.assertEquals(20, frozen.findByIndex("group_idx", "G1").size());
+
+        dataFrame.append(100, "G0", 50d);
+        Assert.assertEquals(100, frozen.size());
+
+        DataFrame copy = frozen.copy();
+        Assert.assertFalse(copy.isFrozen());
+        copy.append(100, "G0", 50d);
+        Assert.assertEquals(101, copy.size());
+    }
+
+    @Test
+    public void testFrozenFrameRejectsAppend() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addIntegerColumn("id");
+        dataFrame.addStringColumn("group");
+        dataFrame.addDoubleColumn("value");
+        for (int i = 0; i < 10; i++) {
+            dataFrame.append(i, "G" + (i % 5), i * 0.5);
+        }
+        dataFrame.setPrimaryKey("id");
+        dataFrame.addIndex("group_idx", "group");
+        DataFrame frozen = dataFrame.freeze();
+        exception.expect(DataFrameRuntimeException.class);
+        frozen.append(10, "G0", 5d);
+    }
+
+    @Test
+    public void testFrozenColumnRejectsSet() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addIntegerColumn("id");
+        dataFrame.addStringColumn("group");
+        dataFrame.addDoubleColumn("value");
+        for (int i = 0; i < 10; i++) {
+            dataFrame.append(i, "G" + (i % 5), i * 0.5);
+        }
+        dataFrame.setPrimaryKey("id");
+        dataFrame.addIndex("group_idx", "group");
+        DataFrame frozen = dataFrame.freeze();
+        exception.expect(DataFrameRuntimeException.class);
+        frozen.getIntegerColumn("id").set(0, 5);
+    }
+
+    @Test
+    public void testFrozenHeaderRejectsRename() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addIntegerColumn("id");
+        dataFrame.addStringColumn("group");
+        dataFrame.addDoubleColumn("value");
+        for (int i = 0; i < 10; i++) {
+            dataFrame.append(i, "G" + (i % 5), i * 0.5);
+        }
+        dataFrame.setPrimaryKey("id");
+        dataFrame.addIndex("group_idx", "group");
+        DataFrame frozen = dataFrame.freeze();
+        exception.expect(DataFrameRuntimeException.class);
+        frozen.getHeader().rename("id", "x");
+    }
+
+    @Test
+    public void testFrozenFrameRejectsSort() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addIntegerColumn("id");
+        dataFrame.addStringColumn("group");
+        dataFrame.addDoubleColumn("value");
+        for (int i = 0; i < 10; i++) {
+            dataFrame.append(i, "G" + (i % 5), i * 0.5);
+        }
+        dataFrame.setPrimaryKey("id");
+        dataFrame.addIndex("group_idx", "group");
+        DataFrame frozen = dataFrame.freeze();
+        exception.expect(DataFrameRuntimeException.class);
+        frozen.sort("value");
+    }
+
+    @Test
+    public void testFrozenMaterialize() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addStringColumn("group");
+        dataFrame.addIntegerColumn("value");
+        dataFrame.append("a", 1);
+        dataFrame.append("b", 2);
+        dataFrame.append("a", 3);
+        DataFrame frozen = dataFrame.freeze();
+        Map<String, Accumulator> accumulators = new LinkedHashMap<>();
+        accumulators.put("sum", Accumulators.sum("value"));
+        AggregateView view = frozen.materialize(accumulators, "group");
+        Assert.assertEquals(2, view.getResult().size());
+        Assert.assertEquals(4, view.getResult().getRow(0).getNumber("sum").intValue());
+    }
+
+    @Test
+    public void testConcurrentReads() throws Exception {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addIntegerColumn("id");
+        dataFrame.addStringColumn("group");
+        dataFrame.addDoubleColumn("value");
+        for (int i = 0; i < 5000; i++) {
+            dataFrame.append(i, "G" + (i % 5), i * 0.5);
+        }
+        dataFrame.setPrimaryKey("id");
+        dataFrame.addIndex("group_idx", "group");
+        final DataFrame frozen = dataFrame.freeze();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 32; t++) {
+                final int offset = t;
+                results.add(executor.submit(() -> {
+                    for (int i = offset; i < 5000; i += 97) {
+                        DataRow row = frozen.findByPrimaryKey(i);
+                        if (row == null || !row.getString("group").equals("G" + (i % 5))) {
+                            return false;
+                        }
+                        if (frozen.findByIndex("group_idx", "G" + (i % 5)).size() != 1000) {
+                            return false;
+                        }
+                    }
+                    return frozen.select(FilterPredicate.eq("group", "G2")).size() == 1000
+                            && frozen.groupBy("group").size() == 5;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                Assert.assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
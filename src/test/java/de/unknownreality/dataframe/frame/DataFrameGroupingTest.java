@@ -28,12 +28,17 @@ import de.unknownreality.dataframe.column.DoubleColumn;
 import de.unknownreality.dataframe.column.IntegerColumn;
 import de.unknownreality.dataframe.column.StringColumn;
 import de.unknownreality.dataframe.filter.FilterPredicate;
+import de.unknownreality.dataframe.group.AggregateView;
 import de.unknownreality.dataframe.group.DataGroup;
 import de.unknownreality.dataframe.group.DataGrouping;
 import de.unknownreality.dataframe.group.GroupRow;
+import de.unknownreality.dataframe.group.GroupingSets;
+import de.unknownreality.dataframe.group.aggr.Accumulator;
+import de.unknownreality.dataframe.group.aggr.Accumulators;
 import de.unknownreality.dataframe.group.aggr.Aggregate;
 import de.unknownreality.dataframe.csv.CSVReader;
 import de.unknownreality.dataframe.csv.CSVReaderBuilder;
+import de.unknownreality.dataframe.sort.SortColumn;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
@@ -42,6 +47,11 @@ import org.junit.rules.ExpectedException;
 import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Created by Alex on 12.03.2016.
@@ -171,6 +181,313 @@ public class DataFrameGroupingTest {
 
     }
 
+    @Test
+    public void testRollup() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new StringColumn("region"));
+        dataFrame.addColumn(new StringColumn("country"));
+        dataFrame.addColumn(new StringColumn("city"));
+        dataFrame.addColumn(new IntegerColumn("sales"));
+        dataFrame.append("EU", "DE", "Berlin", 10);
+        dataFrame.append("EU", "FR", "Paris", 20);
+        dataFrame.append("EU", "DE", "Munich", 5);
+        dataFrame.append("US", "US", "NYC", 30);
+        dataFrame.append("EU", "DE", "Berlin", 1);
+        dataFrame.append("US", "US", "Boston", 7);
+        Map<String, Accumulator> accumulators = new LinkedHashMap<>();
+        accumulators.put("count", Accumulators.count());
+        accumulators.put("sales", Accumulators.sum("sales"));
+        accumulators.put("first", Accumulators.first("city"));
+        accumulators.put("last", Accumulators.last("city"));
+        DataFrame result = dataFrame.rollup(accumulators, "region", "country", "city");
+        Assert.assertEquals(8, result.getColumnNames().size());
+        // 5 cities, 3 countries, 2 regions, 1 total
+        Assert.assertEquals(11, result.size());
+
+        DataRow berlin = findGroupingSet(result, 0, "EU", "DE", "Berlin");
+        Assert.assertEquals((Integer) 2, berlin.getInteger("count"));
+        Assert.assertEquals((Integer) 11, berlin.getInteger("sales"));
+        DataRow de = findGroupingSet(result, 1, "EU", "DE", null);
+        Assert.assertEquals((Integer) 16, de.getInteger("sales"));
+        DataRow eu = findGroupingSet(result, 3, "EU", null, null);
+        Assert.assertEquals((Integer) 36, eu.getInteger("sales"));
+        Assert.assertEquals("Berlin", eu.getString("first"));
+        Assert.assertEquals("Berlin", eu.getString("last"));
+        DataRow total = findGroupingSet(result, 7, null, null, null);
+        Assert.assertEquals((Integer) 6, total.getInteger("count"));
+        Assert.assertEquals((Integer) 73, total.getInteger("sales"));
+        Assert.assertEquals("Boston", total.getString("last"));
+
+        // levels are ordered from the finest grouping to the grand total
+        for (int i = 1; i < result.size(); i++) {
+            Assert.assertTrue(result.getRow(i - 1).getInteger(GroupingSets.GROUPING_ID)
+                    <= result.getRow(i).getInteger(GroupingSets.GROUPING_ID));
+        }
+    }
+
+    @Test
+    public void testCube() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new StringColumn("region"));
+        dataFrame.addColumn(new StringColumn("country"));
+        dataFrame.addColumn(new StringColumn("city"));
+        dataFrame.addColumn(new IntegerColumn("sales"));
+        dataFrame.append("EU", "DE", "Berlin", 10);
+        dataFrame.append("EU", "FR", "Paris", 20);
+        dataFrame.append("EU", "DE", "Munich", 5);
+        dataFrame.append("US", "US", "NYC", 30);
+        dataFrame.append("EU", "DE", "Berlin", 1);
+        dataFrame.append("US", "US", "Boston", 7);
+        Map<String, Accumulator> accumulators = new LinkedHashMap<>();
+        accumulators.put("count", Accumulators.count());
+        accumulators.put("sales", Accumulators.sum("sales"));
+        accumulators.put("first", Accumulators.first("city"));
+        accumulators.put("last", Accumulators.last("city"));
+        DataFrame result = dataFrame.cube(accumulators, "region", "country");
+        // (region, country): 3, (region): 2, (country): 3, (): 1
+        Assert.assertEquals(9, result.size());
+        Assert.assertEquals((Integer) 16, findGroupingSet(result, 0, "EU", "DE", null).getInteger("sales"));
+        Assert.assertEquals((Integer) 37, findGroupingSet(result, 1, "US", null, null).getInteger("sales"));
+        Assert.assertEquals((Integer) 20, findGroupingSet(result, 2, null, "FR", null).getInteger("sales"));
+        Assert.assertEquals((Integer) 73, findGroupingSet(result, 3, null, null, null).getInteger("sales"));
+    }
+
+    @Test
+    public void testGroupingSets() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new StringColumn("region"));
+        dataFrame.addColumn(new StringColumn("country"));
+        dataFrame.addColumn(new StringColumn("city"));
+        dataFrame.addColumn(new IntegerColumn("sales"));
+        dataFrame.append("EU", "DE", "Berlin", 10);
+        dataFrame.append("EU", "FR", "Paris", 20);
+        dataFrame.append("EU", "DE", "Munich", 5);
+        dataFrame.append("US", "US", "NYC", 30);
+        dataFrame.append("EU", "DE", "Berlin", 1);
+        dataFrame.append("US", "US", "Boston", 7);
+        Map<String, Accumulator> accumulators = new LinkedHashMap<>();
+        accumulators.put("count", Accumulators.count());
+        accumulators.put("sales", Accumulators.sum("sales"));
+        accumulators.put("first", Accumulators.first("city"));
+        accumulators.put("last", Accumulators.last("city"));
+        DataFrame result = dataFrame.groupingSets(accumulators,
+                new String[]{"city"}, new String[]{"region"});
+        Assert.assertEquals(7, result.size());
+        Assert.assertEquals(2, new ArrayList<>(result.getColumnNames()).indexOf("grouping_id"));
+        Assert.assertEquals((Integer) 11, findGroupingSet(result, 1, null, null, "Berlin").getInteger("sales"));
+        Assert.assertEquals((Integer) 37, findGroupingSet(result, 2, "US", null, null).getInteger("sales"));
+    }
+
+    @Test
+    public void testEmptyRollup() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new StringColumn("region"));
+        dataFrame.addColumn(new IntegerColumn("sales"));
+        Map<String, Accumulator> accumulators = new LinkedHashMap<>();
+        accumulators.put("count", Accumulators.count());
+        DataFrame result = dataFrame.rollup(accumulators, "region");
+        Assert.assertEquals(1, result.size());
+        Assert.assertEquals((Integer) 0, result.getRow(0).getInteger("count"));
+        Assert.assertTrue(result.getRow(0).isNA("region"));
+    }
+
+    @Test
+    public void testAggregateViewAppend() {
+        Map<String, Accumulator> accumulators = new LinkedHashMap<>();
+        accumulators.put("count", Accumulators.count());
+        accumulators.put("bytes", Accumulators.sum("bytes"));
+        accumulators.put("max", Accumulators.max("bytes"));
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new StringColumn("status"));
+        dataFrame.addColumn(new IntegerColumn("bytes"));
+        dataFrame.append("200", 10);
+        dataFrame.append("404", 1);
+        dataFrame.append("200", 20);
+        AggregateView view = dataFrame.materialize(accumulators, "status");
+        DataFrame result = view.getResult();
+        Assert.assertEquals(2, result.size());
+        assertViewGroup(result, "200", 2, 30, 20);
+        assertViewGroup(result, "404", 1, 1, 1);
+
+        dataFrame.append("500", 3);
+        dataFrame.append("200", 40);
+        Assert.assertEquals(3, view.getProcessedRows());
+        result = view.getResult();
+        Assert.assertEquals(5, view.getProcessedRows());
+        Assert.assertEquals(3, result.size());
+        Assert.assertEquals("200", result.getRow(0).getString("status"));
+        assertViewGroup(result, "200", 3, 70, 40);
+        assertViewGroup(result, "500", 1, 3, 3);
+
+        DataFrame chunk = new DefaultDataFrame();
+        chunk.addColumn(new StringColumn("status"));
+        chunk.addColumn(new IntegerColumn("bytes"));
+        chunk.append("200", 10);
+        chunk.append("404", 1);
+        chunk.append("200", 20);
+        dataFrame.concat(chunk);
+        assertViewGroup(view.getResult(), "200", 5, 100, 40);
+    }
+
+    @Test
+    public void testAggregateViewUpdate() {
+        Map<String, Accumulator> accumulators = new LinkedHashMap<>();
+        accumulators.put("count", Accumulators.count());
+        accumulators.put("bytes", Accumulators.sum("bytes"));
+        accumulators.put("max", Accumulators.max("bytes"));
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new StringColumn("status"));
+        dataFrame.addColumn(new IntegerColumn("bytes"));
+        dataFrame.append("200", 10);
+        dataFrame.append("404", 1);
+        dataFrame.append("200", 20);
+        AggregateView view = dataFrame.materialize(accumulators, "status");
+        view.getResult();
+
+        dataFrame.getIntegerColumn("bytes").set(2, 5);
+        DataFrame result = view.getResult();
+        assertViewGroup(result, "200", 2, 15, 10);
+        assertViewGroup(result, "404", 1, 1, 1);
+
+        // moves the row to another group
+        dataFrame.getStringColumn("status").set(2, "404");
+        result = view.getResult();
+        assertViewGroup(result, "200", 1, 10, 10);
+        assertViewGroup(result, "404", 2, 6, 5);
+
+        // the last row of a group moves, the group is removed from the result
+        dataFrame.getStringColumn("status").set(0, "404");
+        result = view.getResult();
+        Assert.assertEquals(1, result.size());
+        assertViewGroup(result, "404", 3, 16, 10);
+    }
+
+    @Test
+    public void testAggregateViewRecompute() {
+        Map<String, Accumulator> accumulators = new LinkedHashMap<>();
+        accumulators.put("count", Accumulators.count());
+        accumulators.put("bytes", Accumulators.sum("bytes"));
+        accumulators.put("max", Accumulators.max("bytes"));
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new StringColumn("status"));
+        dataFrame.addColumn(new IntegerColumn("bytes"));
+        dataFrame.append("200", 10);
+        dataFrame.append("404", 1);
+        dataFrame.append("200", 20);
+        AggregateView view = dataFrame.materialize(accumulators, "status");
+        view.getResult();
+
+        dataFrame.sort("bytes");
+        dataFrame.append("404", 7);
+        DataFrame result = view.getResult();
+        Assert.assertEquals("404", result.getRow(0).getString("status"));
+        assertViewGroup(result, "200", 2, 30, 20);
+        assertViewGroup(result, "404", 2, 8, 7);
+
+        dataFrame.filter("status == '404'");
+        result = view.getResult();
+        Assert.assertEquals(1, result.size());
+        assertViewGroup(result, "404", 2, 8, 7);
+    }
+
+    @Test
+    public void testAggregateViewClose() {
+        Map<String, Accumulator> accumulators = new LinkedHashMap<>();
+        accumulators.put("count", Accumulators.count());
+        accumulators.put("bytes", Accumulators.sum("bytes"));
+        accumulators.put("max", Accumulators.max("bytes"));
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new StringColumn("status"));
+        dataFrame.addColumn(new IntegerColumn("bytes"));
+        dataFrame.append("200", 10);
+        dataFrame.append("404", 1);
+        dataFrame.append("200", 20);
+        AggregateView view = dataFrame.materialize(accumulators, "status");
+        view.close();
+        Assert.assertTrue(view.isClosed());
+        dataFrame.append("200", 1);
+        try {
+            view.getResult();
+            Assert.fail("closed view must not return a result");
+        } catch (DataFrameRuntimeException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testTopNPerGroup() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new StringColumn("customer"));
+        dataFrame.addColumn(new StringColumn("item"));
+        dataFrame.addColumn(new IntegerColumn("price"));
+        dataFrame.append("b", "b1", 5);
+        dataFrame.append("a", "a1", 3);
+        dataFrame.append("a", "a2", 9);
+        dataFrame.append("b", "b2", Values.NA);
+        dataFrame.append("a", "a3", 7);
+        dataFrame.append("a", "a4", 9);
+        dataFrame.append("c", "c1", 1);
+        dataFrame.append("b", "b3", 8);
+        DataFrame top = dataFrame.topNPerGroup(new String[]{"customer"}, 2,
+                new SortColumn("price", SortColumn.Direction.Descending));
+        Assert.assertEquals(3, top.getColumnNames().size());
+        // groups by first appearance, equal prices by row order, NA last
+        Assert.assertEquals(Arrays.asList("b3", "b1", "a2", "a4", "c1"), itemNames(top));
+
+        top = dataFrame.topNPerGroup(new String[]{"customer"}, 2, new SortColumn("price"));
+        Assert.assertEquals(Arrays.asList("b1", "b3", "a1", "a3", "c1"), itemNames(top));
+
+        top = dataFrame.topNPerGroup(new String[]{"customer"}, 10, new SortColumn("price"));
+        Assert.assertEquals(Arrays.asList("b1", "b3", "b2", "a1", "a3", "a2", "a4", "c1"), itemNames(top));
+
+        top = dataFrame.topNPerGroup(new String[]{"customer"}, 0, new SortColumn("price"));
+        Assert.assertEquals(0, top.size());
+    }
+
+    @Test
+    public void testTopNSortedGrouping() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new StringColumn("customer"));
+        dataFrame.addColumn(new StringColumn("item"));
+        dataFrame.addColumn(new IntegerColumn("price"));
+        dataFrame.append("b", "b1", 5);
+        dataFrame.append("a", "a1", 3);
+        dataFrame.append("a", "a2", 9);
+        dataFrame.append("b", "b2", Values.NA);
+        dataFrame.append("a", "a3", 7);
+        dataFrame.append("a", "a4", 9);
+        dataFrame.append("c", "c1", 1);
+        dataFrame.append("b", "b3", 8);
+        DataGrouping grouping = dataFrame.groupBy("customer");
+        DataFrame top = grouping.topN(1, new SortColumn("price", SortColumn.Direction.Descending),
+                new SortColumn("item", SortColumn.Direction.Descending));
+        // groups are ordered by value
+        Assert.assertEquals(Arrays.asList("a4", "b3", "c1"), itemNames(top));
+    }
+
+    @Test
+    public void testTopNGroupList() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new StringColumn("customer"));
+        dataFrame.addColumn(new StringColumn("item"));
+        dataFrame.addColumn(new IntegerColumn("price"));
+        dataFrame.append("b", "b1", 5);
+        dataFrame.append("a", "a1", 3);
+        dataFrame.append("a", "a2", 9);
+        dataFrame.append("b", "b2", Values.NA);
+        dataFrame.append("a", "a3", 7);
+        dataFrame.append("a", "a4", 9);
+        dataFrame.append("c", "c1", 1);
+        dataFrame.append("b", "b3", 8);
+        DataGrouping grouping = dataFrame.groupBy("customer");
+        List<DataGroup> groups = new ArrayList<>();
+        for (int i = 0; i < grouping.getGroupCount(); i++) {
+            groups.add(grouping.getGroup(i));
+        }
+        DataGrouping listGrouping = new DataGrouping(groups, grouping.getColumn("customer").copy());
+        DataFrame top = listGrouping.topN(2, new SortColumn("price"));
+        Assert.assertEquals(Arrays.asList("a1", "a3", "b1", "b3", "c1"), itemNames(top));
+    }
 
     public static void testGroup(GroupRow groupRow, int... values) {
         Assert.assertEquals(values.length, groupRow.getGroup().size());
@@ -180,5 +497,43 @@ public class DataFrameGroupingTest {
         }
     }
 
+    private static DataRow findGroupingSet(DataFrame result, int groupingId, String region, String country, String city) {
+        for (DataRow row : result) {
+            if (row.getInteger(GroupingSets.GROUPING_ID) == groupingId
+                    && matches(result, row, "region", region)
+                    && matches(result, row, "country", country)
+                    && matches(result, row, "city", city)) {
+                return row;
+            }
+        }
+        Assert.fail("row not found");
+        return null;
+    }
+
+    private static boolean matches(DataFrame result, DataRow row, String column, String value) {
+        if (!result.getHeader().contains(column)) {
+            return value == null;
+        }
+        return value == null ? row.isNA(column) : value.equals(row.getString(column));
+    }
 
+    private static void assertViewGroup(DataFrame result, String status, int count, int bytes, int max) {
+        for (DataRow row : result) {
+            if (status.equals(row.getString("status"))) {
+                Assert.assertEquals((Integer) count, row.getInteger("count"));
+                Assert.assertEquals((Integer) bytes, row.getInteger("bytes"));
+                Assert.assertEquals((Integer) max, row.getInteger("max"));
+                return;
+            }
+        }
+        Assert.fail("group not found: " + status);
+    }
+
+    private static List<String> itemNames(DataFrame dataFrame) {
+        List<String> items = new ArrayList<>();
+        for (int i = 0; i < dataFrame.size(); i++) {
+            items.add(dataFrame.getRow(i).getString("item"));
+        }
+        return items;
+    }
 }
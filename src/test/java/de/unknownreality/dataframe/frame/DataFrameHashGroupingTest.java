@@ -0,0 +1,131 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.frame;
+
+import de.unknownreality.dataframe.DataRow;
+import de.unknownreality.dataframe.DefaultDataFrame;
+import de.unknownreality.dataframe.Values;
+import de.unknownreality.dataframe.column.IntegerColumn;
+import de.unknownreality.dataframe.column.StringColumn;
+import de.unknownreality.dataframe.group.DataGroup;
+import de.unknownreality.dataframe.group.DataGrouping;
+import de.unknownreality.dataframe.group.GroupRow;
+import de.unknownreality.dataframe.group.aggr.Aggregate;
+import de.unknownreality.dataframe.group.impl.HashGroupUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DataFrameHashGroupingTest {
+
+    @Test
+    public void testGroups() {
+        DefaultDataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new IntegerColumn("ID"));
+        dataFrame.addColumn(new StringColumn("NAME"));
+        dataFrame.addColumn(new IntegerColumn("VALUE"));
+        dataFrame.append(1, "A", 1);
+        dataFrame.append(1, "B", 2);
+        dataFrame.append(2, "A", 3);
+        dataFrame.append(3, "B", 4);
+        dataFrame.append(2, "C", 5);
+        dataFrame.append(1, "A", 6);
+        dataFrame.append(4, "B", 7);
+        dataFrame.append(3, "B", 8);
+        dataFrame.append(Values.NA, "B", 9);
+        dataFrame.append(Values.NA, "B", 10);
+        dataFrame.setGroupUtil(new HashGroupUtil());
+        DataGrouping grouping = dataFrame.groupBy("ID", "NAME");
+        Assert.assertEquals(7, grouping.size());
+        Assert.assertEquals(7, grouping.getGroupCount());
+        Assert.assertSame(dataFrame, grouping.getSource());
+
+        // groups are ordered by first appearance
+        Assert.assertEquals((Integer) 1, grouping.getRow(0).getInteger("ID"));
+        Assert.assertEquals("A", grouping.getRow(0).getString("NAME"));
+        Assert.assertEquals((Integer) 3, grouping.getRow(3).getInteger("ID"));
+        Assert.assertTrue(grouping.getRow(6).isNA("ID"));
+        Assert.assertArrayEquals(new int[]{0, 5}, grouping.getGroupRows(0));
+        Assert.assertArrayEquals(new int[]{8, 9}, grouping.getGroupRows(6));
+
+        DataFrameGroupingTest.testGroup(grouping.findByGroupValues(1, "A"), 1, 6);
+        DataFrameGroupingTest.testGroup(grouping.findByGroupValues(1, "B"), 2);
+        DataFrameGroupingTest.testGroup(grouping.findByGroupValues(3, "B"), 4, 8);
+        DataFrameGroupingTest.testGroup(grouping.findByGroupValues(4, "B"), 7);
+        DataFrameGroupingTest.testGroup(grouping.findByGroupValues(Values.NA, "B"), 9, 10);
+
+        DataGroup group = grouping.getGroup(1);
+        Assert.assertEquals("ID=1, NAME=B", group.getGroupDescription());
+        Assert.assertEquals(3, group.getColumnNames().size());
+        Assert.assertSame(group, grouping.getGroup(1));
+    }
+
+    @Test
+    public void testAggregate() {
+        DefaultDataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new IntegerColumn("ID"));
+        dataFrame.addColumn(new StringColumn("NAME"));
+        dataFrame.addColumn(new IntegerColumn("VALUE"));
+        dataFrame.append(1, "A", 1);
+        dataFrame.append(1, "B", 2);
+        dataFrame.append(2, "A", 3);
+        dataFrame.append(3, "B", 4);
+        dataFrame.append(2, "C", 5);
+        dataFrame.append(1, "A", 6);
+        dataFrame.append(4, "B", 7);
+        dataFrame.append(3, "B", 8);
+        dataFrame.append(Values.NA, "B", 9);
+        dataFrame.append(Values.NA, "B", 10);
+        dataFrame.setGroupUtil(new HashGroupUtil());
+        DataGrouping grouping = dataFrame.groupBy("NAME")
+                .agg("count", Aggregate.count())
+                .agg("max", Aggregate.max("VALUE"));
+        Assert.assertEquals(3, grouping.size());
+        GroupRow a = grouping.findByGroupValues("A");
+        GroupRow b = grouping.findByGroupValues("B");
+        GroupRow c = grouping.findByGroupValues("C");
+        Assert.assertEquals((Integer) 3, a.getInteger("count"));
+        Assert.assertEquals((Integer) 6, a.getInteger("max"));
+        Assert.assertEquals((Integer) 6, b.getInteger("count"));
+        Assert.assertEquals((Integer) 10, b.getInteger("max"));
+        Assert.assertEquals((Integer) 1, c.getInteger("count"));
+        Assert.assertEquals((Integer) 5, c.getInteger("max"));
+
+        int rows = 0;
+        for (DataRow row : grouping) {
+            rows += ((GroupRow) row).getGroup().size();
+        }
+        Assert.assertEquals(dataFrame.size(), rows);
+    }
+
+    @Test
+    public void testEmpty() {
+        DefaultDataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new IntegerColumn("ID"));
+        dataFrame.setGroupUtil(new HashGroupUtil());
+        DataGrouping grouping = dataFrame.groupBy("ID");
+        Assert.assertEquals(0, grouping.size());
+        Assert.assertEquals(0, grouping.getGroupCount());
+    }
+}
@@ -32,6 +32,7 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -173,4 +174,62 @@ public class DataFrameIndexTest {
     }
 
 
+
+    @Test
+    public void testBatch() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addIntegerColumn("ID");
+        dataFrame.addStringColumn("NAME");
+        dataFrame.setPrimaryKey("ID");
+        dataFrame.addIndex("NAME", "NAME");
+
+        List<Comparable[]> rows = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            rows.add(new Comparable[]{i, i % 2 == 0 ? "A" : "B"});
+        }
+        dataFrame.appendAll(rows);
+        Assert.assertFalse(dataFrame.isBatch());
+        Assert.assertEquals(100, dataFrame.size());
+        Assert.assertEquals("B", dataFrame.findByPrimaryKey(21).getString("NAME"));
+        Assert.assertEquals(50, dataFrame.findByIndex("NAME", "A").size());
+
+        dataFrame.beginBatch();
+        dataFrame.append(100, "C");
+        dataFrame.getStringColumn("NAME").set(0, "C");
+        Assert.assertTrue(dataFrame.isBatch());
+        Assert.assertTrue(dataFrame.findByIndex("NAME", "C").isEmpty());
+        dataFrame.commitBatch();
+        Assert.assertEquals(2, dataFrame.findByIndex("NAME", "C").size());
+        Assert.assertEquals(49, dataFrame.findByIndex("NAME", "A").size());
+        Assert.assertEquals("C", dataFrame.findByPrimaryKey(100).getString("NAME"));
+
+        dataFrame.beginBatch();
+        dataFrame.append(5, "D");
+        exception.expect(DataFrameRuntimeException.class);
+        dataFrame.commitBatch();
+    }
+
+    @Test
+    public void testLazyIndex() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addIntegerColumn("ID");
+        dataFrame.addStringColumn("NAME");
+        dataFrame.setLazyIndexUpdate(true);
+        dataFrame.setPrimaryKey("ID");
+        for (int i = 0; i < 10; i++) {
+            dataFrame.append(i, "N" + i);
+        }
+        Assert.assertEquals("N3", dataFrame.findByPrimaryKey(3).getString("NAME"));
+
+        dataFrame.getIntegerColumn("ID").map(value -> value + 10);
+        dataFrame.getIntegerColumn("ID").map(value -> value * 2);
+        Assert.assertNull(dataFrame.findByPrimaryKey(3));
+        Assert.assertEquals("N3", dataFrame.findByPrimaryKey(26).getString("NAME"));
+
+        dataFrame.getIntegerColumn("ID").map(value -> value + 1);
+        dataFrame.setLazyIndexUpdate(false);
+        Assert.assertFalse(dataFrame.isLazyIndexUpdate());
+        Assert.assertEquals("N3", dataFrame.findByPrimaryKey(27).getString("NAME"));
+    }
+
 }
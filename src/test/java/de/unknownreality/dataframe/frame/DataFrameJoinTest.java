@@ -24,18 +24,35 @@ package de.unknownreality.dataframe.frame;
 
 import de.unknownreality.dataframe.DataFrame;
 import de.unknownreality.dataframe.DataFrameLoader;
+import de.unknownreality.dataframe.DataFrameRuntimeException;
 import de.unknownreality.dataframe.DataRow;
+import de.unknownreality.dataframe.DefaultDataFrame;
 import de.unknownreality.dataframe.Values;
+import de.unknownreality.dataframe.column.DoubleColumn;
+import de.unknownreality.dataframe.column.IntegerColumn;
+import de.unknownreality.dataframe.column.StringColumn;
 import de.unknownreality.dataframe.csv.CSVReader;
 import de.unknownreality.dataframe.csv.CSVReaderBuilder;
+import de.unknownreality.dataframe.index.Indices;
+import de.unknownreality.dataframe.join.JoinColumn;
+import de.unknownreality.dataframe.join.JoinType;
+import de.unknownreality.dataframe.join.JoinUtil;
 import de.unknownreality.dataframe.join.JoinedDataFrame;
 import de.unknownreality.dataframe.join.impl.DefaultJoinUtil;
+import de.unknownreality.dataframe.join.impl.HashJoinUtil;
+import de.unknownreality.dataframe.join.impl.JoinTable;
+import de.unknownreality.dataframe.join.impl.ParallelHashJoinUtil;
+import de.unknownreality.dataframe.join.impl.SortMergeJoinUtil;
+import de.unknownreality.dataframe.sort.SortColumn;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Created by Alex on 12.03.2016.
@@ -143,6 +160,450 @@ public class DataFrameJoinTest {
 
     }
 
+    @Test
+    public void testHashJoinSameAsDefault() {
+        Random random = new Random(7);
+        DataFrame small = createRandomDataFrame(random, 40, "a");
+        DataFrame large = createRandomDataFrame(random, 150, "b");
+        JoinUtil joinUtil = new HashJoinUtil();
+        // the table is built on the smaller data frame, both directions are tested
+        assertSameJoins(joinUtil, small, large, new JoinColumn("k1"), new JoinColumn("k2"));
+        assertSameJoins(joinUtil, large, small, new JoinColumn("k1"), new JoinColumn("k2"));
+        assertSameJoins(joinUtil, small, large, new JoinColumn("k1"));
+    }
+
+    @Test
+    public void testHashJoinKeys() {
+        DataFrame dfA = new DefaultDataFrame();
+        dfA.addColumn(new IntegerColumn("id"));
+        dfA.addColumn(new StringColumn("a"));
+        dfA.append(1, "a1");
+        dfA.append(Values.NA, "a2");
+        dfA.append(2, "a3");
+        dfA.append(2, "a4");
+        DataFrame dfB = new DefaultDataFrame();
+        dfB.addColumn(new IntegerColumn("id"));
+        dfB.addColumn(new StringColumn("b"));
+        dfB.append(2, "b1");
+        dfB.append(Values.NA, "b2");
+        dfB.append(2, "b3");
+        dfB.append(3, "b4");
+        JoinUtil joinUtil = new HashJoinUtil();
+        DataFrame inner = joinUtil.innerJoin(dfA, dfB, new JoinColumn("id"));
+        // NA keys match each other, duplicate keys join every pair of rows
+        Assert.assertEquals(5, inner.size());
+        checkKeyRow(inner.getRow(0), Values.NA, "a2", "b2");
+        checkKeyRow(inner.getRow(1), 2, "a3", "b1");
+        checkKeyRow(inner.getRow(2), 2, "a3", "b3");
+        checkKeyRow(inner.getRow(3), 2, "a4", "b1");
+        checkKeyRow(inner.getRow(4), 2, "a4", "b3");
+
+        DataFrame left = joinUtil.leftJoin(dfA, dfB, new JoinColumn("id"));
+        Assert.assertEquals(6, left.size());
+        checkKeyRow(left.getRow(0), 1, "a1", Values.NA);
+        checkKeyRow(left.getRow(1), Values.NA, "a2", "b2");
+
+        DataFrame right = joinUtil.rightJoin(dfA, dfB, new JoinColumn("id"));
+        Assert.assertEquals(6, right.size());
+        checkKeyRow(right.getRow(0), 2, "a3", "b1");
+        checkKeyRow(right.getRow(1), 2, "a4", "b1");
+        checkKeyRow(right.getRow(2), Values.NA, "a2", "b2");
+        checkKeyRow(right.getRow(5), 3, Values.NA, "b4");
+    }
+
+    @Test
+    public void testHashJoinColumns() {
+        DataFrame dfA = new DefaultDataFrame();
+        dfA.addColumn(new StringColumn("id"));
+        dfA.addColumn(new IntegerColumn("x"));
+        dfA.append("a", 1);
+        dfA.append("b", 2);
+        DataFrame dfB = new DefaultDataFrame();
+        dfB.addColumn(new StringColumn("key"));
+        dfB.addColumn(new IntegerColumn("x"));
+        dfB.append("c", 3);
+        dfB.append("a", 4);
+        dfB.append("a", 5);
+        ((DefaultDataFrame) dfA).setJoinUtil(new HashJoinUtil());
+
+        JoinedDataFrame joined = dfA.joinRight(dfB, new JoinColumn("id", "key"));
+        Assert.assertEquals(3, joined.size());
+        Assert.assertEquals(3, joined.getColumnNames().size());
+        // join columns of unmatched rows contain the values of the other data frame
+        Assert.assertEquals("c", joined.getRow(0).getString("id"));
+        Assert.assertTrue(joined.getRow(0).isNA("x" + DefaultJoinUtil.JOIN_SUFFIX_A));
+        Assert.assertEquals((Integer) 3, joined.getRow(0).getInteger("x" + DefaultJoinUtil.JOIN_SUFFIX_B));
+        Assert.assertEquals("a", joined.getRow(2).getString("id"));
+        Assert.assertEquals((Integer) 5, joined.getRow(2).getInteger("x" + DefaultJoinUtil.JOIN_SUFFIX_B));
+        Assert.assertEquals(1, joined.getJoinInfo().getJoinedIndexA("x"));
+        Assert.assertTrue(joined.getJoinInfo().isB(dfB));
+
+        joined = dfA.joinLeft(dfB, new JoinColumn("id", "key"));
+        Assert.assertEquals(3, joined.size());
+        Assert.assertEquals("b", joined.getRow(2).getString("id"));
+        Assert.assertTrue(joined.getRow(2).isNA("x" + DefaultJoinUtil.JOIN_SUFFIX_B));
+    }
+
+    @Test
+    public void testSortMergeJoinUnsorted() {
+        Random random = new Random(11);
+        DataFrame small = createRandomDataFrame(random, 40, "a");
+        DataFrame large = createRandomDataFrame(random, 150, "b");
+        JoinUtil joinUtil = new SortMergeJoinUtil();
+        assertSameJoins(joinUtil, small, large, new JoinColumn("k1"), new JoinColumn("k2"));
+        assertSameJoins(joinUtil, large, small, new JoinColumn("k1"));
+    }
+
+    @Test
+    public void testSortMergeJoinSorted() {
+        Random random = new Random(13);
+        DataFrame dfA = createRandomDataFrame(random, 60, "a")
+                .sort(new SortColumn("k1"), new SortColumn("k2"));
+        DataFrame dfB = createRandomDataFrame(random, 80, "b")
+                .sort(new SortColumn("k1"), new SortColumn("k2"));
+        Assert.assertTrue(dfA.isSortedBy("k1", "k2"));
+        JoinUtil joinUtil = new SortMergeJoinUtil();
+        assertSameJoins(joinUtil, dfA, dfB, new JoinColumn("k1"), new JoinColumn("k2"));
+        // the join columns are a prefix of the sort order
+        assertSameJoins(joinUtil, dfA, dfB, new JoinColumn("k1"));
+        // not sorted by the join columns, the row indices are sorted
+        assertSameJoins(joinUtil, dfA, dfB, new JoinColumn("k1"), new JoinColumn("v"));
+    }
+
+    @Test
+    public void testSortMergeJoinKeys() {
+        DataFrame dfA = new DefaultDataFrame();
+        dfA.addColumn(new IntegerColumn("id"));
+        dfA.addColumn(new StringColumn("a"));
+        dfA.append(1, "a1");
+        dfA.append(Values.NA, "a2");
+        dfA.append(2, "a3");
+        dfA.append(2, "a4");
+        DataFrame dfB = new DefaultDataFrame();
+        dfB.addColumn(new IntegerColumn("id"));
+        dfB.addColumn(new StringColumn("b"));
+        dfB.append(2, "b1");
+        dfB.append(Values.NA, "b2");
+        dfB.append(2, "b3");
+        dfB.append(3, "b4");
+        JoinUtil joinUtil = new SortMergeJoinUtil();
+        DataFrame inner = joinUtil.innerJoin(dfA, dfB, new JoinColumn("id"));
+        // NA keys match each other, duplicate keys join every pair of rows
+        Assert.assertEquals(5, inner.size());
+        checkKeyRow(inner.getRow(0), Values.NA, "a2", "b2");
+        checkKeyRow(inner.getRow(1), 2, "a3", "b1");
+        checkKeyRow(inner.getRow(2), 2, "a3", "b3");
+        checkKeyRow(inner.getRow(3), 2, "a4", "b1");
+        checkKeyRow(inner.getRow(4), 2, "a4", "b3");
+
+        DataFrame left = joinUtil.leftJoin(dfA, dfB, new JoinColumn("id"));
+        Assert.assertEquals(6, left.size());
+        checkKeyRow(left.getRow(0), 1, "a1", Values.NA);
+        checkKeyRow(left.getRow(1), Values.NA, "a2", "b2");
+
+        DataFrame right = joinUtil.rightJoin(dfA, dfB, new JoinColumn("id"));
+        Assert.assertEquals(6, right.size());
+        checkKeyRow(right.getRow(0), 2, "a3", "b1");
+        checkKeyRow(right.getRow(1), 2, "a4", "b1");
+        checkKeyRow(right.getRow(2), Values.NA, "a2", "b2");
+        checkKeyRow(right.getRow(5), 3, Values.NA, "b4");
+    }
+
+    @Test
+    public void testParallelHashJoinSmall() {
+        Random random = new Random(17);
+        DataFrame small = createRandomDataFrame(random, 40, "a");
+        DataFrame large = createRandomDataFrame(random, 150, "b");
+        JoinUtil joinUtil = new ParallelHashJoinUtil();
+        assertSameJoins(joinUtil, small, large, new JoinColumn("k1"), new JoinColumn("k2"));
+    }
+
+    @Test
+    public void testParallelHashJoinKeys() {
+        DataFrame dfA = new DefaultDataFrame();
+        dfA.addColumn(new IntegerColumn("id"));
+        dfA.addColumn(new StringColumn("a"));
+        dfA.append(1, "a1");
+        dfA.append(Values.NA, "a2");
+        dfA.append(2, "a3");
+        dfA.append(2, "a4");
+        DataFrame dfB = new DefaultDataFrame();
+        dfB.addColumn(new IntegerColumn("id"));
+        dfB.addColumn(new StringColumn("b"));
+        dfB.append(2, "b1");
+        dfB.append(Values.NA, "b2");
+        dfB.append(2, "b3");
+        dfB.append(3, "b4");
+        JoinUtil joinUtil = new ParallelHashJoinUtil();
+        DataFrame inner = joinUtil.innerJoin(dfA, dfB, new JoinColumn("id"));
+        // NA keys match each other, duplicate keys join every pair of rows
+        Assert.assertEquals(5, inner.size());
+        checkKeyRow(inner.getRow(0), Values.NA, "a2", "b2");
+        checkKeyRow(inner.getRow(1), 2, "a3", "b1");
+        checkKeyRow(inner.getRow(2), 2, "a3", "b3");
+        checkKeyRow(inner.getRow(3), 2, "a4", "b1");
+        checkKeyRow(inner.getRow(4), 2, "a4", "b3");
+
+        DataFrame left = joinUtil.leftJoin(dfA, dfB, new JoinColumn("id"));
+        Assert.assertEquals(6, left.size());
+        checkKeyRow(left.getRow(0), 1, "a1", Values.NA);
+        checkKeyRow(left.getRow(1), Values.NA, "a2", "b2");
+
+        DataFrame right = joinUtil.rightJoin(dfA, dfB, new JoinColumn("id"));
+        Assert.assertEquals(6, right.size());
+        checkKeyRow(right.getRow(0), 2, "a3", "b1");
+        checkKeyRow(right.getRow(1), 2, "a4", "b1");
+        checkKeyRow(right.getRow(2), Values.NA, "a2", "b2");
+        checkKeyRow(right.getRow(5), 3, Values.NA, "b4");
+    }
+
+    @Test
+    public void testParallelHashJoinPartitioned() {
+        Random random = new Random(19);
+        // large enough to be split into partitions
+        DataFrame dfA = createRandomDataFrame(random, 5000, "a");
+        DataFrame dfB = createRandomDataFrame(random, 6000, "b");
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            JoinUtil joinUtil = new ParallelHashJoinUtil(executor, 3);
+            assertSameJoins(joinUtil, dfA, dfB, new JoinColumn("k1"), new JoinColumn("k2"));
+            assertSameJoins(joinUtil, dfB, dfA, new JoinColumn("k1"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testFindIndex() {
+        DataFrame dataFrame = createRandomDataFrame(new Random(3), 20, "a");
+        Assert.assertNull(dataFrame.findIndex("k1", "k2"));
+        dataFrame.addIndex("keys", "k2", "k1");
+        Assert.assertEquals("keys", dataFrame.findIndex("k1", "k2").getName());
+        Assert.assertNull(dataFrame.findIndex("k1"));
+        Assert.assertNull(dataFrame.findIndex("k1", "missing"));
+        dataFrame.addIndex("k1", "k1");
+        Assert.assertEquals("k1", dataFrame.findIndex("k1").getName());
+        dataFrame.beginBatch();
+        Assert.assertNull(dataFrame.findIndex("k1"));
+        dataFrame.commitBatch();
+
+        DataFrame unique = new DefaultDataFrame();
+        unique.addColumn(new IntegerColumn("id"));
+        unique.append(1);
+        unique.addIndex("id", "id");
+        unique.setPrimaryKey("id");
+        Assert.assertEquals(Indices.PRIMARY_KEY_NAME, unique.findIndex("id").getName());
+    }
+
+    @Test
+    public void testIndexJoin() {
+        Random random = new Random(11);
+        DataFrame dfA = createRandomDataFrame(random, 60, "a");
+        DataFrame dfB = createRandomDataFrame(random, 200, "b");
+        JoinUtil joinUtil = new DefaultJoinUtil();
+        JoinColumn[] joinColumns = {new JoinColumn("k1"), new JoinColumn("k2")};
+        DataFrame inner = joinUtil.innerJoin(dfA, dfB, joinColumns);
+        DataFrame left = joinUtil.leftJoin(dfA, dfB, joinColumns);
+        DataFrame right = joinUtil.rightJoin(dfA, dfB, joinColumns);
+
+        // index columns in a different order than the join columns
+        dfB.addIndex("keys", "k2", "k1");
+        dfA.addIndex("keys", "k2", "k1");
+        // updated rows are listed last in the index
+        DataRow row = dfB.getRow(0);
+        row.set("v", row.get("v"));
+        dfB.update(row);
+        assertJoinEquals(inner, joinUtil.innerJoin(dfA, dfB, joinColumns));
+        assertJoinEquals(left, joinUtil.leftJoin(dfA, dfB, joinColumns));
+        assertJoinEquals(right, joinUtil.rightJoin(dfA, dfB, joinColumns));
+    }
+
+    @Test
+    public void testIndexJoinKeys() {
+        DataFrame dfA = new DefaultDataFrame();
+        dfA.addColumn(new IntegerColumn("id"));
+        dfA.addColumn(new StringColumn("a"));
+        dfA.append(1, "a1");
+        dfA.append(Values.NA, "a2");
+        dfA.append(2, "a3");
+        dfA.append(2, "a4");
+        DataFrame dfB = new DefaultDataFrame();
+        dfB.addColumn(new IntegerColumn("id"));
+        dfB.addColumn(new StringColumn("b"));
+        dfB.append(2, "b1");
+        dfB.append(Values.NA, "b2");
+        dfB.append(2, "b3");
+        dfB.append(3, "b4");
+        dfA.addIndex("id", "id");
+        dfB.addIndex("id", "id");
+        JoinUtil joinUtil = new DefaultJoinUtil();
+        DataFrame inner = joinUtil.innerJoin(dfA, dfB, new JoinColumn("id"));
+        // NA keys match each other, duplicate keys join every pair of rows
+        Assert.assertEquals(5, inner.size());
+        checkKeyRow(inner.getRow(0), Values.NA, "a2", "b2");
+        checkKeyRow(inner.getRow(1), 2, "a3", "b1");
+        checkKeyRow(inner.getRow(2), 2, "a3", "b3");
+        checkKeyRow(inner.getRow(3), 2, "a4", "b1");
+        checkKeyRow(inner.getRow(4), 2, "a4", "b3");
+
+        DataFrame left = joinUtil.leftJoin(dfA, dfB, new JoinColumn("id"));
+        Assert.assertEquals(6, left.size());
+        checkKeyRow(left.getRow(0), 1, "a1", Values.NA);
+        checkKeyRow(left.getRow(1), Values.NA, "a2", "b2");
+
+        DataFrame right = joinUtil.rightJoin(dfA, dfB, new JoinColumn("id"));
+        Assert.assertEquals(6, right.size());
+        checkKeyRow(right.getRow(0), 2, "a3", "b1");
+        checkKeyRow(right.getRow(1), 2, "a4", "b1");
+        checkKeyRow(right.getRow(2), Values.NA, "a2", "b2");
+        checkKeyRow(right.getRow(5), 3, Values.NA, "b4");
+    }
+
+    @Test
+    public void testPrimaryKeyJoin() {
+        DataFrame dimensions = new DefaultDataFrame();
+        dimensions.addColumn(new StringColumn("id"));
+        dimensions.addColumn(new StringColumn("name"));
+        dimensions.append("x", "name_x");
+        dimensions.append("y", "name_y");
+        DataFrame facts = new DefaultDataFrame();
+        facts.addColumn(new StringColumn("dim"));
+        facts.addColumn(new IntegerColumn("value"));
+        facts.append("y", 1);
+        facts.append("z", 2);
+        facts.append("x", 3);
+        JoinUtil joinUtil = new DefaultJoinUtil();
+        DataFrame expected = joinUtil.leftJoin(facts, dimensions, new JoinColumn("dim", "id"));
+        dimensions.setPrimaryKey("id");
+        DataFrame joined = joinUtil.leftJoin(facts, dimensions, new JoinColumn("dim", "id"));
+        assertJoinEquals(expected, joined);
+        Assert.assertEquals("name_y", joined.getRow(0).getString("name"));
+        Assert.assertTrue(joined.getRow(1).isNA("name"));
+    }
+
+    @Test
+    public void testReversedIndexJoin() {
+        DataFrame dfA = new DefaultDataFrame();
+        dfA.addColumn(new IntegerColumn("k"));
+        dfA.append(1);
+        for (boolean lazy : new boolean[]{false, true}) {
+            DataFrame dfB = new DefaultDataFrame();
+            dfB.addColumn(new IntegerColumn("k"));
+            dfB.addColumn(new StringColumn("b"));
+            dfB.append(1, "x");
+            dfB.append(2, "y");
+            dfB.append(3, "z");
+            dfB.setLazyIndexUpdate(lazy);
+            dfB.addIndex("k", "k");
+            dfB.reverse();
+            DataFrame joined = new DefaultJoinUtil().innerJoin(dfA, dfB, new JoinColumn("k"));
+            Assert.assertEquals(1, joined.size());
+            Assert.assertEquals("x", joined.getRow(0).getString("b"));
+        }
+    }
+
+    @Test
+    public void testJoinTable() {
+        Random random = new Random(13);
+        DataFrame dimensions = createRandomDataFrame(random, 80, "b");
+        JoinTable table = new JoinTable(dimensions, "k1", "k2");
+        JoinUtil joinUtil = new DefaultJoinUtil();
+        // join columns in a different order than the table columns
+        JoinColumn[] joinColumns = {new JoinColumn("k2"), new JoinColumn("k1")};
+        for (int i = 0; i < 3; i++) {
+            DataFrame dfA = createRandomDataFrame(random, 50 + 20 * i, "a");
+            assertJoinEquals(joinUtil.innerJoin(dfA, dimensions, joinColumns),
+                    table.join(dfA, JoinType.INNER, joinColumns));
+            assertJoinEquals(joinUtil.leftJoin(dfA, dimensions, joinColumns),
+                    table.join(dfA, JoinType.LEFT, joinColumns));
+            assertJoinEquals(joinUtil.rightJoin(dfA, dimensions, joinColumns),
+                    table.join(dfA, JoinType.RIGHT, joinColumns));
+        }
+
+        DataFrame dfA = createRandomDataFrame(random, 50, "a");
+        int keyCount = table.getKeyCount();
+        // appended rows rebuild the table
+        dimensions.append(1000, "s0", 0.5, "new");
+        dfA.append(1000, "s0", 0.5, "new");
+        assertJoinEquals(joinUtil.leftJoin(dfA, dimensions, joinColumns),
+                table.join(dfA, JoinType.LEFT, joinColumns));
+        Assert.assertEquals(keyCount + 1, table.getKeyCount());
+        // values changed in place rebuild the table
+        DataRow row = dimensions.getRow(0);
+        row.set("k1", 1001);
+        dimensions.update(row);
+        assertJoinEquals(joinUtil.innerJoin(dfA, dimensions, joinColumns),
+                table.join(dfA, JoinType.INNER, joinColumns));
+    }
+
+    @Test
+    public void testJoinTableKeys() {
+        DataFrame dfA = new DefaultDataFrame();
+        dfA.addColumn(new IntegerColumn("id"));
+        dfA.addColumn(new StringColumn("a"));
+        dfA.append(1, "a1");
+        dfA.append(Values.NA, "a2");
+        dfA.append(2, "a3");
+        dfA.append(2, "a4");
+        DataFrame dfB = new DefaultDataFrame();
+        dfB.addColumn(new IntegerColumn("id"));
+        dfB.addColumn(new StringColumn("b"));
+        dfB.append(2, "b1");
+        dfB.append(Values.NA, "b2");
+        dfB.append(2, "b3");
+        dfB.append(3, "b4");
+        JoinTable table = new JoinTable(dfB, "id");
+        DataFrame inner = table.join(dfA, JoinType.INNER, new JoinColumn("id"));
+        // NA keys match each other, duplicate keys join every pair of rows
+        Assert.assertEquals(5, inner.size());
+        checkKeyRow(inner.getRow(0), Values.NA, "a2", "b2");
+        checkKeyRow(inner.getRow(1), 2, "a3", "b1");
+        checkKeyRow(inner.getRow(2), 2, "a3", "b3");
+        checkKeyRow(inner.getRow(3), 2, "a4", "b1");
+        checkKeyRow(inner.getRow(4), 2, "a4", "b3");
+
+        DataFrame left = table.join(dfA, JoinType.LEFT, new JoinColumn("id"));
+        Assert.assertEquals(6, left.size());
+        checkKeyRow(left.getRow(0), 1, "a1", Values.NA);
+        checkKeyRow(left.getRow(1), Values.NA, "a2", "b2");
+
+        DataFrame right = table.join(dfA, JoinType.RIGHT, new JoinColumn("id"));
+        Assert.assertEquals(6, right.size());
+        checkKeyRow(right.getRow(0), 2, "a3", "b1");
+        checkKeyRow(right.getRow(1), 2, "a4", "b1");
+        checkKeyRow(right.getRow(2), Values.NA, "a2", "b2");
+        checkKeyRow(right.getRow(5), 3, Values.NA, "b4");
+    }
+
+    @Test
+    public void testSortedJoinTable() {
+        DataFrame dimensions = new DefaultDataFrame();
+        dimensions.addColumn(new IntegerColumn("id"));
+        dimensions.addColumn(new StringColumn("name"));
+        dimensions.append(2, "two");
+        dimensions.append(1, "one");
+        DataFrame facts = new DefaultDataFrame();
+        facts.addColumn(new IntegerColumn("id"));
+        facts.append(1);
+        JoinTable table = new JoinTable(dimensions, "id");
+        DataFrame joined = table.join(facts, JoinType.INNER, new JoinColumn("id"));
+        Assert.assertEquals(1, joined.size());
+        Assert.assertEquals("one", joined.getRow(0).getString("name"));
+
+        dimensions.sort(new SortColumn("id"));
+        joined = table.join(facts, JoinType.INNER, new JoinColumn("id"));
+        Assert.assertEquals(1, joined.size());
+        Assert.assertEquals("one", joined.getRow(0).getString("name"));
+
+        dimensions.filter("id == 2");
+        Assert.assertEquals(0, table.join(facts, JoinType.INNER, new JoinColumn("id")).size());
+    }
+
+    @Test(expected = DataFrameRuntimeException.class)
+    public void testJoinTableColumns() {
+        DataFrame dimensions = createRandomDataFrame(new Random(5), 10, "b");
+        new JoinTable(dimensions, "k1").join(dimensions, JoinType.INNER, new JoinColumn("k2"));
+    }
 
     private static void checkJoinedRow(DataRow row, Object geneId, Object gene_fpkm, Object chr, Object transcriptId, Object transcript_fpkm, Object transcriptNumber) {
         Assert.assertEquals(geneId, row.get("GENE_ID"));
@@ -153,5 +614,39 @@ public class DataFrameJoinTest {
         Assert.assertEquals(transcriptNumber, row.get("TRANSCRIPT_NUMBER"));
     }
 
+    private static void checkKeyRow(DataRow row, Object id, Object a, Object b) {
+        Assert.assertEquals(id, row.get("id"));
+        Assert.assertEquals(a, row.get("a"));
+        Assert.assertEquals(b, row.get("b"));
+    }
 
+    private static DataFrame createRandomDataFrame(Random random, int size, String valueColumn) {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new IntegerColumn("k1"));
+        dataFrame.addColumn(new StringColumn("k2"));
+        dataFrame.addColumn(new DoubleColumn("v"));
+        dataFrame.addColumn(new StringColumn(valueColumn));
+        for (int i = 0; i < size; i++) {
+            Comparable k1 = random.nextInt(10) == 0 ? Values.NA : random.nextInt(size / 3 + 1);
+            dataFrame.append(k1, "s" + random.nextInt(2), random.nextDouble(), valueColumn + i);
+        }
+        return dataFrame;
+    }
+
+    private static void assertJoinEquals(DataFrame expected, DataFrame actual) {
+        Assert.assertEquals(expected.getHeader(), actual.getHeader());
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            for (String name : expected.getColumnNames()) {
+                Assert.assertEquals(expected.getRow(i).get(name), actual.getRow(i).get(name));
+            }
+        }
+    }
+
+    private static void assertSameJoins(JoinUtil joinUtil, DataFrame dfA, DataFrame dfB, JoinColumn... joinColumns) {
+        JoinUtil defaultJoinUtil = new DefaultJoinUtil();
+        assertJoinEquals(defaultJoinUtil.innerJoin(dfA, dfB, joinColumns), joinUtil.innerJoin(dfA, dfB, joinColumns));
+        assertJoinEquals(defaultJoinUtil.leftJoin(dfA, dfB, joinColumns), joinUtil.leftJoin(dfA, dfB, joinColumns));
+        assertJoinEquals(defaultJoinUtil.rightJoin(dfA, dfB, joinColumns), joinUtil.rightJoin(dfA, dfB, joinColumns));
+    }
 }
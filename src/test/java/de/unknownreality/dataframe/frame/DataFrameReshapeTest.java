@@ -0,0 +1,125 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.frame;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameRuntimeException;
+import de.unknownreality.dataframe.DataRow;
+import de.unknownreality.dataframe.DefaultDataFrame;
+import de.unknownreality.dataframe.group.aggr.Aggregate;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class DataFrameReshapeTest {
+    @Rule
+    public final ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void testPivotAggregate() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addStringColumn("user");
+        dataFrame.addStringColumn("feature");
+        dataFrame.addDoubleColumn("value");
+        dataFrame.append("u1", "x", 1d);
+        dataFrame.append("u1", "y", 2d);
+        dataFrame.append("u2", "x", 3d);
+        dataFrame.append("u1", "x", 5d);
+        dataFrame.append("u3", "z", 7d);
+        DataFrame pivot = dataFrame.pivot(new String[]{"user"}, "feature", "value", Aggregate.mean("value"));
+        Assert.assertEquals(3, pivot.size());
+        Assert.assertEquals(Arrays.asList("user", "x", "y", "z"), new ArrayList<>(pivot.getColumnNames()));
+        DataRow u1 = pivot.getRow(0);
+        Assert.assertEquals("u1", u1.getString("user"));
+        Assert.assertEquals(3d, u1.getDouble("x"), 0);
+        Assert.assertEquals(2d, u1.getDouble("y"), 0);
+        Assert.assertTrue(u1.isNA("z"));
+        DataRow u3 = pivot.getRow(2);
+        Assert.assertEquals(7d, u3.getDouble("z"), 0);
+        Assert.assertTrue(u3.isNA("x"));
+
+        DataFrame counts = dataFrame.pivot(new String[]{"user"}, "feature", "value", Aggregate.count());
+        Assert.assertEquals(Integer.valueOf(2), counts.getRow(0).getInteger("x"));
+    }
+
+    @Test
+    public void testPivot() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addStringColumn("user");
+        dataFrame.addStringColumn("feature");
+        dataFrame.addDoubleColumn("value");
+        dataFrame.append("u1", "x", 1d);
+        dataFrame.append("u1", "y", 2d);
+        dataFrame.append("u2", "x", 3d);
+        dataFrame.append("u1", "x", 5d);
+        dataFrame.append("u3", "z", 7d);
+        DataFrame pivot = dataFrame.createSubset(new int[]{0, 1, 2, 4}).pivot(new String[]{"user"}, "feature", "value");
+        Assert.assertEquals(Double.class, pivot.getColumn("x").getType());
+        Assert.assertEquals(1d, pivot.getRow(0).getDouble("x"), 0);
+        Assert.assertEquals(3d, pivot.getRow(1).getDouble("x"), 0);
+        Assert.assertTrue(pivot.getRow(1).isNA("y"));
+
+        exception.expect(DataFrameRuntimeException.class);
+        dataFrame.pivot(new String[]{"user"}, "feature", "value");
+    }
+
+    @Test
+    public void testMelt() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addStringColumn("user");
+        dataFrame.addStringColumn("feature");
+        dataFrame.addDoubleColumn("value");
+        dataFrame.append("u1", "x", 1d);
+        dataFrame.append("u1", "y", 2d);
+        dataFrame.append("u2", "x", 3d);
+        dataFrame.append("u1", "x", 5d);
+        dataFrame.append("u3", "z", 7d);
+        DataFrame pivot = dataFrame.pivot(new String[]{"user"}, "feature", "value", Aggregate.max("value"));
+        DataFrame melted = pivot.melt(new String[]{"user"}, "x", "y", "z");
+        Assert.assertEquals(9, melted.size());
+        Assert.assertEquals(Arrays.asList("user", "variable", "value"), new ArrayList<>(melted.getColumnNames()));
+        Assert.assertEquals(Double.class, melted.getColumn("value").getType());
+        DataRow row = melted.getRow(3);
+        Assert.assertEquals("u1", row.getString("user"));
+        Assert.assertEquals("y", row.getString("variable"));
+        Assert.assertEquals(2d, row.getDouble("value"), 0);
+        Assert.assertEquals(7d, melted.getRow(8).getDouble("value"), 0);
+        Assert.assertTrue(melted.getRow(7).isNA("value"));
+
+        DataFrame mixed = new DefaultDataFrame();
+        mixed.addStringColumn("id");
+        mixed.addIntegerColumn("a");
+        mixed.addDoubleColumn("b");
+        mixed.append("r1", 1, 2.5);
+        DataFrame mixedMelt = mixed.melt(new String[]{"id"}, "a", "b");
+        Assert.assertEquals(Double.class, mixedMelt.getColumn("value").getType());
+        Assert.assertEquals(1d, mixedMelt.getRow(0).getDouble("value"), 0);
+        Assert.assertEquals(2.5d, mixedMelt.getRow(1).getDouble("value"), 0);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.frame;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameRuntimeException;
+import de.unknownreality.dataframe.DataRow;
+import de.unknownreality.dataframe.DefaultDataFrame;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+public class DataFrameSampleTest {
+    @Rule
+    public final ExpectedException exception = ExpectedException.none();
+
+    @Test
+    public void testShuffle() {
+        DataFrame a = new DefaultDataFrame();
+        a.addIntegerColumn("id");
+        a.addStringColumn("group");
+        for (int i = 0; i < 100; i++) {
+            a.append(i, "G" + (i % 3));
+        }
+        DataFrame b = a.copy();
+        DataFrame original = a.copy();
+        a.setPrimaryKey("id");
+        a.shuffle(42);
+        b.shuffle(42);
+        Assert.assertEquals(a, b);
+        Assert.assertNotEquals(original, a);
+        Set<Integer> ids = new HashSet<>();
+        for (DataRow row : a) {
+            ids.add(row.getInteger("id"));
+            Assert.assertEquals("G" + (row.getInteger("id") % 3), row.getString("group"));
+        }
+        Assert.assertEquals(100, ids.size());
+        Assert.assertEquals(17, (int) a.findByPrimaryKey(17).getInteger("id"));
+    }
+
+    @Test
+    public void testSample() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addIntegerColumn("id");
+        dataFrame.addDoubleColumn("value");
+        for (int i = 0; i < 1000; i++) {
+            dataFrame.append(i, i % 7 == 0 ? null : i * 0.5);
+        }
+        DataFrame sample = dataFrame.sample(50, 7);
+        Assert.assertEquals(50, sample.size());
+        Assert.assertEquals(sample, dataFrame.sample(50, 7));
+        int last = -1;
+        for (DataRow row : sample) {
+            int id = row.getInteger("id");
+            Assert.assertTrue(id > last);
+            last = id;
+        }
+        Assert.assertEquals(1000, dataFrame.sample(2000).size());
+        Assert.assertEquals(0, dataFrame.sample(0).size());
+
+        DataFrame fractionSample = dataFrame.sample(0.2, 7);
+        Assert.assertTrue(fractionSample.size() > 100 && fractionSample.size() < 300);
+        Assert.assertEquals(0, dataFrame.sample(0d).size());
+        Assert.assertEquals(1000, dataFrame.sample(1d).size());
+
+        exception.expect(DataFrameRuntimeException.class);
+        dataFrame.sample(1.5);
+    }
+
+    @Test
+    public void testStratifiedSample() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addIntegerColumn("id");
+        dataFrame.addStringColumn("group");
+        for (int i = 0; i < 100; i++) {
+            dataFrame.append(i, "G" + (i % 3));
+        }
+        dataFrame.append(100, "G4");
+        DataFrame sample = dataFrame.stratifiedSample(new String[]{"group"}, 5, 3);
+        Map<String, Integer> counts = new HashMap<>();
+        for (DataRow row : sample) {
+            counts.merge(row.getString("group"), 1, Integer::sum);
+        }
+        Assert.assertEquals(16, sample.size());
+        Assert.assertEquals(5, (int) counts.get("G0"));
+        Assert.assertEquals(5, (int) counts.get("G1"));
+        Assert.assertEquals(5, (int) counts.get("G2"));
+        Assert.assertEquals(1, (int) counts.get("G4"));
+    }
+}
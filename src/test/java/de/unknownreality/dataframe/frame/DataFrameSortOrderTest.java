@@ -0,0 +1,187 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.frame;
+
+import de.unknownreality.dataframe.DataFrameRuntimeException;
+import de.unknownreality.dataframe.DefaultDataFrame;
+import de.unknownreality.dataframe.Values;
+import de.unknownreality.dataframe.column.IntegerColumn;
+import de.unknownreality.dataframe.column.StringColumn;
+import de.unknownreality.dataframe.csv.CSVIterator;
+import de.unknownreality.dataframe.csv.CSVReader;
+import de.unknownreality.dataframe.csv.CSVReaderBuilder;
+import de.unknownreality.dataframe.group.DataGroup;
+import de.unknownreality.dataframe.group.DataGrouping;
+import de.unknownreality.dataframe.group.RunGroupIterator;
+import de.unknownreality.dataframe.join.JoinColumn;
+import de.unknownreality.dataframe.join.impl.SortMergeJoinUtil;
+import de.unknownreality.dataframe.sort.SortColumn;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DataFrameSortOrderTest {
+
+    private static void assertGroup(DataGroup group, String column, int... values) {
+        Assert.assertEquals(values.length, group.size());
+        for (int i = 0; i < values.length; i++) {
+            Assert.assertEquals(values[i], (int) group.getRow(i).getInteger(column));
+        }
+    }
+
+    @Test
+    public void testSortOrder() {
+        DefaultDataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new StringColumn("name"));
+        dataFrame.addColumn(new IntegerColumn("x"));
+        dataFrame.append("b", 1);
+        dataFrame.append("a", 2);
+        dataFrame.append(Values.NA, 3);
+        dataFrame.append("b", 4);
+        dataFrame.append("a", 5);
+        Assert.assertEquals(0, dataFrame.getSortOrder().length);
+        Assert.assertFalse(dataFrame.isSortedBy("name"));
+        Assert.assertTrue(dataFrame.isSortedBy());
+
+        dataFrame.sort(new SortColumn("name"), new SortColumn("x", SortColumn.Direction.Descending));
+        Assert.assertEquals(2, dataFrame.getSortOrder().length);
+        Assert.assertTrue(dataFrame.isSortedBy("name"));
+        Assert.assertFalse(dataFrame.isSortedBy("name", "x"));
+        Assert.assertFalse(dataFrame.isSortedBy("x"));
+        Assert.assertTrue(dataFrame.copy().isSortedBy("name"));
+        Assert.assertTrue(dataFrame.freeze().isSortedBy("name"));
+
+        dataFrame.removeColumn("x");
+        Assert.assertEquals(0, dataFrame.getSortOrder().length);
+
+        dataFrame.sort("name");
+        Assert.assertTrue(dataFrame.isSortedBy("name"));
+        dataFrame.append("a");
+        Assert.assertFalse(dataFrame.isSortedBy("name"));
+
+        dataFrame.sort("name");
+        dataFrame.getStringColumn("name").set(0, "z");
+        Assert.assertFalse(dataFrame.isSortedBy("name"));
+    }
+
+    @Test
+    public void testSetSortOrder() {
+        DefaultDataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new IntegerColumn("x"));
+        dataFrame.append(1);
+        dataFrame.append(2);
+        dataFrame.append(Values.NA);
+        dataFrame.setSortOrder(new SortColumn("x"));
+        Assert.assertTrue(dataFrame.isSortedBy("x"));
+        try {
+            dataFrame.setSortOrder(new SortColumn("x", SortColumn.Direction.Descending));
+            Assert.fail("unsorted data frame accepted");
+        } catch (DataFrameRuntimeException e) {
+            Assert.assertTrue(dataFrame.isSortedBy("x"));
+        }
+    }
+
+    @Test
+    public void testRunGrouping() {
+        DefaultDataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new StringColumn("name"));
+        dataFrame.addColumn(new IntegerColumn("x"));
+        dataFrame.append("b", 1);
+        dataFrame.append("a", 2);
+        dataFrame.append(Values.NA, 3);
+        dataFrame.append("b", 4);
+        dataFrame.append("a", 5);
+        dataFrame.sort("name");
+        DataGrouping grouping = dataFrame.groupBy("name");
+        // the sorted data frame is copied without sorting it again
+        Assert.assertNotSame(dataFrame, grouping.getSource());
+        Assert.assertEquals(3, grouping.size());
+        assertGroup(grouping.findByGroupValues("a").getGroup(), "x", 2, 5);
+        assertGroup(grouping.findByGroupValues("b").getGroup(), "x", 1, 4);
+        assertGroup(grouping.findByGroupValues(Values.NA).getGroup(), "x", 3);
+
+        DefaultDataFrame unsorted = new DefaultDataFrame();
+        unsorted.addColumn(new StringColumn("name"));
+        unsorted.addColumn(new IntegerColumn("x"));
+        unsorted.append("b", 1);
+        unsorted.append("a", 2);
+        unsorted.append(Values.NA, 3);
+        unsorted.append("b", 4);
+        unsorted.append("a", 5);
+        DataGrouping copyGrouping = unsorted.groupBy("name");
+        Assert.assertNotSame(unsorted, copyGrouping.getSource());
+        Assert.assertEquals(grouping.size(), copyGrouping.size());
+        for (int i = 0; i < grouping.size(); i++) {
+            Assert.assertEquals(grouping.getRow(i).get("name"), copyGrouping.getRow(i).get("name"));
+            Assert.assertEquals(grouping.getGroup(i).size(), copyGrouping.getGroup(i).size());
+        }
+    }
+
+    @Test
+    public void testReplaceSortColumn() {
+        DefaultDataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new IntegerColumn("k"));
+        dataFrame.addColumn(new StringColumn("v"));
+        dataFrame.append(1, "x");
+        dataFrame.append(2, "y");
+        dataFrame.append(1, "z");
+        dataFrame.sort("k");
+        dataFrame.replaceColumn("k", new IntegerColumn("k", new Integer[]{2, 1, 2}));
+        Assert.assertFalse(dataFrame.isSortedBy("k"));
+        Assert.assertEquals(2, dataFrame.groupBy("k").size());
+
+        DefaultDataFrame other = new DefaultDataFrame();
+        other.addColumn(new IntegerColumn("k"));
+        other.append(1);
+        other.append(2);
+        other.sort("k");
+        Assert.assertEquals(3, new SortMergeJoinUtil().innerJoin(dataFrame, other, new JoinColumn("k")).size());
+
+        dataFrame.sort("k");
+        dataFrame.renameColumn("k", "key");
+        Assert.assertFalse(dataFrame.isSortedBy("key"));
+        Assert.assertFalse(dataFrame.isSortedBy("k"));
+    }
+
+    @Test
+    public void testRunGroupIterator() {
+        CSVReader csvReader = CSVReaderBuilder.create()
+                .withHeader(true)
+                .withSeparator(';')
+                .setColumnType("ID", Integer.class)
+                .setColumnType("NAME", String.class)
+                .setColumnType("VALUE", Integer.class)
+                .build();
+        CSVIterator iterator = csvReader.load("ID;NAME;VALUE\n1;A;1\n1;A;2\n1;B;3\n2;A;4\n3;C;5\n3;C;6\n");
+        RunGroupIterator<?> groups = new RunGroupIterator<>(iterator, "ID", "NAME");
+        int[][] expected = {{1, 2}, {3}, {4}, {5, 6}};
+        int g = 0;
+        while (groups.hasNext()) {
+            DataGroup group = groups.next();
+            assertGroup(group, "VALUE", expected[g++]);
+            Assert.assertEquals(3, group.getColumnNames().size());
+        }
+        Assert.assertEquals(4, g);
+    }
+}
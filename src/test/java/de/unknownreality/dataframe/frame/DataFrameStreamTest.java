@@ -0,0 +1,99 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.frame;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataRow;
+import de.unknownreality.dataframe.DefaultDataFrame;
+import de.unknownreality.dataframe.column.IntegerColumn;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+public class DataFrameStreamTest {
+
+    @Test
+    public void testStream() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addIntegerColumn("id");
+        dataFrame.addStringColumn("group");
+        for (int i = 0; i < 1000; i++) {
+            dataFrame.append(i % 10 == 0 ? null : i, "G" + (i % 4));
+        }
+        List<Integer> ids = dataFrame.stream().map(row -> row.getIndex()).collect(Collectors.toList());
+        Assert.assertEquals(1000, ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Assert.assertEquals(Integer.valueOf(i), ids.get(i));
+        }
+        Map<String, Long> counts = dataFrame.parallelStream()
+                .collect(Collectors.groupingBy(row -> row.getString("group"), Collectors.counting()));
+        Assert.assertEquals(Long.valueOf(250), counts.get("G0"));
+        Assert.assertEquals(Long.valueOf(250), counts.get("G3"));
+        List<Integer> parallelIds = dataFrame.parallelStream().map(DataRow::getIndex).collect(Collectors.toList());
+        Assert.assertEquals(ids, parallelIds);
+    }
+
+    @Test
+    public void testSpliterator() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addIntegerColumn("id");
+        dataFrame.addStringColumn("group");
+        for (int i = 0; i < 1000; i++) {
+            dataFrame.append(i % 10 == 0 ? null : i, "G" + (i % 4));
+        }
+        Spliterator<DataRow> spliterator = dataFrame.spliterator();
+        Assert.assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+        Assert.assertEquals(1000, spliterator.getExactSizeIfKnown());
+        Spliterator<DataRow> prefix = spliterator.trySplit();
+        Assert.assertNotNull(prefix);
+        Assert.assertEquals(500, prefix.getExactSizeIfKnown());
+        Assert.assertEquals(500, spliterator.getExactSizeIfKnown());
+        prefix.tryAdvance(row -> Assert.assertEquals(0, row.getIndex()));
+        spliterator.tryAdvance(row -> Assert.assertEquals(500, row.getIndex()));
+    }
+
+    @Test
+    public void testNumberStreams() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addIntegerColumn("id");
+        dataFrame.addStringColumn("group");
+        for (int i = 0; i < 1000; i++) {
+            dataFrame.append(i % 10 == 0 ? null : i, "G" + (i % 4));
+        }
+        IntegerColumn column = dataFrame.getIntegerColumn("id");
+        long expected = 0;
+        for (int i = 0; i < 1000; i++) {
+            expected += i % 10 == 0 ? 0 : i;
+        }
+        Assert.assertEquals(expected, column.longStream().sum());
+        Assert.assertEquals(expected, column.intStream().parallel().sum());
+        Assert.assertEquals((double) expected, column.doubleStream().parallel().sum(), 0);
+        Assert.assertEquals(900, column.doubleStream().count());
+    }
+}
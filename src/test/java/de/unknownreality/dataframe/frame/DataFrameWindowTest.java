@@ -0,0 +1,174 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.frame;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameRuntimeException;
+import de.unknownreality.dataframe.DefaultDataFrame;
+import de.unknownreality.dataframe.Values;
+import de.unknownreality.dataframe.sort.SortColumn;
+import de.unknownreality.dataframe.window.Window;
+import de.unknownreality.dataframe.window.WindowFunctions;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class DataFrameWindowTest {
+    @Rule
+    public final ExpectedException exception = ExpectedException.none();
+
+    private static Double value(DataFrame dataFrame, String column, int row) {
+        Object value = dataFrame.getRow(row).get(column);
+        return value == Values.NA ? null : ((Number) value).doubleValue();
+    }
+
+    @Test
+    public void testRolling() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addStringColumn("group");
+        dataFrame.addIntegerColumn("day");
+        dataFrame.addDoubleColumn("value");
+        dataFrame.append("A", 3, 3d);
+        dataFrame.append("B", 1, 10d);
+        dataFrame.append("A", 1, 1d);
+        dataFrame.append("A", 4, null);
+        dataFrame.append("B", 2, 20d);
+        dataFrame.append("A", 2, 5d);
+        dataFrame.append("B", 3, 20d);
+        dataFrame.window(Window.partitionBy("group").orderBy("day").rowsBetween(-1, 0))
+                .add("sum", WindowFunctions.sum("value"))
+                .add("mean", WindowFunctions.mean("value"))
+                .add("count", WindowFunctions.count("value"))
+                .add("min", WindowFunctions.min("value"))
+                .add("max", WindowFunctions.max("value"));
+        // A: day 1 -> 1, day 2 -> 5, day 3 -> 3, day 4 -> NA
+        Double[] sum = {8d, 10d, 1d, 3d, 30d, 6d, 40d};
+        Double[] mean = {4d, 10d, 1d, 3d, 15d, 3d, 20d};
+        Double[] count = {2d, 1d, 1d, 1d, 2d, 2d, 2d};
+        Double[] min = {3d, 10d, 1d, 3d, 10d, 1d, 20d};
+        Double[] max = {5d, 10d, 1d, 3d, 20d, 5d, 20d};
+        for (int i = 0; i < dataFrame.size(); i++) {
+            Assert.assertEquals(sum[i], value(dataFrame, "sum", i));
+            Assert.assertEquals(mean[i], value(dataFrame, "mean", i));
+            Assert.assertEquals(count[i], value(dataFrame, "count", i));
+            Assert.assertEquals(min[i], value(dataFrame, "min", i));
+            Assert.assertEquals(max[i], value(dataFrame, "max", i));
+        }
+    }
+
+    @Test
+    public void testCumulative() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addStringColumn("group");
+        dataFrame.addIntegerColumn("day");
+        dataFrame.addDoubleColumn("value");
+        dataFrame.append("A", 3, 3d);
+        dataFrame.append("B", 1, 10d);
+        dataFrame.append("A", 1, 1d);
+        dataFrame.append("A", 4, null);
+        dataFrame.append("B", 2, 20d);
+        dataFrame.append("A", 2, 5d);
+        dataFrame.append("B", 3, 20d);
+        dataFrame.window(Window.partitionBy("group").orderBy("day"))
+                .add("cumSum", WindowFunctions.cumSum("value"))
+                .add("runningMax", WindowFunctions.max("value"));
+        Double[] cumSum = {9d, 10d, 1d, 9d, 30d, 6d, 50d};
+        Double[] runningMax = {5d, 10d, 1d, 5d, 20d, 5d, 20d};
+        for (int i = 0; i < dataFrame.size(); i++) {
+            Assert.assertEquals(cumSum[i], value(dataFrame, "cumSum", i));
+            Assert.assertEquals(runningMax[i], value(dataFrame, "runningMax", i));
+        }
+
+        dataFrame.window(Window.create().rowsBetween(Window.UNBOUNDED_PRECEDING, Window.UNBOUNDED_FOLLOWING))
+                .add("total", WindowFunctions.sum("value"));
+        for (int i = 0; i < dataFrame.size(); i++) {
+            Assert.assertEquals(59d, value(dataFrame, "total", i), 0);
+        }
+    }
+
+    @Test
+    public void testLagLead() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addStringColumn("group");
+        dataFrame.addIntegerColumn("day");
+        dataFrame.addDoubleColumn("value");
+        dataFrame.append("A", 3, 3d);
+        dataFrame.append("B", 1, 10d);
+        dataFrame.append("A", 1, 1d);
+        dataFrame.append("A", 4, null);
+        dataFrame.append("B", 2, 20d);
+        dataFrame.append("A", 2, 5d);
+        dataFrame.append("B", 3, 20d);
+        dataFrame.window(Window.partitionBy("group").orderBy("day"))
+                .add("lag", WindowFunctions.lag("value", 1))
+                .add("lead", WindowFunctions.lead("day", 1))
+                .add("delta", WindowFunctions.delta("value", 1));
+        Double[] lag = {5d, null, null, 3d, 10d, 1d, 20d};
+        Double[] lead = {4d, 2d, 2d, null, 3d, 3d, null};
+        Double[] delta = {-2d, null, null, null, 10d, 4d, 0d};
+        for (int i = 0; i < dataFrame.size(); i++) {
+            Assert.assertEquals(lag[i], value(dataFrame, "lag", i));
+            Assert.assertEquals(lead[i], value(dataFrame, "lead", i));
+            Assert.assertEquals(delta[i], value(dataFrame, "delta", i));
+        }
+        Assert.assertEquals(Double.class, dataFrame.getColumn("lag").getType());
+        Assert.assertEquals(Integer.class, dataFrame.getColumn("lead").getType());
+    }
+
+    @Test
+    public void testRank() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addStringColumn("group");
+        dataFrame.addIntegerColumn("day");
+        dataFrame.addDoubleColumn("value");
+        dataFrame.append("A", 3, 3d);
+        dataFrame.append("B", 1, 10d);
+        dataFrame.append("A", 1, 1d);
+        dataFrame.append("A", 4, null);
+        dataFrame.append("B", 2, 20d);
+        dataFrame.append("A", 2, 5d);
+        dataFrame.append("B", 3, 20d);
+        dataFrame.window(Window.partitionBy("group").orderBy(new SortColumn("value", SortColumn.Direction.Descending)))
+                .add("rowNumber", WindowFunctions.rowNumber())
+                .add("rank", WindowFunctions.rank())
+                .add("denseRank", WindowFunctions.denseRank());
+        // B: 20, 20, 10 / A: 5, 3, 1, NA
+        Integer[] rowNumber = {2, 3, 3, 4, 1, 1, 2};
+        Integer[] rank = {2, 3, 3, 4, 1, 1, 1};
+        Integer[] denseRank = {2, 2, 3, 4, 1, 1, 1};
+        for (int i = 0; i < dataFrame.size(); i++) {
+            Assert.assertEquals(rowNumber[i], dataFrame.getRow(i).getInteger("rowNumber"));
+            Assert.assertEquals(rank[i], dataFrame.getRow(i).getInteger("rank"));
+            Assert.assertEquals(denseRank[i], dataFrame.getRow(i).getInteger("denseRank"));
+        }
+    }
+
+    @Test
+    public void testInvalidFrame() {
+        exception.expect(DataFrameRuntimeException.class);
+        Window.create().rowsBetween(1, -1);
+    }
+}
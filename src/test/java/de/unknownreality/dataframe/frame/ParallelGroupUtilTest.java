@@ -0,0 +1,110 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.frame;
+
+import de.unknownreality.dataframe.DefaultDataFrame;
+import de.unknownreality.dataframe.Values;
+import de.unknownreality.dataframe.column.DoubleColumn;
+import de.unknownreality.dataframe.column.IntegerColumn;
+import de.unknownreality.dataframe.column.StringColumn;
+import de.unknownreality.dataframe.group.DataGrouping;
+import de.unknownreality.dataframe.group.aggr.Accumulator;
+import de.unknownreality.dataframe.group.aggr.Accumulators;
+import de.unknownreality.dataframe.group.impl.HashGroupUtil;
+import de.unknownreality.dataframe.group.impl.ParallelGroupUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class ParallelGroupUtilTest {
+
+    private static DefaultDataFrame createDataFrame(int rows) {
+        Random random = new Random(7);
+        DefaultDataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new StringColumn("key"));
+        dataFrame.addColumn(new IntegerColumn("id"));
+        dataFrame.addColumn(new DoubleColumn("value"));
+        for (int i = 0; i < rows; i++) {
+            int key = random.nextInt(500);
+            dataFrame.append("k" + (key % 7), key % 3 == 0 ? Values.NA : key, random.nextDouble());
+        }
+        return dataFrame;
+    }
+
+    @Test
+    public void testAggregate() {
+        DefaultDataFrame dataFrame = createDataFrame(100000);
+        Map<String, Accumulator> accumulators = new LinkedHashMap<>();
+        accumulators.put("count", Accumulators.count());
+        accumulators.put("sum", Accumulators.sum("value"));
+        accumulators.put("var", Accumulators.variance("value"));
+        accumulators.put("first", Accumulators.first("value"));
+        accumulators.put("last", Accumulators.last("value"));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            DataGrouping parallel = new ParallelGroupUtil(executor, 4)
+                    .aggregate(dataFrame, new String[]{"key", "id"}, accumulators);
+
+            dataFrame.setGroupUtil(new HashGroupUtil());
+            DataGrouping expected = dataFrame.groupBy("key", "id");
+            for (Map.Entry<String, Accumulator> entry : accumulators.entrySet()) {
+                expected.agg(entry.getKey(), entry.getValue());
+            }
+
+            Assert.assertEquals(expected.size(), parallel.size());
+            Assert.assertEquals(expected.getColumnNames(), parallel.getColumnNames());
+            for (int i = 0; i < expected.size(); i++) {
+                Assert.assertEquals(expected.getRow(i).get("key"), parallel.getRow(i).get("key"));
+                Assert.assertEquals(expected.getRow(i).get("id"), parallel.getRow(i).get("id"));
+                Assert.assertEquals(expected.getRow(i).getInteger("count"), parallel.getRow(i).getInteger("count"));
+                Assert.assertEquals(expected.getRow(i).getDouble("sum"), parallel.getRow(i).getDouble("sum"), 1e-9);
+                Assert.assertEquals(expected.getRow(i).getDouble("var"), parallel.getRow(i).getDouble("var"), 1e-9);
+                Assert.assertEquals(expected.getRow(i).get("first"), parallel.getRow(i).get("first"));
+                Assert.assertEquals(expected.getRow(i).get("last"), parallel.getRow(i).get("last"));
+                Assert.assertArrayEquals(expected.getGroupRows(i), parallel.getGroupRows(i));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testGroupBy() {
+        DefaultDataFrame dataFrame = createDataFrame(100);
+        dataFrame.setGroupUtil(new ParallelGroupUtil());
+        DataGrouping grouping = dataFrame.groupBy("key");
+        Assert.assertEquals(7, grouping.size());
+        int rows = 0;
+        for (int i = 0; i < grouping.size(); i++) {
+            rows += grouping.getGroup(i).size();
+        }
+        Assert.assertEquals(100, rows);
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.frame;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameRuntimeException;
+import de.unknownreality.dataframe.DataRow;
+import de.unknownreality.dataframe.DefaultDataFrame;
+import de.unknownreality.dataframe.Values;
+import de.unknownreality.dataframe.column.DoubleColumn;
+import de.unknownreality.dataframe.column.IntegerColumn;
+import de.unknownreality.dataframe.column.StringColumn;
+import de.unknownreality.dataframe.group.DataGrouping;
+import de.unknownreality.dataframe.group.GroupRow;
+import de.unknownreality.dataframe.group.aggr.Accumulator;
+import de.unknownreality.dataframe.group.aggr.Accumulators;
+import de.unknownreality.dataframe.group.impl.HashGroupUtil;
+import de.unknownreality.dataframe.group.impl.SpillingAggregator;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class SpillingAggregatorTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private static DataFrame createChunk(Random random, int rows) {
+        DefaultDataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addColumn(new StringColumn("session"));
+        dataFrame.addColumn(new IntegerColumn("user"));
+        dataFrame.addColumn(new DoubleColumn("value"));
+        for (int i = 0; i < rows; i++) {
+            int session = random.nextInt(300);
+            dataFrame.append("s" + session, session % 11 == 0 ? Values.NA : session % 5, (double) random.nextInt(100));
+        }
+        return dataFrame;
+    }
+
+    private static Map<String, Accumulator> createAccumulators() {
+        Map<String, Accumulator> accumulators = new LinkedHashMap<>();
+        accumulators.put("count", Accumulators.count());
+        accumulators.put("sum", Accumulators.sum("value"));
+        accumulators.put("var", Accumulators.variance("value"));
+        accumulators.put("max", Accumulators.max("value"));
+        accumulators.put("first", Accumulators.first("value"));
+        accumulators.put("last", Accumulators.last("value"));
+        accumulators.put("median", Accumulators.median("value"));
+        return accumulators;
+    }
+
+    @Test
+    public void testSpill() throws Exception {
+        File tempDirectory = folder.newFolder();
+        Random random = new Random(3);
+        List<DataFrame> chunks = new ArrayList<>();
+        SpillingAggregator aggregator = new SpillingAggregator(new String[]{"session", "user"}, createAccumulators(),
+                50, 4, tempDirectory);
+        for (int i = 0; i < 10; i++) {
+            DataFrame chunk = createChunk(random, 500);
+            chunks.add(chunk);
+            aggregator.add(chunk);
+        }
+        Assert.assertTrue(aggregator.isSpilled());
+        Assert.assertEquals(4, tempDirectory.list().length);
+        DataFrame result = aggregator.finish();
+        Assert.assertEquals(0, tempDirectory.list().length);
+
+        DefaultDataFrame all = (DefaultDataFrame) chunks.get(0).copy().concat(chunks.subList(1, chunks.size()));
+        all.setGroupUtil(new HashGroupUtil());
+        DataGrouping expected = all.groupBy("session", "user");
+        for (Map.Entry<String, Accumulator> entry : createAccumulators().entrySet()) {
+            expected.agg(entry.getKey(), entry.getValue());
+        }
+        Assert.assertEquals(expected.size(), result.size());
+        Assert.assertEquals(expected.getColumnNames(), result.getColumnNames());
+        for (DataRow row : result) {
+            GroupRow expectedRow = expected.findByGroupValues(row.get("session"), row.get("user"));
+            Assert.assertNotNull(expectedRow);
+            Assert.assertEquals(expectedRow.getInteger("count"), row.getInteger("count"));
+            Assert.assertEquals(expectedRow.getDouble("sum"), row.getDouble("sum"), 1e-9);
+            if (expectedRow.isNA("var")) {
+                Assert.assertTrue(row.isNA("var"));
+            } else {
+                Assert.assertEquals(expectedRow.getDouble("var"), row.getDouble("var"), 1e-9);
+            }
+            Assert.assertEquals(expectedRow.get("max"), row.get("max"));
+            Assert.assertEquals(expectedRow.get("first"), row.get("first"));
+            Assert.assertEquals(expectedRow.get("last"), row.get("last"));
+            Assert.assertEquals(expectedRow.get("median"), row.get("median"));
+        }
+    }
+
+    @Test
+    public void testInMemory() {
+        SpillingAggregator aggregator = new SpillingAggregator(new String[]{"user"}, createAccumulators(), 100);
+        Random random = new Random(5);
+        int rows = 0;
+        for (int i = 0; i < 3; i++) {
+            DataFrame chunk = createChunk(random, 100);
+            rows += chunk.size();
+            aggregator.add(chunk);
+        }
+        Assert.assertFalse(aggregator.isSpilled());
+        DataFrame result = aggregator.finish();
+        Assert.assertEquals(6, result.size());
+        int count = 0;
+        for (DataRow row : result) {
+            count += row.getInteger("count");
+        }
+        Assert.assertEquals(rows, count);
+    }
+
+    @Test
+    public void testFailedAdd() throws Exception {
+        File tempDirectory = folder.newFolder();
+        Random random = new Random(7);
+        SpillingAggregator aggregator = new SpillingAggregator(new String[]{"session"}, createAccumulators(),
+                50, 4, tempDirectory);
+        aggregator.add(createChunk(random, 500));
+        Assert.assertTrue(aggregator.isSpilled());
+        Assert.assertEquals(4, tempDirectory.list().length);
+
+        DataFrame missingColumn = new DefaultDataFrame();
+        missingColumn.addColumn(new DoubleColumn("value"));
+        missingColumn.append(1d);
+        try {
+            aggregator.add(missingColumn);
+            Assert.fail("chunk without grouping column added");
+        } catch (DataFrameRuntimeException e) {
+            // expected
+        }
+        Assert.assertFalse(aggregator.isSpilled());
+        Assert.assertEquals(0, tempDirectory.list().length);
+        try {
+            aggregator.add(createChunk(random, 10));
+            Assert.fail("closed aggregator accepted a chunk");
+        } catch (DataFrameRuntimeException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        File tempDirectory = folder.newFolder();
+        Random random = new Random(9);
+        try (SpillingAggregator aggregator = new SpillingAggregator(new String[]{"session"}, createAccumulators(),
+                50, 4, tempDirectory)) {
+            aggregator.add(createChunk(random, 500));
+            Assert.assertEquals(4, tempDirectory.list().length);
+        }
+        Assert.assertEquals(0, tempDirectory.list().length);
+
+        SpillingAggregator aggregator = new SpillingAggregator(new String[]{"session"}, createAccumulators(),
+                50, 4, tempDirectory);
+        aggregator.add(createChunk(random, 500));
+        int count = 0;
+        for (DataRow row : aggregator.finish()) {
+            count += row.getInteger("count");
+        }
+        Assert.assertEquals(500, count);
+        aggregator.close();
+        Assert.assertEquals(0, tempDirectory.list().length);
+    }
+}
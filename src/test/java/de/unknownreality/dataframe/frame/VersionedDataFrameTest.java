@@ -0,0 +1,176 @@
+/*
+ *
+ *  * Copyright (c) 2017 Alexander Grün
+ *  *
+ *  * Permission is hereby granted, free of charge, to any person obtaining a copy
+ *  * of this software and associated documentation files (the "Software"), to deal
+ *  * in the Software without restriction, including without limitation the rights
+ *  * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *  * copies of the Software, and to permit persons to whom the Software is
+ *  * furnished to do so, subject to the following conditions:
+ *  *
+ *  * The above copyright notice and this permission notice shall be included in all
+ *  * copies or substantial portions of the Software.
+ *  *
+ *  * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *  * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *  * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *  * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *  * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ *  * SOFTWARE.
+ *
+ */
+
+package de.unknownreality.dataframe.frame;
+
+import de.unknownreality.dataframe.DataFrame;
+import de.unknownreality.dataframe.DataFrameRuntimeException;
+import de.unknownreality.dataframe.DataRow;
+import de.unknownreality.dataframe.DefaultDataFrame;
+import de.unknownreality.dataframe.VersionedDataFrame;
+import de.unknownreality.dataframe.column.DoubleColumn;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class VersionedDataFrameTest {
+
+    @Test
+    public void testSharedColumns() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addIntegerColumn("id");
+        dataFrame.addDoubleColumn("price");
+        for (int i = 0; i < 10; i++) {
+            dataFrame.append(i, 1d);
+        }
+        dataFrame.setPrimaryKey("id");
+        VersionedDataFrame versioned = new VersionedDataFrame(dataFrame);
+        DataFrame first = versioned.current();
+        Assert.assertTrue(first.isFrozen());
+
+        DataFrame second = versioned.update(df -> {
+            DoubleColumn price = df.getDoubleColumn("price").copy();
+            price.map(value -> value * 2);
+            price.setName("price");
+            return df.replaceColumn("price", price);
+        });
+        Assert.assertSame(second, versioned.current());
+        Assert.assertEquals(1, versioned.getVersion());
+        Assert.assertSame(first.getColumn("id"), second.getColumn("id"));
+        Assert.assertNotSame(first.getColumn("price"), second.getColumn("price"));
+        Assert.assertEquals(1d, first.getRow(3).getDouble("price"), 0);
+        Assert.assertEquals(2d, second.getRow(3).getDouble("price"), 0);
+        Assert.assertEquals(2d, second.findByPrimaryKey(3).getDouble("price"), 0);
+
+        DataFrame third = versioned.update(df -> df.append(10, 5d));
+        Assert.assertEquals(10, second.size());
+        Assert.assertEquals(11, third.size());
+        Assert.assertEquals(5d, third.findByPrimaryKey(10).getDouble("price"), 0);
+        Assert.assertEquals(10, first.size());
+    }
+
+    @Test
+    public void testWorkingCopyWrites() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addIntegerColumn("id");
+        dataFrame.addDoubleColumn("price");
+        for (int i = 0; i < 10; i++) {
+            dataFrame.append(i, 1d);
+        }
+        dataFrame.setPrimaryKey("id");
+        VersionedDataFrame versioned = new VersionedDataFrame(dataFrame);
+        DataFrame first = versioned.current();
+        DataFrame second = versioned.update(df -> {
+            DataRow row = df.getRow(3);
+            row.set("price", 7d);
+            return df.update(row);
+        });
+        // only the written column is copied
+        Assert.assertSame(first.getColumn("id"), second.getColumn("id"));
+        Assert.assertNotSame(first.getColumn("price"), second.getColumn("price"));
+        Assert.assertEquals(7d, second.getRow(3).getDouble("price"), 0);
+        Assert.assertEquals(1d, first.getRow(3).getDouble("price"), 0);
+
+        // columns obtained from the working copy are the shared frozen columns
+        try {
+            versioned.update(df -> {
+                df.getDoubleColumn("price").set(0, 5d);
+                return df;
+            });
+            Assert.fail("shared column modified");
+        } catch (DataFrameRuntimeException e) {
+            Assert.assertSame(second, versioned.current());
+        }
+    }
+
+    @Test
+    public void testFailedUpdate() {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addIntegerColumn("id");
+        dataFrame.addDoubleColumn("price");
+        for (int i = 0; i < 10; i++) {
+            dataFrame.append(i, 1d);
+        }
+        dataFrame.setPrimaryKey("id");
+        VersionedDataFrame versioned = new VersionedDataFrame(dataFrame);
+        DataFrame first = versioned.current();
+        try {
+            versioned.update(df -> {
+                df.append(10, 1d);
+                throw new DataFrameRuntimeException("failed");
+            });
+            Assert.fail();
+        } catch (DataFrameRuntimeException e) {
+            // expected
+        }
+        Assert.assertSame(first, versioned.current());
+        Assert.assertEquals(10, versioned.current().size());
+    }
+
+    @Test
+    public void testConcurrentReaders() throws Exception {
+        DataFrame dataFrame = new DefaultDataFrame();
+        dataFrame.addIntegerColumn("id");
+        dataFrame.addDoubleColumn("price");
+        for (int i = 0; i < 1000; i++) {
+            dataFrame.append(i, 1d);
+        }
+        dataFrame.setPrimaryKey("id");
+        final VersionedDataFrame versioned = new VersionedDataFrame(dataFrame);
+        final AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<Boolean> reader = executor.submit(() -> {
+                while (running.get()) {
+                    DataFrame snapshot = versioned.current();
+                    double first = snapshot.getRow(0).getDouble("price");
+                    for (int i = 0; i < snapshot.size(); i++) {
+                        if (snapshot.getRow(i).getDouble("price") != first) {
+                            return false;
+                        }
+                    }
+                }
+                return true;
+            });
+            for (int v = 0; v < 50; v++) {
+                final double price = v;
+                versioned.update(df -> {
+                    DoubleColumn column = new DoubleColumn("price");
+                    for (int i = 0; i < df.size(); i++) {
+                        column.append(price);
+                    }
+                    return df.replaceColumn("price", column);
+                });
+            }
+            running.set(false);
+            Assert.assertTrue(reader.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}